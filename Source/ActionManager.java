@@ -1,102 +1,182 @@
-//	ActionManager.java - Manage Action states.
-
-//	ActionManagers provide an infrastructure for updating the enable status of commands as
-//	the application and document's state changes.  They utilize and build upon the Action 
-//	interface defined in Swing.
-//
-//	There is an ActionManager in each level of the object hierarchy (app, document, window),
-//	which manages Actions whose enable states depend upon the state of the associated object.
-//
-//	The updateAllActionEnables() method should be called whenever the state of the associated
-//	object changes.  It calls the updateEnable() method of each Action, causing them to recompute
-//	their update state as determined by the associated object's state.
-//
-//	??	This can lead to a tradeoff between clear code and performance.  For clear code, it's good 
-//	??	to call updateAllActionEnables() immediately after changing state.  However, this might
-//	??	lead to updateAllActionEnables() being called more than once for a single user-visible
-//	??	operation.  One solution is to add to
-//	??	ActionManager a flag indicating that the enables need to be re-evaluated.  This flag gets
-//	??	set at each place where state is changed.  A low-priority task periodically (or when it
-//	??	get's waked up?) does updateAllActionEnables() when the flag is set, and clears it.
-//	
-//	Provisions have been made in case updating all Action enables gets to be a performance hog.
-//	In this case, lists of Actions which depend upon particular aspects of the associated object's
-//	state will be kept.  When a particular aspect of the state is changed, updateActionEnables(List)
-//	will be called with the appropriate list.
-//
-//	Update requests are propagated down the hierarchy;  i.e., if the state of
-//	the document changes, the window ActionManager(s) get the update request too.
-
-import java.util.*;
-import java.util.List;
-
-public class  ActionManager extends Object {
-
-	//	Constants.
-	
-	
-	//	Instance variables.
-	protected List iChildAMs = new ArrayList();		//	Our children
-	protected List iAllActions = new ArrayList();		//	All Actions managed by this object
-
-
-	//	Add an ActionManager to our list of children.
-	public void addChild(ActionManager am){
-		iChildAMs.add(am);
-	}
-	
-	
-	//	Remove an ActionManager from our list of children.
-	public void removeChild(ActionManager am){
-		iChildAMs.remove(am);
-	}
-
-	
-	//	Add an action to the list of all actions.
-	//	Returns the Action passed to it, to save lines in calling code.
-	public CustomAction add(CustomAction action){
-		Debug.assertOnError(iAllActions.add(action));
-		return action;
-	}
-	
-	
-	//	Remove an action from the list of all actions.
-	public void remove(CustomAction action){
-		Debug.assertOnError(iAllActions.remove(action));
-	}
-	
-	
-	//	Update the enable states of all Actions managed by this object.
-	public void updateAllActionEnables(){
-	
-		long startTime = System.currentTimeMillis();
-		
-		//	Update all Actions we know about.
-		this.updateActionEnables(iAllActions);
-
-		//	Update all Actions of our children.
-		Iterator iter = iChildAMs.iterator();
-		while (iter.hasNext()){
-			ActionManager am = (ActionManager)iter.next();
-			am.updateAllActionEnables();
-		}
-		
-		long runTime = System.currentTimeMillis() - startTime;
-		if (runTime > 10)
-			System.err.println("updateAllActionEnables() took " + runTime +
-							" milliseconds.");
-	}
-	
-	
-	//	Update the enable states of Actions from the provided list.
-	//	??	Parameter should be a Set rather than a List.
-	//	??	Currently, this does nothing with child ActionManagers.
-	//	??	Adding support will wait until we understand what the need is.
-	public void updateActionEnables(List actionList){
-		Iterator iter = actionList.iterator();
-		while (iter.hasNext()){
-			CustomAction action = (CustomAction)iter.next();
-			action.updateEnable();
-		}
-	}
+//	ActionManager.java - Manage Action states.
+
+//	ActionManagers provide an infrastructure for updating the enable status of commands as
+//	the application and document's state changes.  They utilize and build upon the Action 
+//	interface defined in Swing.
+//
+//	There is an ActionManager in each level of the object hierarchy (app, document, window),
+//	which manages Actions whose enable states depend upon the state of the associated object.
+//
+//	updateAllActionEnables() calls the updateEnable() method of each Action, causing them to recompute
+//	their enable state as determined by the associated object's state.  It is used when the object is
+//	first set up.
+//
+//	After that, code that changes some aspect of an object's state calls invalidate() with the bits
+//	below that describe what changed.  Each Action declares, through getDependencies(), which aspects
+//	its enable state reads.  invalidate() just accumulates the changed aspects;  the Actions that depend
+//	on them are recomputed once, from an invokeLater() callback, no matter how many times their state 
+//	changed while handling the current event.
+//
+//	Update requests are propagated down the hierarchy;  i.e., if the state of
+//	the document changes, the window ActionManager(s) get the update request too.
+//
+//	Each ActionManager belongs to the object at its level of the hierarchy.  When a document or window
+//	closes, it calls detach() on its ActionManager.  Otherwise the application's ActionManager would keep
+//	the closed object (through its Actions, which are inner classes of it) reachable for the rest of the
+//	session, and every update would walk its Actions.
+
+import java.util.*;
+import java.util.List;
+import javax.swing.SwingUtilities;
+
+public class  ActionManager extends Object implements Runnable {
+
+	//	Constants.
+	//	Aspects of object state that Action enables depend upon.
+	public static final int NO_ASPECTS = 0;
+	public static final int SELECTION = 0x01;			//	Contents of a window's selection
+	public static final int CONTENT_LOCK = 0x02;		//	Document's content lock
+	public static final int EDIT_COUNT = 0x04;			//	Document's count of unsaved edits (and so its contents)
+	public static final int SEARCH = 0x08;				//	Document's search string
+	public static final int SCALE = 0x10;				//	Window's time scale
+	public static final int ALL_ASPECTS = ~0;
+	
+	
+	//	Instance variables.
+	protected ActionManager iParent;				//	Our parent.  Null => none
+	protected List iChildAMs = new ArrayList();		//	Our children
+	protected List iAllActions = new ArrayList();		//	All Actions managed by this object
+	protected int iPendingAspects;				//	Aspects changed since enables were last updated
+	protected boolean iUpdateScheduled;			//	An invokeLater() of run() is outstanding
+
+
+	//	Add an ActionManager to our list of children.
+	public void addChild(ActionManager am){
+		Debug.assertOnError(am.iParent == null);
+		iChildAMs.add(am);
+		am.iParent = this;
+	}
+	
+	
+	//	Remove an ActionManager from our list of children.
+	public void removeChild(ActionManager am){
+		Debug.assertOnError(iChildAMs.remove(am));
+		am.iParent = null;
+	}
+	
+	
+	//	Called when the object owning us closes.  Remove ourselves from our parent, and drop our
+	//	children and Actions, so that nothing left in the hierarchy refers to the closed object.
+	public void detach(){
+		Iterator iter = new ArrayList(iChildAMs).iterator();
+		while (iter.hasNext())
+			((ActionManager)iter.next()).detach();
+		
+		if (iParent != null)
+			iParent.removeChild(this);
+		iAllActions.clear();
+		iPendingAspects = NO_ASPECTS;
+	}
+
+	
+	//	Add an action to the list of all actions.
+	//	Returns the Action passed to it, to save lines in calling code.
+	public CustomAction add(CustomAction action){
+		Debug.assertOnError(iAllActions.add(action));
+		return action;
+	}
+	
+	
+	//	Remove an action from the list of all actions.
+	public void remove(CustomAction action){
+		Debug.assertOnError(iAllActions.remove(action));
+	}
+	
+	
+	//	Update the enable states of all Actions managed by this object.
+	public void updateAllActionEnables(){
+	
+		long startTime = System.currentTimeMillis();
+		
+		//	Update all Actions we know about.  Anything pending is now up to date.
+		iPendingAspects = NO_ASPECTS;
+		this.updateActionEnables(iAllActions);
+
+		//	Update all Actions of our children.
+		Iterator iter = iChildAMs.iterator();
+		while (iter.hasNext()){
+			ActionManager am = (ActionManager)iter.next();
+			am.updateAllActionEnables();
+		}
+		
+		long runTime = System.currentTimeMillis() - startTime;
+		if (runTime > 10)
+			System.err.println("updateAllActionEnables() took " + runTime +
+							" milliseconds.");
+	}
+	
+	
+	//	Note that some aspects of the state of our object (and so of our children's objects) have changed.
+	//	The Actions depending upon them are updated once the current event has been handled.
+	public void invalidate(int aspects){
+		this.markPending(aspects);
+		if (!iUpdateScheduled){
+			iUpdateScheduled = true;
+			SwingUtilities.invokeLater(this);
+		}
+	}
+	
+	
+	protected void markPending(int aspects){
+		iPendingAspects |= aspects;
+		Iterator iter = iChildAMs.iterator();
+		while (iter.hasNext())
+			((ActionManager)iter.next()).markPending(aspects);
+	}
+	
+	
+	//	Called through invokeLater() after invalidate().
+	public void run(){
+		iUpdateScheduled = false;
+		this.updatePendingEnables();
+	}
+	
+	
+	//	Bring the enables of Actions managed by us and our children up to date now.  Used both by
+	//	run() and by Actions that are about to be performed.
+	public void updatePendingEnables(){
+		int aspects = iPendingAspects;
+		if (aspects != NO_ASPECTS){
+			iPendingAspects = NO_ASPECTS;
+			this.updateActionEnables(aspects);
+		}
+		
+		Iterator iter = iChildAMs.iterator();
+		while (iter.hasNext())
+			((ActionManager)iter.next()).updatePendingEnables();
+	}
+	
+	
+	//	Update the enable states of those of our Actions that depend upon the given aspects.
+	public void updateActionEnables(int aspects){
+		Iterator iter = iAllActions.iterator();
+		while (iter.hasNext()){
+			CustomAction action = (CustomAction)iter.next();
+			if ((action.getDependencies() & aspects) != 0)
+				action.updateEnable();
+		}
+	}
+	
+	
+	//	Update the enable states of Actions from the provided list.
+	//	??	Parameter should be a Set rather than a List.
+	//	??	Currently, this does nothing with child ActionManagers.
+	//	??	Adding support will wait until we understand what the need is.
+	public void updateActionEnables(List actionList){
+		Iterator iter = actionList.iterator();
+		while (iter.hasNext()){
+			CustomAction action = (CustomAction)iter.next();
+			action.updateEnable();
+		}
+	}
 }
\ No newline at end of file
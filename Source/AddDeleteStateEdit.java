@@ -1,73 +1,126 @@
-//	AddDeleteStateEdit.java - Represent an edit in which one or more states are added to the document.
-
-import java.util.*;
-import java.util.List;
-import javax.swing.undo.*;
-
-//	??	This can be generalized to handle state deletion, too.
-public class AddDeleteStateEdit extends TLUndoableEdit {
-
-	// 	Constants ------------------------------------------------------------------------
-	protected static final String kInsertPresentationName = "state insertion";
-	protected static final String kDeletePresentationName = "state deletion";
-	
-	
-	//	Instance variables ----------------------------------------------------------------
-	protected boolean iDeleting;				//	True if we're deleting;  false if we're adding
-	
-
-	//	Constructor ---------------------------------------------------------------------
-	public AddDeleteStateEdit(Set affectedStates, boolean deleting){
-		super(affectedStates);
-		iDeleting = deleting;
-	}
-		
-	
-	//	doEdit() - Do the edit.  Normally called by the EditManager.
-	public void doEdit(TLDocument doc){
-
-		rememberDocument(doc);
-		
-		//	Set the create and modify timestamps on the states.
-		Set affectedStates = this.getAffectedStates();
-		Iterator iter = affectedStates.iterator();
-		long now = System.currentTimeMillis();
-		while (iter.hasNext()){
-			TLState state = (TLState)iter.next();
-			state.setCreateTime(now);
-			state.setModifyTime(now);
-		}
-	
-		//	Ask the document to add these states.
-		if (iDeleting)
-			iDoc.editRemoveStates(this, affectedStates);
-		else
-			iDoc.editAddStates(this, affectedStates);
-	}
-	
-	
-	//	undo() - Undo the edit.  Normally called by the EditManager.
-	public void undo() throws CannotUndoException {
-		super.undo();
-		
-		Set affectedStates = this.getAffectedStates();
-		if (iDeleting)
-			iDoc.editAddStates(this, affectedStates);
-		else
-			iDoc.editRemoveStates(this, affectedStates);
-	}
-	
-	
-	//	redo() - Redo the edit.  Normally called by the EditManager.
-	public void redo() throws CannotRedoException {
-		super.redo();
-		
-		this.doEdit(iDoc);
-	}
-	
-	
-	//	Describe this operation in a form that ends up in the undo menu item.
-	public String getPresentationName() {
-		return (iDeleting) ? kDeletePresentationName : kInsertPresentationName;
-	}
+//	AddDeleteStateEdit.java - Represent an edit in which one or more states are added to the document.
+
+import java.io.*;
+import java.util.*;
+import java.util.List;
+import javax.swing.undo.*;
+
+//	While the affected states are out of the document (after a deletion has been done, or an insertion has
+//	been undone) this edit holds the only references to them.  The contents of those states can then be
+//	written to the undo spill file.  The TLState objects themselves stay in memory, emptied, so that older
+//	edits which refer to them still find the same objects after this edit is undone or redone.
+public class AddDeleteStateEdit extends TLUndoableEdit {
+
+	// 	Constants ------------------------------------------------------------------------
+	protected static final String kInsertPresentationName = "state insertion";
+	protected static final String kDeletePresentationName = "state deletion";
+	
+	
+	//	Instance variables ----------------------------------------------------------------
+	protected boolean iDeleting;				//	True if we're deleting;  false if we're adding
+	protected int iContentSize = -1;			//	Cached estimate of our states' contents;  -1 => unknown
+	
+
+	//	Constructor ---------------------------------------------------------------------
+	public AddDeleteStateEdit(Set affectedStates, boolean deleting){
+		super(affectedStates);
+		iDeleting = deleting;
+	}
+		
+	
+	//	doEdit() - Do the edit.  Normally called by the EditManager.
+	public void doEdit(TLDocument doc){
+
+		rememberDocument(doc);
+		iContentSize = -1;
+		
+		//	Set the create and modify timestamps on the states.
+		Set affectedStates = this.getAffectedStates();
+		Iterator iter = affectedStates.iterator();
+		long now = System.currentTimeMillis();
+		while (iter.hasNext()){
+			TLState state = (TLState)iter.next();
+			state.setCreateTime(now);
+			state.setModifyTime(now);
+		}
+	
+		//	Ask the document to add these states.
+		if (iDeleting)
+			iDoc.editRemoveStates(this, affectedStates);
+		else
+			iDoc.editAddStates(this, affectedStates);
+	}
+	
+	
+	//	undo() - Undo the edit.  Normally called by the EditManager.
+	public void undo() throws CannotUndoException {
+		super.undo();
+		iContentSize = -1;
+		
+		Set affectedStates = this.getAffectedStates();
+		if (iDeleting)
+			iDoc.editAddStates(this, affectedStates);
+		else
+			iDoc.editRemoveStates(this, affectedStates);
+	}
+	
+	
+	//	redo() - Redo the edit.  Normally called by the EditManager.
+	public void redo() throws CannotRedoException {
+		super.redo();
+		
+		this.doEdit(iDoc);
+	}
+	
+	
+	//	Describe this operation in a form that ends up in the undo menu item.
+	public String getPresentationName() {
+		return (iDeleting) ? kDeletePresentationName : kInsertPresentationName;
+	}
+	
+	
+	//	Return true if our states are currently not part of the document.
+	protected boolean areStatesOutOfDocument(){
+		return (iDeleting) ? this.canUndo() : this.canRedo();
+	}
+	
+	
+	//	Undo memory budget ---------------------------------------------------------------
+	public int getRetainedSize(){
+		int size = super.getRetainedSize();
+		if (!this.isSpilled() && this.areStatesOutOfDocument()){
+			if (iContentSize < 0){
+				iContentSize = 0;
+				for (int i = 0; i < iAffectedStates.length; i++)
+					iContentSize += iAffectedStates[i].getEstimatedSize();
+			}
+			size += iContentSize;
+		}
+		return size;
+	}
+	
+	
+	public boolean canSpill(){
+		return !this.isSpilled() && this.areStatesOutOfDocument();
+	}
+	
+	
+	protected void writeSpillData(DataOutput os) throws IOException {
+		os.writeInt(iAffectedStates.length);
+		for (int i = 0; i < iAffectedStates.length; i++)
+			iAffectedStates[i].writeContents(os);
+	}
+	
+	
+	protected void releaseSpillData(){
+		for (int i = 0; i < iAffectedStates.length; i++)
+			iAffectedStates[i].releaseContents();
+	}
+	
+	
+	protected void readSpillData(DataInput is) throws IOException {
+		Debug.assertOnError(is.readInt() == iAffectedStates.length);
+		for (int i = 0; i < iAffectedStates.length; i++)
+			iAffectedStates[i].readContents(is);
+	}
 }
\ No newline at end of file
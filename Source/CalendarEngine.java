@@ -0,0 +1,442 @@
+//	CalendarEngine.java - Fast calendar arithmetic on whole TimeUnits.
+
+//	Snapping times to whole units, finding the origin of a timeline and stepping through grid lines all used
+//	to be done with CustomGregorianCalendar, whose every set() and add() makes GregorianCalendar recompute all
+//	of its fields.  A CalendarEngine does the same arithmetic directly on millis:  truncating to a unit,
+//	rounding to the nearest one, finding the next boundary, and extracting the fields that the grid legends
+//	use.  None of these allocate, and each takes constant time.
+//
+//	Dates are found from precomputed tables:  the day each year from FIRST_YEAR through LAST_YEAR starts on, and
+//	for each day of a year, the month it falls in.  Weeks start on Sunday, which is the day of the week
+//	counted from a fixed day.  Times are converted between UTC and local time with a table of the
+//	time zone's offset changes from SCAN_FIRST_YEAR through SCAN_LAST_YEAR, found by stepping through the zone a
+//	day at a time when the engine is made, and indexed by period;  outside that range, the TimeZone itself is
+//	asked.
+//
+//	Anything the tables don't cover is handed to a CustomGregorianCalendar, so results are always the same as
+//	CustomGregorianCalendar's:  times before FIRST_YEAR (which GregorianCalendar counts in the Julian calendar)
+//	or after LAST_YEAR, weeks in locales whose weeks don't start on Sunday, and hours made irregular by a
+//	time zone change that isn't a whole number of them.  There are two deliberate differences, both around
+//	time zone changes.  GregorianCalendar resolves a truncated time in the hour repeated when clocks go back
+//	to its second occurrence, which can be later than the time truncated;  we keep the occurrence the time
+//	was in.  And when a unit starts at a midnight skipped when clocks go forward (so really starts at 1 AM),
+//	CustomGregorianCalendar's add() carries the 1 AM on to the following units;  we start them at midnight.
+//
+//	An engine never changes once made, so one can be used on any thread.
+
+import java.util.*;
+
+class CalendarEngine extends Object {
+
+	// 	Constants ------------------------------------------------------------------------
+	protected static final int FIRST_YEAR = 1583;			//	First whole year of the Gregorian calendar
+	protected static final int LAST_YEAR = 2399;
+	protected static final int SCAN_FIRST_YEAR = 1900;		//	Years whose time zone changes are tabulated
+	protected static final int SCAN_LAST_YEAR = 2100;
+	protected static final int PERIOD_SHIFT = 32;			//	Transitions are indexed by periods of 2^32 mS., about 50 days
+
+	protected static final long MILLIS_IN_SECOND = 1000;
+	protected static final long MILLIS_IN_MINUTE = 60 * MILLIS_IN_SECOND;
+	protected static final long MILLIS_IN_HOUR = 60 * MILLIS_IN_MINUTE;
+	protected static final long MILLIS_IN_DAY = 24 * MILLIS_IN_HOUR;
+
+	//	Length of each unit shorter than a day, indexed by TimeUnit.
+	protected static final long[] MILLIS_IN_UNIT = { MILLIS_IN_SECOND, MILLIS_IN_MINUTE, MILLIS_IN_HOUR };
+
+	//	The Calendar field that is incremented to advance by each TimeUnit.
+	protected static final int[] FIELD_TO_INCREMENT = {
+			Calendar.SECOND, Calendar.MINUTE, Calendar.HOUR, Calendar.DAY_OF_MONTH,
+			Calendar.WEEK_OF_YEAR, Calendar.MONTH, Calendar.YEAR
+	};
+
+	//	Day of the year each month starts on, in common and leap years.
+	protected static final int[][] MONTH_START_DAY = {
+		{ 0, 31, 59, 90, 120, 151, 181, 212, 243, 273, 304, 334, 365 },
+		{ 0, 31, 60, 91, 121, 152, 182, 213, 244, 274, 305, 335, 366 }
+	};
+
+	//	The day of the week of day zero (January 1, 1970), as a Calendar day of the week.
+	protected static final int EPOCH_DAY_OF_WEEK = Calendar.THURSDAY;
+
+
+	//	Class variables ----------------------------------------------------------------
+	//	Day (since January 1, 1970) each year from FIRST_YEAR through LAST_YEAR + 1 starts on.
+	protected static final int[] sYearStartDays = new int[LAST_YEAR - FIRST_YEAR + 2];
+
+	//	Month each day of the year falls in, in common and leap years.
+	protected static final byte[][] sMonthOfDay = new byte[2][366];
+
+	static {
+		int day = -CalendarEngine.daysBefore1970(FIRST_YEAR);
+		for (int i = 0; i < sYearStartDays.length; i++){
+			sYearStartDays[i] = day;
+			day += CalendarEngine.isLeapYear(FIRST_YEAR + i) ? 366 : 365;
+		}
+		for (int leap = 0; leap < 2; leap++)
+			for (int month = 0; month < 12; month++)
+				for (int d = MONTH_START_DAY[leap][month]; d < MONTH_START_DAY[leap][month + 1]; d++)
+					sMonthOfDay[leap][d] = (byte)month;
+	}
+
+
+	//	Instance variables ----------------------------------------------------------------
+	protected final TimeZone iZone;
+	protected final boolean iSundayWeeks;			//	Weeks start on Sunday in the default locale
+	protected final long[] iTransitions;			//	Moments the zone's offset changes, in UTC, ascending
+	protected final int[] iOffsets;				//	Offset in effect from each transition to the next
+	protected final long iScanStart, iScanEnd;		//	Span of UTC times whose offsets are tabulated
+	protected final int[] iPeriodTransitions;		//	Last transition at or before the start of each period
+
+
+	//	Constructor ---------------------------------------------------------------------
+	public CalendarEngine(TimeZone zone){
+		long startTime = System.currentTimeMillis();
+		iZone = (TimeZone)zone.clone();
+		iSundayWeeks = (Calendar.getInstance().getFirstDayOfWeek() == Calendar.SUNDAY);
+
+		//	Step through the zone a day at a time, and find each change of offset to the millisecond.
+		iScanStart = -CalendarEngine.daysBefore1970(SCAN_FIRST_YEAR) * MILLIS_IN_DAY;
+		iScanEnd = -CalendarEngine.daysBefore1970(SCAN_LAST_YEAR + 1) * MILLIS_IN_DAY;
+		long[] transitions = new long[64];
+		int[] offsets = new int[64];
+		int count = 0;
+		transitions[count] = iScanStart;
+		offsets[count++] = iZone.getOffset(iScanStart);
+		for (long t = iScanStart + MILLIS_IN_DAY; t < iScanEnd; t += MILLIS_IN_DAY){
+			int offset = iZone.getOffset(t);
+			if (offset == offsets[count - 1])
+				continue;
+			long low = t - MILLIS_IN_DAY;
+			long high = t;
+			while (high - low > 1){
+				long mid = low + (high - low) / 2;
+				if (iZone.getOffset(mid) == offset)
+					high = mid;
+				else
+					low = mid;
+			}
+			if (count == transitions.length){
+				long[] biggerTransitions = new long[2 * count];
+				int[] biggerOffsets = new int[2 * count];
+				System.arraycopy(transitions, 0, biggerTransitions, 0, count);
+				System.arraycopy(offsets, 0, biggerOffsets, 0, count);
+				transitions = biggerTransitions;
+				offsets = biggerOffsets;
+			}
+			transitions[count] = high;
+			offsets[count++] = offset;
+		}
+		iTransitions = new long[count];
+		iOffsets = new int[count];
+		System.arraycopy(transitions, 0, iTransitions, 0, count);
+		System.arraycopy(offsets, 0, iOffsets, 0, count);
+
+		//	Index the transitions by period, so the one in effect at any time is a step or two from the index.
+		iPeriodTransitions = new int[(int)((iScanEnd - iScanStart) >>> PERIOD_SHIFT) + 1];
+		int transition = 0;
+		for (int period = 0; period < iPeriodTransitions.length; period++){
+			long periodStart = iScanStart + ((long)period << PERIOD_SHIFT);
+			while (transition + 1 < count && iTransitions[transition + 1] <= periodStart)
+				transition++;
+			iPeriodTransitions[period] = transition;
+		}
+
+		if (Debug.DISPLAY_TIMINGS)
+			System.out.println((System.currentTimeMillis() - startTime) + " mS. to find " + count +
+						" offset changes of " + iZone.getID());
+	}
+
+
+	//	Return the engine for the default time zone.
+	public static CalendarEngine getDefault(){
+		return DefaultEngine.ENGINE;
+	}
+
+
+	//	Truncate a time to the start of the unit (one of the TimeUnit constants) containing it.
+	public long truncate(long millis, int unit){
+		int offset = this.getOffset(millis);
+		long local = millis + offset;
+
+		//	Units shorter than a day start at whole multiples of their length, in local time.  If that
+		//	crosses a change of offset, the unit is irregular.
+		if (unit < TimeUnit.DAY){
+			long result = millis - CalendarEngine.floorMod(local, MILLIS_IN_UNIT[unit]);
+			if (this.getOffset(result) != offset)
+				return this.slowTruncateOrRound(millis, unit, false);
+			return result;
+		}
+
+		long dayNumber = CalendarEngine.floorDiv(local, MILLIS_IN_DAY);
+		int yearIndex = CalendarEngine.findYearIndex(dayNumber);
+		if (yearIndex < 0 || (unit == TimeUnit.WEEK && !iSundayWeeks))
+			return this.slowTruncateOrRound(millis, unit, false);
+
+		int day = (int)dayNumber;
+		int startDay;
+		switch (unit){
+			case TimeUnit.DAY:
+				startDay = day;
+				break;
+
+			case TimeUnit.WEEK:
+				startDay = day - (CalendarEngine.getDayOfWeek(day) - Calendar.SUNDAY);
+				break;
+
+			case TimeUnit.MONTH:
+				int dayOfYear = day - sYearStartDays[yearIndex];
+				int leap = CalendarEngine.isLeapYear(FIRST_YEAR + yearIndex) ? 1 : 0;
+				startDay = sYearStartDays[yearIndex] + MONTH_START_DAY[leap][sMonthOfDay[leap][dayOfYear]];
+				break;
+
+			case TimeUnit.YEAR:
+			default:
+				startDay = sYearStartDays[yearIndex];
+				break;
+		}
+		if (startDay < sYearStartDays[0])
+			return this.slowTruncateOrRound(millis, unit, false);
+		return this.localToUTC(startDay * MILLIS_IN_DAY);
+	}
+
+
+	//	Round a time to the nearest start of a unit.  As in CustomGregorianCalendar, a time rounds up if it is
+	//	at least halfway through the range of the next smaller field (for example, a day rounds up from
+	//	11 o'clock, and a month from the 16th), regardless of the length of this particular unit.
+	public long round(long millis, int unit){
+		long local = millis + this.getOffset(millis);
+		boolean up;
+		switch (unit){
+			case TimeUnit.SECOND:
+				up = CalendarEngine.floorMod(local, MILLIS_IN_SECOND) >= 499;
+				break;
+
+			case TimeUnit.MINUTE:
+				up = CalendarEngine.floorMod(local, MILLIS_IN_MINUTE) / MILLIS_IN_SECOND >= 29;
+				break;
+
+			case TimeUnit.HOUR:
+				up = CalendarEngine.floorMod(local, MILLIS_IN_HOUR) / MILLIS_IN_MINUTE >= 29;
+				break;
+
+			case TimeUnit.DAY:
+				up = CalendarEngine.floorMod(local, MILLIS_IN_DAY) / MILLIS_IN_HOUR >= 11;
+				break;
+
+			default:
+				long day = CalendarEngine.floorDiv(local, MILLIS_IN_DAY);
+				if (CalendarEngine.findYearIndex(day) < 0 || (unit == TimeUnit.WEEK && !iSundayWeeks))
+					return this.slowTruncateOrRound(millis, unit, true);
+				if (unit == TimeUnit.WEEK)
+					up = CalendarEngine.getDayOfWeek(day) - Calendar.SUNDAY >= 3;
+				else if (unit == TimeUnit.MONTH)
+					up = this.get(millis, Calendar.DAY_OF_MONTH) - 1 >= 15;
+				else
+					up = this.get(millis, Calendar.MONTH) >= 5;
+				break;
+		}
+		if (!up)
+			return this.truncate(millis, unit);
+
+		//	Units shorter than a day are added as a length of time, and longer ones on the calendar.
+		if (unit < TimeUnit.DAY)
+			return this.truncate(millis + MILLIS_IN_UNIT[unit], unit);
+		return this.next(this.truncate(millis, unit), unit);
+	}
+
+
+	//	Return the start of the unit after the one containing a time.
+	public long next(long millis, int unit){
+		long start = this.truncate(millis, unit);
+		if (unit < TimeUnit.DAY)
+			return this.truncate(start + MILLIS_IN_UNIT[unit], unit);
+
+		//	Find the local date of the start of this unit, and the start of the next unit on the calendar.
+		long local = start + this.getOffset(start);
+		long dayNumber = CalendarEngine.floorDiv(local, MILLIS_IN_DAY);
+		int yearIndex = CalendarEngine.findYearIndex(dayNumber);
+		if (yearIndex < 0 || (unit == TimeUnit.WEEK && !iSundayWeeks)){
+			CustomGregorianCalendar cal = this.slowCalendar(start);
+			cal.add(FIELD_TO_INCREMENT[unit], 1);
+			return cal.getTimeInMillis();
+		}
+
+		int day = (int)dayNumber;
+		int nextDay;
+		switch (unit){
+			case TimeUnit.DAY:
+				nextDay = day + 1;
+				break;
+
+			case TimeUnit.WEEK:
+				nextDay = day + 7;
+				break;
+
+			case TimeUnit.MONTH:
+				int leap = CalendarEngine.isLeapYear(FIRST_YEAR + yearIndex) ? 1 : 0;
+				int month = sMonthOfDay[leap][day - sYearStartDays[yearIndex]];
+				nextDay = sYearStartDays[yearIndex] + MONTH_START_DAY[leap][month + 1];
+				break;
+
+			case TimeUnit.YEAR:
+			default:
+				nextDay = sYearStartDays[yearIndex + 1];
+				break;
+		}
+		return this.localToUTC(nextDay * MILLIS_IN_DAY);
+	}
+
+
+	//	Return a field of a time, as Calendar.get() would.  Supports Calendar.YEAR, MONTH, DAY_OF_MONTH (DATE),
+	//	DAY_OF_WEEK, HOUR, HOUR_OF_DAY, MINUTE, SECOND and MILLISECOND.
+	public int get(long millis, int field){
+		long local = millis + this.getOffset(millis);
+		long timeOfDay = CalendarEngine.floorMod(local, MILLIS_IN_DAY);
+		switch (field){
+			case Calendar.MILLISECOND:
+				return (int)(timeOfDay % MILLIS_IN_SECOND);
+
+			case Calendar.SECOND:
+				return (int)(timeOfDay / MILLIS_IN_SECOND % 60);
+
+			case Calendar.MINUTE:
+				return (int)(timeOfDay / MILLIS_IN_MINUTE % 60);
+
+			case Calendar.HOUR_OF_DAY:
+				return (int)(timeOfDay / MILLIS_IN_HOUR);
+
+			case Calendar.HOUR:
+				return (int)(timeOfDay / MILLIS_IN_HOUR % 12);
+		}
+
+		long day = CalendarEngine.floorDiv(local, MILLIS_IN_DAY);
+		if (field == Calendar.DAY_OF_WEEK)
+			return CalendarEngine.getDayOfWeek(day);
+		int yearIndex = CalendarEngine.findYearIndex(day);
+		if (yearIndex < 0)
+			return this.slowCalendar(millis).get(field);
+		int dayOfYear = (int)day - sYearStartDays[yearIndex];
+		int leap = CalendarEngine.isLeapYear(FIRST_YEAR + yearIndex) ? 1 : 0;
+		switch (field){
+			case Calendar.YEAR:
+				return FIRST_YEAR + yearIndex;
+
+			case Calendar.MONTH:
+				return sMonthOfDay[leap][dayOfYear];
+
+			case Calendar.DAY_OF_MONTH:
+				return dayOfYear - MONTH_START_DAY[leap][sMonthOfDay[leap][dayOfYear]] + 1;
+
+			default:
+				return this.slowCalendar(millis).get(field);
+		}
+	}
+
+
+	//	Return the offset of local time from UTC at a moment, in millis.
+	public int getOffset(long millis){
+		if (millis < iScanStart || millis >= iScanEnd)
+			return iZone.getOffset(millis);
+
+		//	Find the last transition at or before the moment.
+		int i = iPeriodTransitions[(int)((millis - iScanStart) >>> PERIOD_SHIFT)];
+		while (i + 1 < iTransitions.length && iTransitions[i + 1] <= millis)
+			i++;
+		return iOffsets[i];
+	}
+
+
+	//	Internal methods ------------------------------------------------------------
+
+	//	Convert a local time to UTC.  As GregorianCalendar does, each change of offset takes effect at the local
+	//	time it changes to:  a local time skipped when clocks go forward is taken to be in the offset before
+	//	the change, and one repeated when they go back, in the offset after it.
+	protected long localToUTC(long local){
+		if (local - MILLIS_IN_DAY < iScanStart || local + MILLIS_IN_DAY >= iScanEnd){
+			int offset = iZone.getOffset(local - iZone.getOffset(local));
+			return local - offset;
+		}
+
+		//	Find the last transition at or before the local time, in the offset after it.  Offsets are less
+		//	than a day, so that is no earlier than the last one a day before, in UTC.
+		int i = iPeriodTransitions[(int)((local - MILLIS_IN_DAY - iScanStart) >>> PERIOD_SHIFT)];
+		while (i + 1 < iTransitions.length && iTransitions[i + 1] + iOffsets[i + 1] <= local)
+			i++;
+		return local - iOffsets[i];
+	}
+
+
+	//	Make a calendar set to a time in our zone, for what our tables don't cover.
+	protected CustomGregorianCalendar slowCalendar(long millis){
+		CustomGregorianCalendar cal = new CustomGregorianCalendar();
+		cal.setTimeZone(iZone);
+		cal.setTimeInMillis(millis);
+		return cal;
+	}
+
+	protected long slowTruncateOrRound(long millis, int unit, boolean round){
+		CustomGregorianCalendar cal = this.slowCalendar(millis);
+		cal.truncateOrRound(unit, round);
+		return cal.getTimeInMillis();
+	}
+
+
+	//	Return the index in sYearStartDays of the year containing a day, or -1 if it isn't in the table.
+	protected static int findYearIndex(long day){
+		if (day < sYearStartDays[0] || day >= sYearStartDays[sYearStartDays.length - 1])
+			return -1;
+
+		//	A 400 year cycle has 146097 days, so this is at most one year out.
+		int i = (int)((day - sYearStartDays[0]) * 400 / 146097);
+		if (i >= sYearStartDays.length - 1)
+			i = sYearStartDays.length - 2;
+		while (sYearStartDays[i + 1] <= day)
+			i++;
+		while (sYearStartDays[i] > day)
+			i--;
+		return i;
+	}
+
+
+	//	Return the Calendar day of the week of a day.
+	protected static int getDayOfWeek(long day){
+		return (int)CalendarEngine.floorMod(day + (EPOCH_DAY_OF_WEEK - Calendar.SUNDAY), 7) + Calendar.SUNDAY;
+	}
+
+
+	//	Report whether a year is a leap year in the Gregorian calendar.
+	protected static boolean isLeapYear(int year){
+		return (year % 4 == 0) && ((year % 100 != 0) || (year % 400 == 0));
+	}
+
+
+	//	Return the number of days from January 1 of a year to January 1, 1970, in the Gregorian calendar.
+	protected static int daysBefore1970(int year){
+		int days = 0;
+		for (int y = year; y < 1970; y++)
+			days += CalendarEngine.isLeapYear(y) ? 366 : 365;
+		for (int y = 1970; y < year; y++)
+			days -= CalendarEngine.isLeapYear(y) ? 366 : 365;
+		return days;
+	}
+
+
+	//	Division and remainder rounding toward negative infinity, for times before 1970.
+	protected static long floorDiv(long a, long b){
+		long q = a / b;
+		if ((a % b != 0) && ((a < 0) != (b < 0)))
+			q--;
+		return q;
+	}
+
+	protected static long floorMod(long a, long b){
+		long m = a % b;
+		return (m < 0) ? m + b : m;
+	}
+
+
+	//	Holds the engine for the default time zone, which is only made when it is first needed.
+	protected static class DefaultEngine extends Object {
+		static final CalendarEngine ENGINE = new CalendarEngine(TimeZone.getDefault());
+	}
+}
@@ -0,0 +1,181 @@
+//	CalendarEngineBenchmark.java - Check CalendarEngine against CustomGregorianCalendar, and time them both.
+
+//	Run with "java CalendarEngineBenchmark [time zone IDs...]";  the default zones are below.  For each zone,
+//	makes a CalendarEngine and a CustomGregorianCalendar for it, and:
+//
+//		*  Truncates, rounds and steps SAMPLE_COUNT random times to each TimeUnit with both, and reads the
+//			fields the grid legends use, and reports any time where they disagree.  Times within a day of
+//			a change of the zone's offset, or in a unit that starts within a day of one, are left out,
+//			since the engine deliberately differs from GregorianCalendar there (see CalendarEngine).
+//		*  Times rounding and stepping to each unit with both, in nS. per call.
+//
+//	Exits with status 1 if any result differs.  The random times are seeded, so each run checks the same ones.
+
+import java.util.*;
+
+class CalendarEngineBenchmark extends Object {
+
+	// 	Constants ------------------------------------------------------------------------
+	protected static final String[] DEFAULT_ZONES = { "UTC", "America/New_York", "Europe/London",
+				"Australia/Lord_Howe", "Asia/Kolkata" };
+	protected static final int SAMPLE_COUNT = 200000;
+	protected static final int TIMING_COUNT = 1000000;		//	Calls timed for each unit
+	protected static final int TIMING_ROUNDS = 3;			//	Only the last round is reported
+	protected static final long SEED = 1;
+	protected static final long MILLIS_IN_DAY = 24 * 60 * 60 * 1000L;
+
+	//	Span the random times are drawn from:  1850 through 2150, so some fall outside the engine's tables.
+	protected static final long EARLIEST = -3786825600000L;
+	protected static final long LATEST = 5680281600000L;
+
+	//	Fields compared, as the grid legends use them.
+	protected static final int[] FIELDS = { Calendar.YEAR, Calendar.MONTH, Calendar.DAY_OF_MONTH,
+				Calendar.DAY_OF_WEEK, Calendar.HOUR_OF_DAY, Calendar.MINUTE, Calendar.SECOND };
+
+	protected static final int MAX_REPORTED = 10;			//	Differences printed for each zone
+
+
+	//	Class variables ----------------------------------------------------------------
+	protected static boolean sFailed;
+	protected static int sReported;				//	Differences printed for the current zone
+	protected static long sSink;					//	Keeps the JIT from dropping timed calls
+
+
+	public static void main(String[] args){
+		String[] zones = (args.length > 0) ? args : DEFAULT_ZONES;
+
+		//	The engine finds the first day of the week from the default locale.  Use one whose weeks start
+		//	on Sunday, as the engine's tables do.
+		Locale.setDefault(Locale.US);
+		for (int i = 0; i < zones.length; i++){
+			TimeZone zone = TimeZone.getTimeZone(zones[i]);
+			TimeZone.setDefault(zone);
+			CalendarEngine engine = new CalendarEngine(zone);
+			System.out.println(zone.getID() + ":");
+			CalendarEngineBenchmark.check(engine, zone);
+			CalendarEngineBenchmark.time(engine);
+		}
+		System.out.println(sFailed ? "FAILED" : "All checks passed");
+		System.exit(sFailed ? 1 : 0);
+	}
+
+
+	//	Compare the engine's results with CustomGregorianCalendar's for random times.
+	protected static void check(CalendarEngine engine, TimeZone zone){
+		Random random = new Random(SEED);
+		CustomGregorianCalendar cal = new CustomGregorianCalendar();
+		int compared = 0, skipped = 0, differences = 0;
+		sReported = 0;
+		for (int i = 0; i < SAMPLE_COUNT; i++){
+			long millis = EARLIEST + (long)(random.nextDouble() * (LATEST - EARLIEST));
+			if (CalendarEngineBenchmark.isNearOffsetChange(zone, cal, millis)){
+				skipped++;
+				continue;
+			}
+			compared++;
+
+			for (int unit = TimeUnit.MIN_VALUE; unit <= TimeUnit.MAX_VALUE; unit++){
+				cal.setTimeInMillis(millis);
+				cal.truncateToLower(unit);
+				long expected = cal.getTimeInMillis();
+				differences += CalendarEngineBenchmark.compare("truncate", unit, millis, engine.truncate(millis, unit), expected);
+
+				cal.add(CalendarEngine.FIELD_TO_INCREMENT[unit], 1);
+				differences += CalendarEngineBenchmark.compare("next", unit, millis, engine.next(millis, unit), cal.getTimeInMillis());
+
+				cal.setTimeInMillis(millis);
+				cal.roundToNearest(unit);
+				differences += CalendarEngineBenchmark.compare("round", unit, millis, engine.round(millis, unit), cal.getTimeInMillis());
+			}
+
+			cal.setTimeInMillis(millis);
+			for (int f = 0; f < FIELDS.length; f++)
+				differences += CalendarEngineBenchmark.compare("field " + FIELDS[f], -1, millis,
+							engine.get(millis, FIELDS[f]), cal.get(FIELDS[f]));
+		}
+		CalendarEngineBenchmark.report(compared + " times compared, " + skipped + " near offset changes left out, " +
+					differences + " differences", differences == 0);
+	}
+
+
+	//	Return whether a time, or the start of any unit containing it, is within a day of a change of the
+	//	zone's offset.  The start of a unit matters too:  if it falls in a skipped midnight, GregorianCalendar
+	//	carries the skipped time on to the units after it, and the engine doesn't.
+	protected static boolean isNearOffsetChange(TimeZone zone, CustomGregorianCalendar cal, long millis){
+		if (zone.getOffset(millis - MILLIS_IN_DAY) != zone.getOffset(millis + MILLIS_IN_DAY))
+			return true;
+		for (int unit = TimeUnit.DAY; unit <= TimeUnit.MAX_VALUE; unit++){
+			cal.setTimeInMillis(millis);
+			cal.truncateToLower(unit);
+			long start = cal.getTimeInMillis();
+			if (zone.getOffset(start - MILLIS_IN_DAY) != zone.getOffset(start + MILLIS_IN_DAY))
+				return true;
+		}
+		return false;
+	}
+
+
+	//	Time rounding and stepping to each unit, with the engine and with CustomGregorianCalendar.
+	protected static void time(CalendarEngine engine){
+		Random random = new Random(SEED);
+		long[] times = new long[TIMING_COUNT];
+		for (int i = 0; i < TIMING_COUNT; i++)
+			times[i] = EARLIEST + (long)(random.nextDouble() * (LATEST - EARLIEST));
+		CustomGregorianCalendar cal = new CustomGregorianCalendar();
+
+		for (int unit = TimeUnit.MIN_VALUE; unit <= TimeUnit.MAX_VALUE; unit++){
+			long engineRound = 0, calendarRound = 0, engineNext = 0, calendarNext = 0;
+			for (int round = 0; round < TIMING_ROUNDS; round++){
+				long startTime = System.nanoTime();
+				for (int i = 0; i < TIMING_COUNT; i++)
+					sSink += engine.round(times[i], unit);
+				engineRound = System.nanoTime() - startTime;
+
+				startTime = System.nanoTime();
+				for (int i = 0; i < TIMING_COUNT; i++){
+					cal.setTimeInMillis(times[i]);
+					cal.roundToNearest(unit);
+					sSink += cal.getTimeInMillis();
+				}
+				calendarRound = System.nanoTime() - startTime;
+
+				startTime = System.nanoTime();
+				for (int i = 0; i < TIMING_COUNT; i++)
+					sSink += engine.next(times[i], unit);
+				engineNext = System.nanoTime() - startTime;
+
+				startTime = System.nanoTime();
+				for (int i = 0; i < TIMING_COUNT; i++){
+					cal.setTimeInMillis(times[i]);
+					cal.truncateToLower(unit);
+					cal.add(CalendarEngine.FIELD_TO_INCREMENT[unit], 1);
+					sSink += cal.getTimeInMillis();
+				}
+				calendarNext = System.nanoTime() - startTime;
+			}
+			System.out.println("    " + TimeUnit.UNITNAMES[unit] + ":  round " + calendarRound / TIMING_COUNT +
+						" -> " + engineRound / TIMING_COUNT + " nS.,  next " + calendarNext / TIMING_COUNT +
+						" -> " + engineNext / TIMING_COUNT + " nS.  (calendar -> engine)");
+		}
+	}
+
+
+	//	Report a difference, if there is one.  Returns the number of differences:  0 or 1.
+	protected static int compare(String what, int unit, long millis, long actual, long expected){
+		if (actual == expected)
+			return 0;
+		if (sReported < MAX_REPORTED){
+			System.out.println("    " + what + ((unit >= 0) ? " to " + TimeUnit.UNITNAMES[unit] : "") + " of " +
+						new Date(millis) + " (" + millis + "):  " + actual + ", expected " + expected);
+			sReported++;
+		}
+		return 1;
+	}
+
+
+	protected static void report(String what, boolean passed){
+		System.out.println((passed ? "ok      " : "FAILED  ") + what);
+		if (!passed)
+			sFailed = true;
+	}
+}
@@ -1 +1,35 @@
-//	CategoryFromMac.java - Category also containing Macintosh-specific data..import java.awt.Color;import java.io.IOException;import java.io.Serializable;class CategoryFromMac extends Category implements Serializable {	//	Public contants.		//	Constants.		//	Instance variables.	boolean iIsDefault;						//	Is this the document's default category? 	//	Trivial accessors -------------------------------------------------------------	public boolean isDefault() 						{ return iIsDefault;}			//	Constructor for reading from Macintosh file -------------------------------------------	public CategoryFromMac(MacInputStream is) throws IOException {		super();				Debug.assertOnError(is.readShort() == 2);	//	Verify version		iIsDefault = is.readBoolean();				//	Note that there is currently no way for the user to lock a category.		//	??	This will probably be changed in the future.		iLabelInfo = new LabelInfo(is.readMacString(), is.readMacString(), false);		iColor = Category.DEFAULT_BODY_COLOR;		is.readInt();						//  Discard unused 4 bytes	}}
\ No newline at end of file
+//	CategoryFromMac.java - Category also containing Macintosh-specific data..
+
+import java.awt.Color;
+import java.io.IOException;
+import java.io.Serializable;
+
+
+class CategoryFromMac extends Category implements Serializable {
+
+	//	Public contants.
+	
+	//	Constants.
+	
+	//	Instance variables.
+	boolean iIsDefault;						//	Is this the document's default category? 
+
+
+	//	Trivial accessors -------------------------------------------------------------
+	public boolean isDefault() 						{ return iIsDefault;}
+	
+	
+	//	Constructor for reading from Macintosh file -------------------------------------------
+	public CategoryFromMac(MacInputStream is) throws IOException {
+		super();
+		
+		Debug.assertOnError(is.readShort() == 2);	//	Verify version
+		iIsDefault = is.readBoolean();
+		
+		//	Note that there is currently no way for the user to lock a category.
+		//	??	This will probably be changed in the future.
+		iLabelInfo = new LabelInfo(is.readMacString(), is.readMacString(), false);
+		iColor = Category.DEFAULT_BODY_COLOR;
+		is.readInt();						//  Discard unused 4 bytes
+	}
+}
\ No newline at end of file
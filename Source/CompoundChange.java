@@ -0,0 +1,115 @@
+//	CompoundChange.java - Change event summarizing a batch of state and category changes.
+
+//	When several edits are made to a document as one operation (see TLDocument.beginTransaction()),
+//	the individual StateAddDeleteChange, StateModifyChange and CategoryChange events are merged into one
+//	of these, and listeners are notified once.  The merge keeps the net effect of the batch:  a state
+//	that was added and then removed within the batch does not appear at all, and a state that was
+//	removed and then added back is reported as modified.
+
+import java.util.*;
+import javax.swing.event.ChangeEvent;
+
+public class CompoundChange extends ChangeEvent {
+
+	//	Instance variables----------------------------------------------------------------
+	protected Set iAddedStates = new HashSet();
+	protected Set iRemovedStates = new HashSet();
+	protected Set iModifiedStates = new HashSet();
+	protected Set iChangedCategories = new HashSet();
+	protected int iMergedEventCount;				//	Number of events merged into this one
+	
+	
+	//	Constructor---------------------------------------------------------------------
+	public CompoundChange(Object source){
+		super(source);
+	}
+	
+	
+	//	Accessors.
+	public Set getAddedStates()				{	return iAddedStates;					}
+	public Set getRemovedStates()			{	return iRemovedStates;					}
+	public Set getModifiedStates()			{	return iModifiedStates;					}
+	public Set getChangedCategories()			{	return iChangedCategories;				}
+	public boolean areCategoriesChanged()		{	return !iChangedCategories.isEmpty();		}
+	public int getMergedEventCount()			{	return iMergedEventCount;				}
+	
+	public boolean isEmpty(){
+		return iAddedStates.isEmpty() && iRemovedStates.isEmpty() && iModifiedStates.isEmpty() &&
+			iChangedCategories.isEmpty();
+	}
+	
+	
+	//	Return all states that were added, removed or modified.
+	public Set getAffectedStates(){
+		Set all = new HashSet(iAddedStates);
+		all.addAll(iRemovedStates);
+		all.addAll(iModifiedStates);
+		return all;
+	}
+	
+	
+	//	Merge another change into this one.  Returns false if the change is not of a kind that can be
+	//	merged, in which case this object is unchanged.
+	public boolean merge(ChangeEvent ev){
+		if (ev instanceof StateAddDeleteChange){
+			StateAddDeleteChange change = (StateAddDeleteChange)ev;
+			if (change.isDeleting())
+				this.mergeRemoved(change.getAffectedStates());
+			else
+				this.mergeAdded(change.getAffectedStates());
+		}
+		else if (ev instanceof StateModifyChange){
+			this.mergeModified(((StateModifyChange)ev).getAffectedStates());
+		}
+		else if (ev instanceof CategoryChange){
+			iChangedCategories.add(((CategoryChange)ev).getAffectedCategory());
+		}
+		else if (ev instanceof CompoundChange){
+			CompoundChange change = (CompoundChange)ev;
+			this.mergeRemoved(change.iRemovedStates);
+			this.mergeAdded(change.iAddedStates);
+			this.mergeModified(change.iModifiedStates);
+			iChangedCategories.addAll(change.iChangedCategories);
+			iMergedEventCount += change.iMergedEventCount - 1;
+		}
+		else
+			return false;
+			
+		iMergedEventCount++;
+		return true;
+	}
+	
+	
+	protected void mergeAdded(Collection states){
+		Iterator iter = states.iterator();
+		while (iter.hasNext()){
+			Object state = iter.next();
+			if (iRemovedStates.remove(state))
+				iModifiedStates.add(state);
+			else
+				iAddedStates.add(state);
+		}
+	}
+	
+	
+	protected void mergeRemoved(Collection states){
+		Iterator iter = states.iterator();
+		while (iter.hasNext()){
+			Object state = iter.next();
+			if (!iAddedStates.remove(state)){
+				iModifiedStates.remove(state);
+				iRemovedStates.add(state);
+			}
+		}
+	}
+	
+	
+	protected void mergeModified(Collection states){
+		Iterator iter = states.iterator();
+		while (iter.hasNext()){
+			Object state = iter.next();
+			if (!iAddedStates.contains(state))
+				iModifiedStates.add(state);
+		}
+	}
+}
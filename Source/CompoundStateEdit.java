@@ -0,0 +1,152 @@
+//	CompoundStateEdit.java - An edit made up of other edits, which is undone and redone as a single step.
+
+//	TLDocument builds one of these for each transaction;  see TLDocument.beginTransaction().  The parts
+//	have already been done by the time the compound edit reaches the EditManager.  Undo and redo run
+//	inside a change batch, so that the document sorts its state list once, and listeners receive a single
+//	CompoundChange, no matter how many parts there are.
+
+import java.io.*;
+import java.util.*;
+import java.util.List;
+import javax.swing.undo.*;
+
+public class CompoundStateEdit extends TLUndoableEdit {
+
+	//	Instance variables ----------------------------------------------------------------
+	protected String iPresentationName;		//	Null => use the name of the first part
+	protected List iParts;					//	The component TLUndoableEdits, in the order done
+	
+
+	//	Constructor ---------------------------------------------------------------------
+	public CompoundStateEdit(TLDocument doc, String presentationName){
+		super(Collections.EMPTY_SET);
+		rememberDocument(doc);
+		iPresentationName = presentationName;
+		iParts = new ArrayList();
+	}
+	
+	
+	//	Trivial accessors -------------------------------------------------------------
+	public int getPartCount()				{	return iParts.size();					}
+	public TLUndoableEdit getPart(int i)		{	return (TLUndoableEdit)iParts.get(i);	}
+	
+	
+	//	Add an edit that has just been done.
+	public void addPart(TLUndoableEdit e){
+		iParts.add(e);
+	}
+	
+	
+	//	The parts are done as they are added, so there is nothing to do here.
+	public void doEdit(TLDocument doc){
+		Debug.assertOnError(doc == iDoc);
+	}
+	
+	
+	//	undo() - Undo the parts, last first.
+	public void undo() throws CannotUndoException {
+		super.undo();
+		
+		iDoc.beginChangeBatch();
+		try {
+			for (int i = iParts.size() - 1; i >= 0; i--)
+				this.getPart(i).undo();
+		}
+		finally {
+			iDoc.endChangeBatch();
+		}
+	}
+	
+	
+	//	redo() - Redo the parts, first first.
+	public void redo() throws CannotRedoException {
+		super.redo();
+		
+		iDoc.beginChangeBatch();
+		try {
+			for (int i = 0; i < iParts.size(); i++)
+				this.getPart(i).redo();
+		}
+		finally {
+			iDoc.endChangeBatch();
+		}
+	}
+	
+	
+	//	Return the states affected by any part.
+	public Set getAffectedStates(){
+		Set all = new HashSet();
+		for (int i = 0; i < iParts.size(); i++)
+			all.addAll(this.getPart(i).getAffectedStates());
+		return all;
+	}
+	
+	
+	public int getAffectedStateCount(){
+		int count = 0;
+		for (int i = 0; i < iParts.size(); i++)
+			count += this.getPart(i).getAffectedStateCount();
+		return count;
+	}
+	
+	
+	//	Describe this operation in a form that ends up in the undo menu item.
+	public String getPresentationName() {
+		if (iPresentationName != null || iParts.isEmpty())
+			return iPresentationName;
+		return this.getPart(0).getPresentationName();
+	}
+	
+	
+	//	Undo memory budget ---------------------------------------------------------------
+	//	The parts that can be spilled are written to one record.  While that record is in the file, each
+	//	spilled part is marked as spilled too, so that it estimates its own size correctly.
+	public int getRetainedSize(){
+		int size = EDIT_OVERHEAD + REFERENCE_SIZE * iParts.size();
+		for (int i = 0; i < iParts.size(); i++)
+			size += this.getPart(i).getRetainedSize();
+		return size;
+	}
+	
+	
+	public boolean canSpill(){
+		for (int i = 0; i < iParts.size(); i++){
+			if (this.getPart(i).canSpill())
+				return true;
+		}
+		return false;
+	}
+	
+	
+	protected void writeSpillData(DataOutput os) throws IOException {
+		for (int i = 0; i < iParts.size(); i++){
+			TLUndoableEdit part = this.getPart(i);
+			boolean spillable = part.canSpill();
+			os.writeBoolean(spillable);
+			if (spillable)
+				part.writeSpillData(os);
+		}
+	}
+	
+	
+	protected void releaseSpillData(){
+		for (int i = 0; i < iParts.size(); i++){
+			TLUndoableEdit part = this.getPart(i);
+			if (part.canSpill()){
+				part.releaseSpillData();
+				part.iSpillPosition = SPILLED_WITH_PARENT;
+			}
+		}
+	}
+	
+	
+	protected void readSpillData(DataInput is) throws IOException {
+		for (int i = 0; i < iParts.size(); i++){
+			TLUndoableEdit part = this.getPart(i);
+			if (is.readBoolean()){
+				part.readSpillData(is);
+				part.iSpillPosition = NOT_SPILLED;
+			}
+		}
+	}
+}
@@ -0,0 +1,106 @@
+//	CyclicMapping.java - Map times to positions within the year, for the cyclic view of a timeline.
+
+//	In the cyclic view, every year of a timeline is drawn on top of every other, so a time's position
+//	depends only on how far into its year it is.  The TimePositionMapping converts times to positions four
+//	times for every state it lays out, and once for every grid line, so finding a time's year must not take
+//	longer for documents spanning more years.  A CyclicMapping keeps the start of each year the mapped
+//	period touches, and finds a time's year by dividing by the average length of a year, which is never
+//	more than a year out, then checking the starts on either side.
+//
+//	The cycle is a leap year.  Times in other years from March 1 on are moved a day later, so that, for
+//	example, July 1 of any year is drawn where July 1 of a leap year is.  The moment from which each year is
+//	moved is found when the mapping is made.  The first year kept is always a leap year, so times in it
+//	are never moved, and its start serves as the timeline's origin.
+//
+//	A CyclicMapping never changes once made, so it can be shared by copies of a TimePositionMapping.
+
+class CyclicMapping extends Object {
+
+	// 	Constants ------------------------------------------------------------------------
+	protected static final long MILLIS_IN_DAY = 24 * 60 * 60 * 1000;
+	protected static final long MILLIS_IN_AVERAGE_YEAR = 146097 * MILLIS_IN_DAY / 400;
+	protected static final long MILLIS_IN_LONGEST_COMMON_YEAR = 365 * MILLIS_IN_DAY + MILLIS_IN_DAY / 2;
+
+
+	//	Instance variables ----------------------------------------------------------------
+	protected final long[] iYearStarts;			//	Start of each year, and of the year after the last
+	protected final long[] iLeapDayMoves;			//	Moment from which each year is moved a day later, or
+												//	Long.MAX_VALUE for leap years
+
+
+	//	Constructor ---------------------------------------------------------------------
+	//	Make a mapping for the years touched by the period from startMillis to endMillis, starting with the
+	//	nearest leap year at or before the first.
+	public CyclicMapping(CalendarEngine engine, long startMillis, long endMillis){
+		long firstYearStart = engine.truncate(startMillis, TimeUnit.YEAR);
+		while (!CyclicMapping.isLeapYear(firstYearStart, engine.next(firstYearStart, TimeUnit.YEAR)))
+			firstYearStart = engine.truncate(firstYearStart - 1, TimeUnit.YEAR);
+		long lastYearStart = engine.truncate(endMillis, TimeUnit.YEAR);
+
+		//	Count the years, then fill in their starts, and where each is moved from.
+		int yearCount = 1;
+		for (long t = firstYearStart; t < lastYearStart; t = engine.next(t, TimeUnit.YEAR))
+			yearCount++;
+		iYearStarts = new long[yearCount + 1];
+		iLeapDayMoves = new long[yearCount];
+		iYearStarts[0] = firstYearStart;
+		for (int i = 0; i < yearCount; i++){
+			iYearStarts[i + 1] = engine.next(iYearStarts[i], TimeUnit.YEAR);
+			if (CyclicMapping.isLeapYear(iYearStarts[i], iYearStarts[i + 1]))
+				iLeapDayMoves[i] = Long.MAX_VALUE;
+			else {
+				long februaryStart = engine.next(iYearStarts[i], TimeUnit.MONTH);
+				iLeapDayMoves[i] = engine.next(februaryStart, TimeUnit.MONTH);
+			}
+		}
+	}
+
+
+	//	Trivial accessors -------------------------------------------------------------
+	public long getOriginMillis()				{	return iYearStarts[0];				}
+
+
+	//	Return how far into the cycle a time is drawn, in millis from the start of the cycle.
+	public long timeToCycleMillis(long millis){
+		int i = this.findYear(millis);
+		long cycleMillis = millis - iYearStarts[i];
+		if (millis >= iLeapDayMoves[i])
+			cycleMillis += MILLIS_IN_DAY;
+		return cycleMillis;
+	}
+
+
+	//	Return the time drawn at a point in the cycle, in the year containing nearMillis.  In years that
+	//	aren't leap years, February 29 becomes March 1.
+	public long cycleMillisToTime(long cycleMillis, long nearMillis){
+		int i = this.findYear(nearMillis);
+		if (iLeapDayMoves[i] != Long.MAX_VALUE){
+			long moveMillis = iLeapDayMoves[i] - iYearStarts[i];
+			if (cycleMillis >= moveMillis)
+				cycleMillis = Math.max(moveMillis, cycleMillis - MILLIS_IN_DAY);
+		}
+		return iYearStarts[i] + cycleMillis;
+	}
+
+
+	//	Internal methods ------------------------------------------------------------
+
+	//	Return the index of the year containing a time.  Times outside the years kept are taken to be in
+	//	the first or last year.
+	protected int findYear(long millis){
+		long estimate = (millis - iYearStarts[0]) / MILLIS_IN_AVERAGE_YEAR;
+		int last = iLeapDayMoves.length - 1;
+		int i = (int)Math.max(0, Math.min(last, estimate));
+		while (i < last && iYearStarts[i + 1] <= millis)
+			i++;
+		while (i > 0 && iYearStarts[i] > millis)
+			i--;
+		return i;
+	}
+
+
+	//	Report whether the year between two starts is a leap year.
+	protected static boolean isLeapYear(long yearStart, long nextYearStart){
+		return nextYearStart - yearStart > MILLIS_IN_LONGEST_COMMON_YEAR;
+	}
+}
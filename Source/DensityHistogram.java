@@ -0,0 +1,88 @@
+//	DensityHistogram.java - Count the states of a document starting in any period, as states come and go.
+
+//	The overview strip (see OverviewPane) shows how many states start in each of its pixel columns.  Counting
+//	them by looking at the states every time it paints would take time in proportion to the size of the
+//	document, so the counts are kept here instead, and brought up to date as states are added, removed
+//	and modified.
+//
+//	The counts are kept for BUCKET_COUNT equal periods ("buckets") covering a span of time, in a binary
+//	indexed (Fenwick) tree:  element i of the tree holds the sum of a run of buckets ending at bucket i,
+//	whose length is the lowest set bit of i.  Both counting a state in, and finding the number of states
+//	starting before a time, touch one element per bit of the bucket number, so each takes the same time
+//	however many states there are.  The number of states in a period is the difference of two such counts.
+//
+//	States starting outside the span can't be counted;  the owner should check with covers() first, and make
+//	a new histogram with a larger span when it fails.
+
+class DensityHistogram extends Object {
+
+	// 	Constants ------------------------------------------------------------------------
+	protected static final int BUCKET_COUNT = 8192;					//	A power of two
+	protected static final long MIN_BUCKET_MILLIS = 60 * 1000;		//	Shortest bucket:  one minute
+
+
+	//	Instance variables ----------------------------------------------------------------
+	protected long iStartMillis;				//	Start of the first bucket
+	protected long iBucketMillis;				//	Length of a bucket
+	protected int[] iTree = new int[BUCKET_COUNT + 1];	//	The Fenwick tree;  element 0 is unused
+	protected int iStateCount;
+
+
+	//	Constructor ---------------------------------------------------------------------
+	//	Make an empty histogram with buckets covering at least the period from startMillis up to (but not
+	//	including) endMillis.
+	public DensityHistogram(long startMillis, long endMillis){
+		iStartMillis = startMillis;
+		long span = Math.max(1, endMillis - startMillis);
+		iBucketMillis = Math.max(MIN_BUCKET_MILLIS, (span + BUCKET_COUNT - 1) / BUCKET_COUNT);
+	}
+
+
+	//	Trivial accessors -------------------------------------------------------------
+	public int getStateCount()					{	return iStateCount;					}
+	public long getStartMillis()				{	return iStartMillis;				}
+	public long getEndMillis()					{	return iStartMillis + BUCKET_COUNT * iBucketMillis;	}
+
+
+	//	Report whether a state starting at the given time can be counted.
+	public boolean covers(long millis){
+		return iStartMillis <= millis && millis < this.getEndMillis();
+	}
+
+
+	//	Count a state starting at the given time in (delta 1) or out (delta -1).  The time must be covered.
+	public void add(long millis, int delta){
+		Debug.assertOnError(this.covers(millis));
+		for (int i = this.bucketOf(millis) + 1; i <= BUCKET_COUNT; i += i & -i)
+			iTree[i] += delta;
+		iStateCount += delta;
+	}
+
+
+	//	Return the number of states starting before the given time.  Times are rounded down to a bucket.
+	public int countBefore(long millis){
+		if (millis <= iStartMillis)
+			return 0;
+		if (millis >= this.getEndMillis())
+			return iStateCount;
+
+		int sum = 0;
+		for (int i = this.bucketOf(millis); i > 0; i -= i & -i)
+			sum += iTree[i];
+		return sum;
+	}
+
+
+	//	Return the number of states starting from fromMillis up to (but not including) toMillis.
+	public int count(long fromMillis, long toMillis){
+		return this.countBefore(toMillis) - this.countBefore(fromMillis);
+	}
+
+
+	//	Internal methods ------------------------------------------------------------
+
+	//	Return the index of the bucket holding a covered time.
+	protected int bucketOf(long millis){
+		return (int)((millis - iStartMillis) / iBucketMillis);
+	}
+}
@@ -0,0 +1,163 @@
+//	DensityPyramid.java - Count the states of a timeline over time, at many resolutions.
+
+//	When a timeline is zoomed out far enough, many states start in every pixel column, and measuring,
+//	placing and drawing each of them takes time in proportion to the size of the document, only to draw a
+//	smear.  Instead, TimelinePane draws a strip for each category, shaded by how many of the category's
+//	states start in each column, using the counts kept here.
+//
+//	The counts are kept in "strips", one for each category that the states are displayed in (the first
+//	category each is a member of, as in DisplayedState), plus one for states in no category.  Each strip
+//	counts the states starting in each of up to MAX_BASE_BUCKETS equal periods ("buckets") covering the
+//	states' start times.  Above that are coarser levels, each with buckets twice as long as the one below,
+//	holding the sums of pairs of buckets below them.  The number of states in any range of buckets is then
+//	a sum of at most two buckets per level, so counting the states in a pixel column takes the same time
+//	however many states there are.
+//
+//	A pyramid is made from a snapshot of the states, and doesn't change;  TimelinePane drops it when the
+//	document or the shown categories change, and makes a new one when it next needs the counts.  It
+//	doesn't depend on the scale.  The buckets are chosen to cover a given period (the TPM's mapped
+//	period) as well as the states, so TimelinePane can find out how long they will be, with
+//	getBucketMillisFor(), without making a pyramid.
+
+import java.awt.Color;
+import java.util.*;
+
+class DensityPyramid extends Object {
+
+	// 	Constants ------------------------------------------------------------------------
+	protected static final int MAX_BASE_BUCKETS = 16384;				//	Buckets in the finest level
+	protected static final long MIN_BUCKET_MILLIS = 60 * 60 * 1000;		//	Shortest bucket:  one hour
+
+
+	//	Instance variables ----------------------------------------------------------------
+	protected long iStartMillis;				//	Start of the first bucket
+	protected long iBucketMillis;				//	Length of a bucket in the finest level
+	protected int iBucketCount;				//	Buckets in the finest level
+	protected Category[] iStripCategories;		//	Category of each strip;  null for states in no category
+	protected int[][][] iCounts;				//	Count of each strip, at each level, in each bucket
+	protected int iStateCount;
+
+
+	//	Constructor ---------------------------------------------------------------------
+	//	Count a Collection of DisplayedStates, in buckets covering their start times and the given period,
+	//	which may be null.
+	public DensityPyramid(Collection displayedStates, TimePeriod period){
+		long startTime = System.currentTimeMillis();
+
+		//	Find the span of start times, and the category of each state.
+		iStateCount = displayedStates.size();
+		long[] starts = new long[iStateCount];
+		Category[] categories = new Category[iStateCount];
+		long earliest = Long.MAX_VALUE;
+		long latest = Long.MIN_VALUE;
+		Map strips = new HashMap();
+		int i = 0;
+		Iterator iter = displayedStates.iterator();
+		while (iter.hasNext()){
+			TLState state = ((DisplayedState)iter.next()).getState();
+			starts[i] = state.getPeriodStart();
+			earliest = Math.min(earliest, starts[i]);
+			latest = Math.max(latest, starts[i]);
+			Set members = state.getCategories().getAsSet();
+			if (!members.isEmpty()){
+				categories[i] = (Category)members.iterator().next();
+				strips.put(categories[i], null);
+			}
+			i++;
+		}
+
+		//	The strips go in order of category name, with states in no category last.
+		List stripCategories = new ArrayList(strips.keySet());
+		Collections.sort(stripCategories, new Comparator(){
+			public int compare(Object o1, Object o2){
+				return o1.toString().compareTo(o2.toString());
+			}
+		});
+		for (i = 0; i < stripCategories.size(); i++)
+			strips.put(stripCategories.get(i), Integer.valueOf(i));
+		boolean haveUncategorized = false;
+		for (i = 0; i < iStateCount; i++)
+			haveUncategorized |= (categories[i] == null);
+		if (haveUncategorized)
+			stripCategories.add(null);
+		iStripCategories = (Category[])stripCategories.toArray(new Category[stripCategories.size()]);
+
+		//	Choose the buckets, and count the states into the finest level.
+		if (period != null){
+			earliest = Math.min(earliest, period.getPeriodStart());
+			latest = Math.max(latest, period.getPeriodEnd());
+		}
+		iStartMillis = (earliest <= latest) ? earliest : 0;
+		long span = (earliest <= latest) ? latest - earliest + 1 : 1;
+		iBucketMillis = DensityPyramid.getBucketMillisFor(span);
+		iBucketCount = (int)((span + iBucketMillis - 1) / iBucketMillis);
+		int levelCount = 1;
+		while ((iBucketCount - 1) >> (levelCount - 1) > 0)
+			levelCount++;
+		iCounts = new int[iStripCategories.length][levelCount][];
+		for (int strip = 0; strip < iStripCategories.length; strip++)
+			iCounts[strip][0] = new int[iBucketCount];
+		int uncategorizedStrip = iStripCategories.length - 1;
+		for (i = 0; i < iStateCount; i++){
+			int strip = (categories[i] != null) ? ((Integer)strips.get(categories[i])).intValue() : uncategorizedStrip;
+			iCounts[strip][0][(int)((starts[i] - iStartMillis) / iBucketMillis)]++;
+		}
+
+		//	Sum pairs of buckets into each coarser level.
+		for (int strip = 0; strip < iStripCategories.length; strip++){
+			for (int level = 1; level < levelCount; level++){
+				int[] below = iCounts[strip][level - 1];
+				int[] counts = new int[(below.length + 1) / 2];
+				for (int bucket = 0; bucket < below.length; bucket++)
+					counts[bucket >> 1] += below[bucket];
+				iCounts[strip][level] = counts;
+			}
+		}
+
+		if (Debug.DISPLAY_TIMINGS)
+			System.out.println((System.currentTimeMillis() - startTime) + " mS. to count " + iStateCount +
+						" states into " + iStripCategories.length + " density strips");
+	}
+
+
+	//	Trivial accessors -------------------------------------------------------------
+	public int getStateCount()					{	return iStateCount;					}
+	public int getStripCount()					{	return iStripCategories.length;		}
+	public long getBucketMillis()				{	return iBucketMillis;				}
+
+
+	//	Return the length of the finest buckets of a pyramid covering a span of time.
+	public static long getBucketMillisFor(long spanMillis){
+		return Math.max(MIN_BUCKET_MILLIS, (spanMillis + MAX_BASE_BUCKETS - 1) / MAX_BASE_BUCKETS);
+	}
+
+
+	//	Return the color to draw a strip in.
+	public Color getStripColor(int strip){
+		Category cat = iStripCategories[strip];
+		return (cat != null) ? cat.getColor() : DisplayedState.DEFAULT_BODY_COLOR;
+	}
+
+
+	//	Return the number of states in a strip starting from fromMillis up to (but not including) toMillis.
+	//	Times are rounded to the finest buckets.
+	public int count(int strip, long fromMillis, long toMillis){
+		int[][] counts = iCounts[strip];
+		long low = Math.max(0, Math.min(iBucketCount, (fromMillis - iStartMillis) / iBucketMillis));
+		long high = Math.max(0, Math.min(iBucketCount, (toMillis - iStartMillis) / iBucketMillis));
+		int lo = (int)low;
+		int hi = (int)high;
+
+		//	Climb the levels, taking the odd bucket at each end of the range before moving up.
+		int sum = 0;
+		for (int level = 0; lo < hi; level++){
+			if ((lo & 1) != 0)
+				sum += counts[level][lo++];
+			if ((hi & 1) != 0)
+				sum += counts[level][--hi];
+			lo >>= 1;
+			hi >>= 1;
+		}
+		return sum;
+	}
+}
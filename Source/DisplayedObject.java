@@ -1,12 +1,12 @@
-//	DisplayedObject.java - Abstract base class for all displayed objects.
-
-public abstract class DisplayedObject extends Object {
-
-
-	public abstract int getXLocation();
-
-	//	Update our state variable which controls whether drag handles are shown.
-	public abstract void showDragHandles(boolean b);
-
-
+//	DisplayedObject.java - Abstract base class for all displayed objects.
+
+public abstract class DisplayedObject extends Object {
+
+
+	public abstract int getXLocation();
+
+	//	Update our state variable which controls whether drag handles are shown.
+	public abstract void showDragHandles(boolean b);
+
+
 }
\ No newline at end of file
@@ -0,0 +1,84 @@
+//	DocumentChangeBus.java - Coalesce a document's change events before delivering them to listeners.
+
+//	Edits used to reach TimelinePane, TLWindow and the other document listeners one ChangeEvent at a time,
+//	synchronously.  A burst of edits--several undos in a row, or an import--made each listener rebuild
+//	itself once per event.  Instead, TLDocument posts its events here.  State and category changes made
+//	during one trip through the event dispatch thread are merged into a single CompoundChange, which is
+//	delivered from an invokeLater() callback.  Events that can't be merged (such as DocumentNameChange)
+//	are delivered at once, after anything already pending, so listeners still see changes in order.
+//
+//	Code that needs listeners to be up to date before it continues (for example, code that looks up
+//	the displayed form of a state) calls TLDocument.flushChangeEvents().
+
+import javax.swing.SwingUtilities;
+import javax.swing.event.ChangeEvent;
+
+class DocumentChangeBus implements Runnable {
+
+	//	Instance variables ----------------------------------------------------------------
+	protected TLDocument iDoc;					//	Document whose events we carry
+	protected CompoundChange iPending;				//	Changes not yet delivered.  Null => none
+	protected boolean iFlushScheduled;				//	An invokeLater() of run() is outstanding
+	
+	//	Statistics.
+	protected long iEventsReceived;				//	Individual changes posted to us
+	protected long iEventsDelivered;				//	Events delivered to the listeners
+	
+	
+	//	Constructor ---------------------------------------------------------------------
+	public DocumentChangeBus(TLDocument doc){
+		iDoc = doc;
+	}
+	
+	
+	//	Trivial accessors -------------------------------------------------------------
+	public long getEventsReceived()				{	return iEventsReceived;			}
+	public long getEventsDelivered()				{	return iEventsDelivered;			}
+	
+	
+	//	Accept a change event from the document.
+	public void post(ChangeEvent ev){
+		iEventsReceived += (ev instanceof CompoundChange) ? ((CompoundChange)ev).getMergedEventCount() : 1;
+		
+		if (iPending == null)
+			iPending = new CompoundChange(iDoc);
+		if (!iPending.merge(ev)){
+			this.flush();
+			this.deliver(ev);
+			return;
+		}
+		
+		if (!iFlushScheduled){
+			iFlushScheduled = true;
+			SwingUtilities.invokeLater(this);
+		}
+	}
+	
+	
+	//	Deliver any pending changes now.
+	public void flush(){
+		if (iPending == null)
+			return;
+		CompoundChange change = iPending;
+		iPending = null;
+		if (!change.isEmpty())
+			this.deliver(change);
+	}
+	
+	
+	//	Called through invokeLater() once the event that caused the changes has been handled.
+	public void run(){
+		iFlushScheduled = false;
+		this.flush();
+	}
+	
+	
+	protected void deliver(ChangeEvent ev){
+		iEventsDelivered++;
+		long startTime = System.currentTimeMillis();
+		iDoc.deliverChangeUpdate(ev);
+		if (Debug.DISPLAY_TIMINGS)
+			System.out.println((System.currentTimeMillis() - startTime) + " mS. to deliver document change (" +
+				iEventsReceived + " changes received, " + iEventsDelivered + " events delivered)");
+	}
+}
@@ -0,0 +1,171 @@
+//	DocumentLeakCheck.java - Check that closing a document releases it.
+
+//	Run with "java DocumentLeakCheck".  Opens and closes a small document, with a window and a few hundred
+//	states, CYCLE_COUNT times, and measures the heap in use and the time the application's ActionManager
+//	takes to update all its enables, early on and again at the end.  A closed document that stays reachable
+//	from the application shows up in both:  the heap grows by a document per cycle, and every update walks
+//	the actions of every document ever opened.  Prints the measurements, and exits with status 1 if either
+//	has grown, or if the application's ActionManager still has children left over from closed documents.
+//
+//	Each window is painted before it is closed, so its panes fill the tile and label caches as they would
+//	on screen.  The tiles are shared by all panes and discarded only when over budget, so once the budget
+//	is full, leaked tiles don't make the heap grow.  So we also check that no tiles are left once every
+//	window is closed.
+//
+//	The windows are real, so this needs a display.
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.*;
+import javax.swing.*;
+
+class DocumentLeakCheck extends Object {
+
+	// 	Constants ------------------------------------------------------------------------
+	protected static final int CYCLE_COUNT = 1000;
+	protected static final int WARMUP_CYCLES = 100;			//	Cycles before the first measurement
+	protected static final int STATE_COUNT = 200;			//	States in each document
+	protected static final int ENABLE_REPEATS = 200;		//	Updates timed at each measurement
+	protected static final long HOUR = 60 * 60 * 1000;
+
+	//	How much the measurements may grow between the first and the last.  A leaked document is much
+	//	bigger than HEAP_SLACK / CYCLE_COUNT.
+	protected static final long HEAP_SLACK = 4 * 1024 * 1024;	//	Bytes
+	protected static final double ENABLE_TIME_FACTOR = 2.0;
+	protected static final long ENABLE_TIME_SLACK = 50000;		//	nS. per update, for timer noise
+
+
+	//	Class variables ----------------------------------------------------------------
+	protected static boolean sFailed;
+
+
+	//	The application, with nothing but the ActionManager that documents attach to.  Closing a document
+	//	doesn't offer to save it, or quit.
+	protected static class CheckApplication extends Application {
+		public String getName()		{	return "DocumentLeakCheck";		}
+		public String getVersion()		{	return "1";					}
+		protected void run(String[] args){
+		}
+		public void closeDocument(CustomAbstractDocument doc){
+		}
+	}
+
+
+	public static void main(String[] args) throws Exception {
+		if (GraphicsEnvironment.isHeadless()){
+			System.out.println("DocumentLeakCheck needs a display");
+			System.exit(2);
+		}
+		Application.gApp = new CheckApplication();
+		final ActionManager appAM = Application.gApp.getActionManager();
+		final int baseChildCount = appAM.iChildAMs.size();
+
+		long firstHeap = 0;
+		long firstEnableTime = 0;
+		for (int i = 1; i <= CYCLE_COUNT; i++){
+			SwingUtilities.invokeAndWait(new Runnable(){
+					public void run(){
+						DocumentLeakCheck.openAndClose();
+					}
+				});
+			if (i == WARMUP_CYCLES){
+				firstHeap = DocumentLeakCheck.usedHeap();
+				firstEnableTime = DocumentLeakCheck.enableTime(appAM);
+				System.out.println("After " + i + " cycles:  " + firstHeap / 1024 + " KB. in use, " +
+							firstEnableTime + " nS. to update enables");
+			}
+		}
+		//	Let the tiles still being drawn in advance come back, and be thrown away.
+		Runnable nothing = new Runnable(){
+				public void run(){
+				}
+			};
+		TileCache.sTileThread.submit(nothing).get();
+		SwingUtilities.invokeAndWait(nothing);
+		long lastHeap = DocumentLeakCheck.usedHeap();
+		long lastEnableTime = DocumentLeakCheck.enableTime(appAM);
+		System.out.println("After " + CYCLE_COUNT + " cycles:  " + lastHeap / 1024 + " KB. in use, " +
+					lastEnableTime + " nS. to update enables");
+
+		DocumentLeakCheck.check("closed documents are detached", appAM.iChildAMs.size() == baseChildCount);
+		DocumentLeakCheck.check("closed windows' tiles are released", TileCache.sTiles.isEmpty());
+		DocumentLeakCheck.check("heap in use is flat", lastHeap <= firstHeap + HEAP_SLACK);
+		DocumentLeakCheck.check("enable update time is flat",
+					lastEnableTime <= firstEnableTime * ENABLE_TIME_FACTOR + ENABLE_TIME_SLACK);
+		System.out.println(sFailed ? "FAILED" : "All checks passed");
+		System.exit(sFailed ? 1 : 0);
+	}
+
+
+	//	Open a new document, fill it with states, paint its window, and close it.  Must be called on the
+	//	event dispatch thread.
+	protected static void openAndClose(){
+		TLDocument doc = TLDocument.createNew();
+		Set states = new HashSet();
+		for (int i = 0; i < STATE_COUNT; i++){
+			long start = i * HOUR;
+			states.add(new TLState(new LabelInfo("State " + i, "", false), new TLEvent(start, start),
+						new TLEvent(start + HOUR, start + HOUR), null));
+		}
+		try {
+			doc.executeEdit(new AddDeleteStateEdit(states, false));
+		}
+		catch (UserError e){
+			throw new ImplementationException("Unexpected UserError adding states:  " + e.toString());
+		}
+		doc.flushChangeEvents();
+		DocumentLeakCheck.paint(doc.iWindow);
+		doc.closeWindow(doc.iWindow);
+	}
+
+
+	//	Paint a window's contents into an offscreen image, as the screen would be painted.
+	protected static void paint(TLWindow window){
+		window.validate();
+		JRootPane root = window.getRootPane();
+		BufferedImage image = new BufferedImage(Math.max(1, root.getWidth()), Math.max(1, root.getHeight()),
+					BufferedImage.TYPE_INT_RGB);
+		Graphics g = image.createGraphics();
+		try {
+			root.paint(g);
+		}
+		finally {
+			g.dispose();
+		}
+	}
+
+
+	//	Return the bytes of heap in use, once the garbage collector has settled.
+	protected static long usedHeap() throws Exception {
+		Runtime rt = Runtime.getRuntime();
+		long used = Long.MAX_VALUE;
+		for (int i = 0; i < 5; i++){
+			System.gc();
+			Thread.sleep(100);
+			used = Math.min(used, rt.totalMemory() - rt.freeMemory());
+		}
+		return used;
+	}
+
+
+	//	Return the nS. the ActionManager takes to update all its enables, on the event dispatch thread.
+	protected static long enableTime(final ActionManager am) throws Exception {
+		final long[] elapsed = new long[1];
+		SwingUtilities.invokeAndWait(new Runnable(){
+				public void run(){
+					long startTime = System.nanoTime();
+					for (int i = 0; i < ENABLE_REPEATS; i++)
+						am.updateAllActionEnables();
+					elapsed[0] = (System.nanoTime() - startTime) / ENABLE_REPEATS;
+				}
+			});
+		return elapsed[0];
+	}
+
+
+	protected static void check(String what, boolean passed){
+		System.out.println((passed ? "ok      " : "FAILED  ") + what);
+		if (!passed)
+			sFailed = true;
+	}
+}
@@ -1,16 +1,16 @@
-//	DocumentNameChange.java - Report change in the document's name.
-
-import java.util.*;
-
-public class DocumentNameChange extends javax.swing.event.ChangeEvent  {
-
-	// 	Constants ------------------------------------------------------------------------
-	
-	//	Instance variables----------------------------------------------------------------
-	
-	//	Constructor---------------------------------------------------------------------
-	public DocumentNameChange(Object source){
-		super(source);
-	}
-}
-
+//	DocumentNameChange.java - Report change in the document's name.
+
+import java.util.*;
+
+public class DocumentNameChange extends javax.swing.event.ChangeEvent  {
+
+	// 	Constants ------------------------------------------------------------------------
+	
+	//	Instance variables----------------------------------------------------------------
+	
+	//	Constructor---------------------------------------------------------------------
+	public DocumentNameChange(Object source){
+		super(source);
+	}
+}
+
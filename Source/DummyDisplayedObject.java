@@ -1,21 +1,21 @@
-//	DummyDisplayedObject.java - Implementation of DisplayedObject used by TimelinePane.
-
-public class DummyDisplayedObject extends DisplayedObject {
-
-	protected int iX;
-	
-	//	Constructor.
-	public DummyDisplayedObject(int x){
-		iX = x;
-	}
-	
-	
-	//	Accessors.
-	public int getXLocation()		{		return iX;		}
-
-
-	//	Update our state variable which controls whether drag handles are shown.
-	public void showDragHandles(boolean b){
-	}
-
+//	DummyDisplayedObject.java - Implementation of DisplayedObject used by TimelinePane.
+
+public class DummyDisplayedObject extends DisplayedObject {
+
+	protected int iX;
+	
+	//	Constructor.
+	public DummyDisplayedObject(int x){
+		iX = x;
+	}
+	
+	
+	//	Accessors.
+	public int getXLocation()		{		return iX;		}
+
+
+	//	Update our state variable which controls whether drag handles are shown.
+	public void showDragHandles(boolean b){
+	}
+
 }
\ No newline at end of file
@@ -1,110 +1,227 @@
-//	EditManager.java - Add functionality to Swing UndoManager class.
-
-//	EditManager is the central coordinator for edits to the document.  Its principal responsibility
-//	is to keep track of undoable edits, and provide the Undo and Redo commands.  Therefore, it
-//	extends javax.swing.undo.UndoManager.  Behavior it adds to the Swing component is the ability
-//	to update the state of menu items (including their labels) as the undo state changes.  Note
-//	that the same sort of functionality has been suggested to Sun  in bug # 4141524.
-
-//	See TLUndoableEdit for an overview of the editing mechanism.
-
-import java.awt.event.ActionEvent;
-import javax.swing.*;
-import javax.swing.event.UndoableEditEvent;
-import javax.swing.undo.*;
-
-public class EditManager extends UndoManager {
-
-	//	Instance variables ----------------------------------------------------------------
-	protected TLDocument iDoc;
-	
-
-	//	Trivial accessors -------------------------------------------------------------
-
-
-	//	Constructor ---------------------------------------------------------------------
-	public EditManager(TLDocument doc){
-		iDoc = doc;
-		
-		//	Initialize the state of the Actions.
-		this.updateUIState();
-	}
-	
-	
-	//	Called by other methods whenever the user interface state needs to be updated.
-	protected void updateUIState(){
-		//	??	Is it worth enhancing this implementation so that
-		//	??	the Actions only get changed when our state really changes?
-		iUndoAction.setEnabled(this.canUndo());
-		iUndoAction.putValue(Action.NAME, this.getUndoPresentationName());
-		iRedoAction.setEnabled(this.canRedo());
-		iRedoAction.putValue(Action.NAME, this.getRedoPresentationName());
-	}
-	
-	
-	//	Execute a new edit just commanded by the user.
-	public void executeEdit(TLUndoableEdit e) {
-		
-		//	Tell the Edit to execute.
-		e.doEdit(iDoc);
-	
-		//	Increment the document's edit count.
-		iDoc.incrementEditCount();
-
-		//	Have our superclass add this edit to its list of undoable edits.
-		super.addEdit(e);
-		
-		//	Update the enable state of the Undo and Redo commands.
-		this.updateUIState();
-	}
-
-
-	//	Override undo()  to update the user interface.
-	public void undo() throws CannotUndoException {
-		
-		//	Ask our superclass to call the edit's undo() method.
-		super.undo();
-
-		//	Decrement the document's edit count.
-		iDoc.decrementEditCount();
-
-		//	Update the enable state of the Undo and Redo commands.
-		this.updateUIState();
-	}
-
-
-	//	Override redo()  to update the user interface.
-	public void redo() throws CannotUndoException {
-
-		//	Ask our superclass to call the edit's redo() method.
-		super.redo();
-
-		//	Increment the document's edit count.
-		iDoc.incrementEditCount();
-
-		//	Update the enable state of the Undo and Redo commands.
-		this.updateUIState();
-	}
-
-
-	//	Command Actions ------------------------------------------------------------
-	//	Undo and Redo are AbstractActions rather than TLActions because they do not use the ActionManager
-	//	mechanism for enables.  Instead, their state is controlled by the EditManager.
-	public Action iUndoAction = new AbstractAction("Undo")  {
-	
-		public void actionPerformed(ActionEvent ae) {			
-			undo();
-		}
-	};
-
-
-	//	Undo and Redo are AbstractActions rather than TLActions because they do not use the ActionManager
-	//	mechanism for enables.  Instead, their state is controlled by the EditManager.
-	public Action iRedoAction = new AbstractAction("Redo")  {
-	
-		public void actionPerformed(ActionEvent ae) {			
-			redo();
-		}
-	};
-
+//	EditManager.java - Add functionality to Swing UndoManager class.
+
+//	EditManager is the central coordinator for edits to the document.  Its principal responsibility
+//	is to keep track of undoable edits, and provide the Undo and Redo commands.  Therefore, it
+//	extends javax.swing.undo.UndoManager.  Behavior it adds to the Swing component is the ability
+//	to update the state of menu items (including their labels) as the undo state changes.  Note
+//	that the same sort of functionality has been suggested to Sun  in bug # 4141524.
+
+//	See TLUndoableEdit for an overview of the editing mechanism.
+
+//	The undo history is kept for the life of the document, even across saves, so its memory has to be
+//	bounded some other way than by discarding edits.  After each change to the history, we total the heap
+//	each edit estimates it retains.  If the total exceeds UNDO_MEMORY_BUDGET, the oldest edits that are
+//	able to are asked to write their bulky parts to an UndoSpillFile.  A spilled edit is read back just
+//	before it is undone or redone.
+
+import java.awt.event.ActionEvent;
+import java.io.IOException;
+import java.util.Iterator;
+import javax.swing.*;
+import javax.swing.event.UndoableEditEvent;
+import javax.swing.undo.*;
+
+public class EditManager extends UndoManager {
+
+	// 	Constants ------------------------------------------------------------------------
+	//	Estimated heap, in bytes, that the undo history may retain before older edits are spilled to disk.
+	protected static final long UNDO_MEMORY_BUDGET = 4 * 1024 * 1024;
+	
+	//	Maximum number of edits in the undo history.  Memory is bounded by the budget above, so this
+	//	is much larger than the default limit of UndoManager.
+	protected static final int UNDO_EDIT_LIMIT = 10000;
+	
+	
+	//	Instance variables ----------------------------------------------------------------
+	protected TLDocument iDoc;
+	protected UndoSpillFile iSpillFile;			//	Created when first needed
+	protected boolean iSpillFailed;				//	Don't keep retrying a broken spill file
+	
+
+	//	Trivial accessors -------------------------------------------------------------
+
+
+	//	Constructor ---------------------------------------------------------------------
+	public EditManager(TLDocument doc){
+		iDoc = doc;
+		this.setLimit(UNDO_EDIT_LIMIT);
+		
+		//	Initialize the state of the Actions.
+		this.updateUIState();
+	}
+	
+	
+	//	Called by other methods whenever the user interface state needs to be updated.
+	protected void updateUIState(){
+		//	??	Is it worth enhancing this implementation so that
+		//	??	the Actions only get changed when our state really changes?
+		iUndoAction.setEnabled(this.canUndo());
+		iUndoAction.putValue(Action.NAME, this.getUndoPresentationName());
+		iRedoAction.setEnabled(this.canRedo());
+		iRedoAction.putValue(Action.NAME, this.getRedoPresentationName());
+	}
+	
+	
+	//	Execute a new edit just commanded by the user.
+	public void executeEdit(TLUndoableEdit e) {
+		
+		//	Tell the Edit to execute.
+		e.doEdit(iDoc);
+		this.addExecutedEdit(e);
+	}
+	
+	
+	//	Add an edit which has already been done to the undo history.  This is used directly for the
+	//	CompoundStateEdits built by document transactions.
+	public void addExecutedEdit(TLUndoableEdit e) {
+	
+		//	Increment the document's edit count.
+		iDoc.incrementEditCount();
+
+		//	Have our superclass add this edit to its list of undoable edits.
+		super.addEdit(e);
+		this.enforceMemoryBudget();
+		
+		//	Update the enable state of the Undo and Redo commands.
+		this.updateUIState();
+	}
+
+
+	//	Execute a new edit as part of an edit already in the undo history, so the user undoes and redoes them
+	//	as one step.  Used when the first edit must be seen before the second is known--when the user is
+	//	asked about it in a modal dialog, for example.  If the earlier edit isn't the last one done, the new
+	//	edit becomes a step of its own.
+	public void executeEditWith(TLUndoableEdit e, TLUndoableEdit previous) {
+		if (this.editToBeUndone() != previous || this.canRedo()){
+			this.executeEdit(e);
+			return;
+		}
+		
+		this.reloadIfSpilled(previous);
+		e.doEdit(iDoc);
+		CompoundStateEdit compound = new CompoundStateEdit(iDoc, null);
+		compound.addPart(previous);
+		compound.addPart(e);
+		edits.set(edits.size() - 1, compound);
+		this.enforceMemoryBudget();
+		this.updateUIState();
+	}
+
+
+	//	Override undo()  to update the user interface.
+	public void undo() throws CannotUndoException {
+		
+		//	Ask our superclass to call the edit's undo() method.
+		this.reloadIfSpilled(this.editToBeUndone());
+		super.undo();
+
+		//	Decrement the document's edit count.
+		iDoc.decrementEditCount();
+		this.enforceMemoryBudget();
+
+		//	Update the enable state of the Undo and Redo commands.
+		this.updateUIState();
+	}
+
+
+	//	Override redo()  to update the user interface.
+	public void redo() throws CannotUndoException {
+
+		//	Ask our superclass to call the edit's redo() method.
+		this.reloadIfSpilled(this.editToBeRedone());
+		super.redo();
+
+		//	Increment the document's edit count.
+		iDoc.incrementEditCount();
+		this.enforceMemoryBudget();
+
+		//	Update the enable state of the Undo and Redo commands.
+		this.updateUIState();
+	}
+
+
+	//	Override die() to delete the spill file along with the edits.  The document calls this when it closes.
+	public void die(){
+		super.die();
+		if (iSpillFile != null){
+			iSpillFile.delete();
+			iSpillFile = null;
+		}
+	}
+
+
+	//	Undo memory budget -----------------------------------------------------------
+	
+	//	Estimate the heap retained by the undo history, in bytes.
+	public long getRetainedSize(){
+		long total = 0;
+		Iterator iter = edits.iterator();
+		while (iter.hasNext()){
+			Object e = iter.next();
+			if (e instanceof TLUndoableEdit)
+				total += ((TLUndoableEdit)e).getRetainedSize();
+		}
+		return total;
+	}
+	
+	
+	//	Spill the oldest edits until the history fits in its budget.
+	protected void enforceMemoryBudget(){
+		long total = this.getRetainedSize();
+		Iterator iter = edits.iterator();
+		while (total > UNDO_MEMORY_BUDGET && !iSpillFailed && iter.hasNext()){
+			Object o = iter.next();
+			if (!(o instanceof TLUndoableEdit))
+				continue;
+			TLUndoableEdit e = (TLUndoableEdit)o;
+			if (!e.canSpill())
+				continue;
+				
+			//	Listeners may still be holding on to states changed by edits whose events haven't
+			//	been delivered yet.  Let them catch up before we empty any of those states.
+			iDoc.flushChangeEvents();
+			
+			int before = e.getRetainedSize();
+			try {
+				if (iSpillFile == null)
+					iSpillFile = new UndoSpillFile();
+				iSpillFile.spill(e);
+			}
+			catch (IOException ex){
+				//	Keep running without the spill file;  the history just stays in memory.
+				Debug.log(Debug.UNUSUAL_EVENT, "Could not spill undo history because " + ex.toString());
+				iSpillFailed = true;
+			}
+			total -= before - e.getRetainedSize();
+		}
+	}
+	
+	
+	//	Read an edit back from the spill file, if necessary, so that it can be undone or redone.
+	protected void reloadIfSpilled(UndoableEdit e){
+		if (e instanceof TLUndoableEdit && ((TLUndoableEdit)e).isSpilled())
+			iSpillFile.reload((TLUndoableEdit)e);
+	}
+
+
+	//	Command Actions ------------------------------------------------------------
+	//	Undo and Redo are AbstractActions rather than TLActions because they do not use the ActionManager
+	//	mechanism for enables.  Instead, their state is controlled by the EditManager.
+	public Action iUndoAction = new AbstractAction("Undo")  {
+	
+		public void actionPerformed(ActionEvent ae) {			
+			undo();
+		}
+	};
+
+
+	//	Undo and Redo are AbstractActions rather than TLActions because they do not use the ActionManager
+	//	mechanism for enables.  Instead, their state is controlled by the EditManager.
+	public Action iRedoAction = new AbstractAction("Redo")  {
+	
+		public void actionPerformed(ActionEvent ae) {			
+			redo();
+		}
+	};
+
 }
\ No newline at end of file
@@ -0,0 +1,279 @@
+//	GridModel.java - The positions and legends of the grid lines of a timeline.
+
+//	GridPane used to find its grid lines by stepping a calendar through every line in the clip rectangle, and
+//	formatting each legend, every time it painted--and the header and the timeline's grid each did it all
+//	separately.  A GridModel does the stepping and formatting once, for a span of the timeline, and keeps
+//	the results in arrays sorted by X position, so painting is a binary search followed by drawing.
+//
+//	A GridModel is only good for the mapping it was made from.  The TimePositionMapping makes them (see
+//	TimePositionMapping.getGridModel()), and forgets them whenever the mapping changes.  Normally a model
+//	covers the whole timeline, but at fine scales the timeline can be too wide for that to be practical,
+//	so a model covers at most MAX_SPAN pixels, around the part of the timeline being painted.  During a
+//	continuous zoom the mapping changes with every step, so a model then covers just the span being painted.
+//
+//	Once made, a model never changes, so it can be used on any thread.
+
+import java.text.SimpleDateFormat;
+import java.util.*;
+
+class GridModel extends Object {
+
+	// 	Constants------------------------------------------------------------------------
+	//	The widest span covered by a model, in pixels.  With a scale unit every SCALE_UNIT_SIZE pixels,
+	//	this is 100,000 minor lines.
+	protected static final int MAX_SPAN = 100000 * TimePositionMapping.SCALE_UNIT_SIZE;
+
+	//	Conversion tables.
+	static final protected String[] MONTH_ABRIEVIATIONS = {
+		"Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul",
+		"Aug", "Sep", "Oct", "Nov", "Dec"
+	};
+
+
+	//	Instance variables----------------------------------------------------------------
+	protected int iStartX, iEndX;				//	Span of the timeline covered
+
+	//	Minor lines, one per scale unit, and their legends.
+	protected int[] iMinorX;
+	protected String[] iMinorLegends;
+	protected int iMinorCount;
+
+	//	Major lines, one per next larger unit, and their legends.  A legend is null if the line doesn't have one.
+	protected int[] iMajorX;
+	protected String[] iMajorLegends;
+	protected int iMajorCount;
+
+	//	Time/date formatters.
+ 	protected SimpleDateFormat yearFormat = new SimpleDateFormat("yyyy");
+ 	protected SimpleDateFormat monthYearFormat = new SimpleDateFormat("MMMMM, yyyy");
+ 	protected SimpleDateFormat MONTH_FORMAT = new SimpleDateFormat("MMMMM");
+ 	protected SimpleDateFormat monthDayYearFormat = new SimpleDateFormat("EEEE, MMMMM d, yyyy");
+ 	protected SimpleDateFormat MONTH_DAY_FORMAT = new SimpleDateFormat("EEEE, MMMMM d");
+
+
+	//	Constructor---------------------------------------------------------------------
+	//	Compute the grid for the given mapping, covering at least the span from startX to endX, if possible.
+	public GridModel(TimePositionMapping tpm, int startX, int endX){
+		this(tpm, startX, endX, false);
+	}
+
+
+	//	Compute the grid for the given mapping.  If spanOnly is true, cover only the span from startX to endX;
+	//	otherwise cover at least that span, if possible.
+	public GridModel(TimePositionMapping tpm, int startX, int endX, boolean spanOnly){
+		long startTime = System.currentTimeMillis();
+
+		//	Cover just the requested span if asked to.  Otherwise cover the whole timeline if we can, or as much
+		//	as we can around the requested span.
+		int timelineWidth = Math.max(tpm.getTimelineWidth(), endX);
+		if (spanOnly){
+			iStartX = Math.max(0, startX);
+			iEndX = Math.max(iStartX, endX);
+		}
+		else if (timelineWidth <= MAX_SPAN){
+			iStartX = 0;
+			iEndX = timelineWidth;
+		}
+		else {
+			int margin = Math.max(0, (MAX_SPAN - (endX - startX)) / 2);
+			iStartX = Math.max(0, startX - margin);
+			iEndX = (int)Math.min(Integer.MAX_VALUE, Math.max((long)endX, (long)iStartX + MAX_SPAN));
+		}
+
+	 	CalendarEngine engine = CalendarEngine.getDefault();
+	 	long startOfGrid = tpm.xPositionToTime(iStartX);
+	 	long endOfGrid = tpm.xPositionToTime(iEndX);
+
+		int scale = tpm.getScale();
+		this.computeMinorLines(tpm, engine, scale, startOfGrid, endOfGrid);
+
+	 	//	Only find major divisions if there is a time unit larger than the current scale.
+		iMajorX = new int[0];
+		iMajorLegends = new String[0];
+		if (scale < TimeUnit.MAX_VALUE)
+			this.computeMajorLines(tpm, engine, scale, startOfGrid, endOfGrid, tpm.isCyclicView());
+
+		if (Debug.DISPLAY_TIMINGS)
+			System.out.println((System.currentTimeMillis() - startTime) + " mS. to compute " + iMinorCount +
+						" minor and " + iMajorCount + " major grid lines");
+	}
+
+
+	//	Report whether this model covers the span from startX to endX.
+	public boolean covers(int startX, int endX){
+		return iStartX <= startX && endX <= iEndX;
+	}
+
+
+	//	Return the index of the last minor line at or to the left of x, or of the first line if there is none.
+	//	Drawing from here includes the legend of a line just left of x.
+	public int findMinorLine(int x){
+		return findLine(iMinorX, iMinorCount, x);
+	}
+
+
+	//	Return the index of the last major line at or to the left of x, or of the first line if there is none.
+	public int findMajorLine(int x){
+		return findLine(iMajorX, iMajorCount, x);
+	}
+
+
+	//	Internal methods ------------------------------------------------------------
+
+	//	Binary search for the last of the first count entries of xs that is at or left of x.
+	protected static int findLine(int[] xs, int count, int x){
+		int low = 0;
+		int high = count;
+		while (low < high){
+			int mid = (low + high) >>> 1;
+			if (xs[mid] <= x)
+				low = mid + 1;
+			else
+				high = mid;
+		}
+		return Math.max(0, low - 1);
+	}
+
+
+	//	Return a copy of an array, with twice the room.
+	protected static int[] grow(int[] a){
+		int[] bigger = new int[2 * a.length];
+		System.arraycopy(a, 0, bigger, 0, a.length);
+		return bigger;
+	}
+
+	protected static String[] grow(String[] a){
+		String[] bigger = new String[2 * a.length];
+		System.arraycopy(a, 0, bigger, 0, a.length);
+		return bigger;
+	}
+
+
+	 //	Find the minor divisions of the grid, along with their legends.
+	 protected void computeMinorLines(TimePositionMapping tpm, CalendarEngine engine, int scale, long startOfGrid,
+	 				long endOfGrid){
+		iMinorX = new int[16];
+		iMinorLegends = new String[16];
+
+	 	//	Align the grid with the boundary between two scale units.
+	 	long curMoment = engine.truncate(startOfGrid, scale);
+
+	 	//	Once around this loop for each minor grid line.
+	 	while (curMoment < endOfGrid){
+
+	 		//	Find the appropriate legend.
+	 		//	??	We should be using java.text.NumberFormat to handle the leading zeros.
+	 		int legendValue;
+	 		String legendString = null;
+	 		switch (scale){
+				case TimeUnit.YEAR:
+					legendValue = engine.get(curMoment, Calendar.YEAR);
+					legendString = Integer.toString(legendValue % 100);
+					if (legendString.length() == 1)
+						legendString = "0" + legendString;
+					break;
+
+				case TimeUnit.MONTH:
+					legendValue = engine.get(curMoment, Calendar.MONTH);
+					legendString = MONTH_ABRIEVIATIONS[legendValue];
+					break;
+
+				case  TimeUnit.WEEK:
+					legendString = Integer.toString(engine.get(curMoment, Calendar.DATE));
+					if (legendString.length() == 1)
+						legendString = " " + legendString;
+					break;
+
+				case TimeUnit.DAY:
+					legendValue = engine.get(curMoment, Calendar.DAY_OF_MONTH);
+					legendString = Integer.toString(legendValue);
+					if (legendString.length() == 1)
+						legendString = " " + legendString;
+					break;
+
+				case TimeUnit.HOUR:
+					legendValue = engine.get(curMoment, Calendar.HOUR);
+					legendString = Integer.toString(legendValue);
+					if (legendString.length() == 1)
+						legendString = "0" + legendString;
+					break;
+
+				case TimeUnit.MINUTE:
+					legendValue = engine.get(curMoment, Calendar.MINUTE);
+					legendString = Integer.toString(legendValue);
+					if (legendString.length() == 1)
+						legendString = "0" + legendString;
+					break;
+
+				case TimeUnit.SECOND:
+					legendValue = engine.get(curMoment, Calendar.SECOND);
+					legendString = Integer.toString(legendValue);
+					if (legendString.length() == 1)
+						legendString = "0" + legendString;
+					break;
+		 	}
+
+			if (iMinorCount == iMinorX.length){
+				iMinorX = grow(iMinorX);
+				iMinorLegends = grow(iMinorLegends);
+			}
+	 		iMinorX[iMinorCount] = tpm.timeToXPosition(curMoment);
+	 		iMinorLegends[iMinorCount] = legendString;
+	 		iMinorCount++;
+
+	 		//	Advance to the time of the next line.
+	 		curMoment = engine.next(curMoment, scale);
+	 	}
+	 }
+
+
+	 //	Find the major divisions of the grid, along with their legends.
+	 protected void computeMajorLines(TimePositionMapping tpm, CalendarEngine engine, int scale, long startOfGrid,
+	 								long endOfGrid, boolean isCyclicView){
+		iMajorX = new int[16];
+		iMajorLegends = new String[16];
+
+	 	//	Align the grid with the boundary between two major division units.
+	 	long curMoment = engine.truncate(startOfGrid, scale + 1);
+
+ 		//	Delta between major divisions is one TimeUnit larger than scale.
+ 		int nextLargerUnit = scale + 1;
+
+ 		SimpleDateFormat format = null;
+ 		switch (nextLargerUnit){
+			case TimeUnit.YEAR:
+				format = yearFormat;
+				break;
+
+			case TimeUnit.MONTH:
+			case TimeUnit.WEEK:
+				format = (isCyclicView) ? MONTH_FORMAT : monthYearFormat;
+				break;
+
+			case TimeUnit.DAY:
+				format = (isCyclicView) ? MONTH_DAY_FORMAT : monthDayYearFormat;
+				break;
+
+			case TimeUnit.HOUR:
+				break;
+
+			case TimeUnit.MINUTE:
+			case TimeUnit.SECOND:
+				break;
+	 	}
+
+	 	//	Once around this loop for each major grid line.
+	 	while (curMoment < endOfGrid){
+			if (iMajorCount == iMajorX.length){
+				iMajorX = grow(iMajorX);
+				iMajorLegends = grow(iMajorLegends);
+			}
+	 		iMajorX[iMajorCount] = tpm.timeToXPosition(curMoment);
+	 		iMajorLegends[iMajorCount] = (format != null) ? format.format(new Date(curMoment)) : null;
+	 		iMajorCount++;
+
+	 		//	Advance to the time of the next line.
+	 		curMoment = engine.next(curMoment, nextLargerUnit);
+	 	}
+	 }
+}
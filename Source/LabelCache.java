@@ -0,0 +1,151 @@
+//	LabelCache.java - Remember the widths and glyphs of recently used state labels.
+
+//	Every time the scale changes, each DisplayedState measures its label again, and each repaint lays out
+//	the text of every visible label (several times over, for repeated labels) through Graphics.drawString().
+//	Neither result depends on anything but the label and the font, so we keep them here.  Widths are
+//	measured when first asked for;  GlyphVectors are made when a label is first drawn, for the
+//	FontRenderContext of the Graphics it is drawn into, and made again if a different one is used.  Each
+//	DisplayedState keeps the glyphs it last drew, and only comes back here when they no longer apply.
+//
+//	The least recently used entries are dropped once there are more than CAPACITY of them.  Labels are
+//	measured from several threads at once during a parallel layout, and drawn on the tile thread as well
+//	as the event dispatch thread, so access is synchronized;  the measuring itself is done outside the lock.
+
+import java.awt.*;
+import java.awt.font.*;
+import java.util.*;
+
+class LabelCache extends Object {
+
+	// 	Constants ------------------------------------------------------------------------
+	protected static final int CAPACITY = 20000;			//	Labels remembered
+	protected static final int UNKNOWN_WIDTH = -1;			//	Entry made by getGlyphs(), not yet measured
+
+
+	//	Class variables ----------------------------------------------------------------
+	//	The cache shared by all panes.
+	protected static LabelCache sSharedCache = new LabelCache();
+
+
+	//	Instance variables ----------------------------------------------------------------
+	//	Maps Keys to Entries, least recently used first.
+	protected LinkedHashMap iEntries = new LinkedHashMap(1024, 0.75f, true){
+			protected boolean removeEldestEntry(Map.Entry eldest){
+				return size() > CAPACITY;
+			}
+		};
+
+
+	//	Return the cache shared by all panes.
+	public static LabelCache getSharedCache(){
+		return sSharedCache;
+	}
+
+
+	//	Return the width of a label, as drawn in the font of the given FontMetrics.
+	public int getWidth(FontMetrics metrics, String label){
+		Key key = new Key(metrics.getFont(), label);
+		Entry entry;
+		synchronized (this){
+			entry = (Entry)iEntries.get(key);
+		}
+		if (entry != null && entry.iWidth != UNKNOWN_WIDTH)
+			return entry.iWidth;
+
+		//	Another thread may measure the same label at the same time, but they'll get the same answer.
+		int width = metrics.stringWidth(label);
+		if (entry != null)
+			entry.iWidth = width;
+		else {
+			synchronized (this){
+				iEntries.put(key, new Entry(width));
+			}
+		}
+		return width;
+	}
+
+
+	//	Return the glyphs for a label in the Graphics' current font and FontRenderContext.  Callers may keep
+	//	them, for as long as Glyphs.isFor() says they still apply.
+	public Glyphs getGlyphs(Graphics2D g2, String label){
+		Font font = g2.getFont();
+		FontRenderContext frc = g2.getFontRenderContext();
+		Key key = new Key(font, label);
+
+		Entry entry;
+		synchronized (this){
+			entry = (Entry)iEntries.get(key);
+		}
+		if (entry == null){
+			entry = new Entry(UNKNOWN_WIDTH);
+			synchronized (this){
+				iEntries.put(key, entry);
+			}
+		}
+		//	Labels are drawn into tiles on the tile thread too, so the GlyphVector and its context are
+		//	replaced together.
+		Glyphs glyphs = entry.iGlyphs;
+		if (glyphs == null || !frc.equals(glyphs.iContext)){
+			glyphs = new Glyphs(font.createGlyphVector(frc, label), label, font, frc);
+			entry.iGlyphs = glyphs;
+		}
+		return glyphs;
+	}
+
+
+	//	Identifies a label drawn in a font.
+	protected static class Key extends Object {
+		protected Font iFont;
+		protected String iLabel;
+
+		public Key(Font font, String label){
+			iFont = font;
+			iLabel = label;
+		}
+
+		public boolean equals(Object o){
+			if (!(o instanceof Key))
+				return false;
+			Key other = (Key)o;
+			return iLabel.equals(other.iLabel) && iFont.equals(other.iFont);
+		}
+
+		public int hashCode(){
+			return iLabel.hashCode() * 31 + iFont.hashCode();
+		}
+	}
+
+
+	//	What we know about a label.  iWidth is UNKNOWN_WIDTH until the label is measured.  iGlyphs is
+	//	null until the label is first drawn.
+	protected static class Entry extends Object {
+		protected int iWidth;
+		protected volatile Glyphs iGlyphs;
+
+		public Entry(int width){
+			iWidth = width;
+		}
+	}
+
+
+	//	A label's GlyphVector, and the label, font and FontRenderContext it was made for.
+	protected static class Glyphs extends Object {
+		protected GlyphVector iVector;
+		protected String iLabel;
+		protected Font iFont;
+		protected FontRenderContext iContext;
+
+		public Glyphs(GlyphVector vector, String label, Font font, FontRenderContext context){
+			iVector = vector;
+			iLabel = label;
+			iFont = font;
+			iContext = context;
+		}
+
+		//	Report whether these glyphs draw a label in the Graphics' current font and FontRenderContext.
+		public boolean isFor(String label, Graphics2D g2){
+			return (label == iLabel || label.equals(iLabel)) && iFont.equals(g2.getFont()) &&
+						iContext.equals(g2.getFontRenderContext());
+		}
+	}
+}
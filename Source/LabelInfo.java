@@ -1 +1,40 @@
-//	LabelInfo.java - Store identifying info for data model objects.import java.io.Serializable;class LabelInfo extends Object implements Serializable {	//	Instance variables.	protected String iLabel,iNotes;			//	Identifying text	protected boolean iLocked;				//	Object cannot be modified by user		//	Trivial accessors -------------------------------------------------------------	public void setLabel(String label)			{ iLabel = label;}	public void setNotes(String notes)		{ iNotes = notes;}	public String getLabel()				{ return iLabel;}	public String getNotes()				{ return iNotes;}	public void setLocked(boolean b)			{ iLocked = b;}	public boolean isLocked()				{ return iLocked;}			//	Constructors ----------------------------------------------------------------	LabelInfo(String label, String notes, boolean locked){		iLabel = label;		iNotes = notes;		iLocked = locked;	}		//	Constructor for creating from another LabelInfo.	public LabelInfo(LabelInfo other){		this.iLabel = other.iLabel;		this.iNotes = other.iNotes;		this.iLocked = other.iLocked;	}			//	Overrides of standard methods ----------------------------------------------------	public String toString()				{ return iLabel;}}
\ No newline at end of file
+//	LabelInfo.java - Store identifying info for data model objects.
+
+import java.io.Serializable;
+
+class LabelInfo extends Object implements Serializable {
+
+	//	Instance variables.
+	protected String iLabel,iNotes;			//	Identifying text
+	protected boolean iLocked;				//	Object cannot be modified by user
+
+	
+	//	Trivial accessors -------------------------------------------------------------
+	public void setLabel(String label)			{ iLabel = label;}
+	public void setNotes(String notes)		{ iNotes = notes;}
+	public String getLabel()				{ return iLabel;}
+	public String getNotes()				{ return iNotes;}
+	public void setLocked(boolean b)			{ iLocked = b;}
+	public boolean isLocked()				{ return iLocked;}
+	
+	
+	//	Constructors ----------------------------------------------------------------
+	LabelInfo(String label, String notes, boolean locked){
+		iLabel = label;
+		iNotes = notes;
+		iLocked = locked;
+	}
+	
+
+	//	Constructor for creating from another LabelInfo.
+	public LabelInfo(LabelInfo other){
+		this.iLabel = other.iLabel;
+		this.iNotes = other.iNotes;
+		this.iLocked = other.iLocked;
+	}
+	
+	
+	//	Overrides of standard methods ----------------------------------------------------
+	public String toString()				{ return iLabel;}
+
+}
\ No newline at end of file
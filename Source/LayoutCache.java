@@ -0,0 +1,161 @@
+//	LayoutCache.java - Remember the layouts of a timeline pane at the scales it has recently been shown at.
+
+//	Zooming in or out makes TimelinePane measure every state and place them all into levels again, even when
+//	the user is just going back to a scale they looked at a moment ago.  LayoutCache keeps a few complete
+//	layouts:  for each state, the nominal positions of its time parameters, and for each level, the states in
+//	it.  Going back to a remembered layout only has to copy those numbers back into the DisplayedStates and
+//	rebuild the level lists, which doesn't need the label font or any searching.
+//
+//	A layout is remembered under everything it depends on that the TimelinePane doesn't tell us about: the
+//	ratio of millis to pixels, whether the view is cyclic, the time at the origin of the pane, the part of a
+//	wide timeline the pane shows, and the placement strategy.
+//	Everything else--document edits and changes to the shown categories--must be reported by calling
+//	clear().  The layouts hold the DisplayedStates themselves, so a display map rebuilt from scratch must
+//	also clear the cache.
+
+import java.util.*;
+
+class LayoutCache extends Object {
+
+	// 	Constants ------------------------------------------------------------------------
+	protected static final int CAPACITY = 4;			//	Layouts remembered
+
+
+	//	Instance variables ----------------------------------------------------------------
+	//	Maps Keys to Layouts, least recently used first.
+	protected LinkedHashMap iLayouts = new LinkedHashMap(2 * CAPACITY, 0.75f, true){
+			protected boolean removeEldestEntry(Map.Entry eldest){
+				return size() > CAPACITY;
+			}
+		};
+
+
+	//	Forget all remembered layouts.  Called whenever anything a layout depends on changes, other than
+	//	the values that make up the key.
+	public void clear(){
+		iLayouts.clear();
+	}
+
+
+	//	Remember the current layout of a pane.  Does nothing if the TPM has no mapping.
+	public void remember(TimePositionMapping tpm, Placer placer){
+		Key key = Key.makeKey(tpm, placer);
+		if (key != null)
+			iLayouts.put(key, new Layout(placer));
+	}
+
+
+	//	If a layout has been remembered for the current TPM and placement strategy, and it has the given
+	//	number of states, put it back into the placer and its DisplayedStates and return true.  The placer's
+	//	current level assignments are forgotten.
+	public boolean restore(TimePositionMapping tpm, Placer placer, int stateCount){
+		Key key = Key.makeKey(tpm, placer);
+		if (key == null)
+			return false;
+		Layout layout = (Layout)iLayouts.get(key);
+		if (layout == null)
+			return false;
+		if (layout.iStateCount != stateCount){
+			iLayouts.remove(key);
+			return false;
+		}
+
+		long startTime = System.currentTimeMillis();
+		layout.restore(placer);
+		if (Debug.DISPLAY_TIMINGS)
+			System.out.println((System.currentTimeMillis() - startTime) + " mS. to restore the layout of " +
+						stateCount + " states");
+		return true;
+	}
+
+
+	//	Identifies the conditions a layout was made under.
+	protected static class Key extends Object {
+		protected long iRatio;
+		protected boolean iCyclic;
+		protected long iOrigin;
+		protected long iViewOriginX;
+		protected int iStrategy;
+
+		//	Return the key for a pane's current conditions, or null if the TPM has no mapping.
+		public static Key makeKey(TimePositionMapping tpm, Placer placer){
+			TimePeriod mappedPeriod = tpm.getMappedPeriod();
+			if (mappedPeriod == null)
+				return null;
+			Key key = new Key();
+			key.iRatio = tpm.getScaledRatio();
+			key.iCyclic = tpm.isCyclicView();
+			key.iOrigin = tpm.getScaledOrigin();
+			key.iViewOriginX = tpm.getViewOriginX();
+			key.iStrategy = placer.getStrategy();
+			return key;
+		}
+
+		//	Return the key for the current conditions of a pane whose contents don't depend on how states are
+		//	placed, like the grid, or null if the TPM has no mapping.
+		public static Key makeKey(TimePositionMapping tpm){
+			TimePeriod mappedPeriod = tpm.getMappedPeriod();
+			if (mappedPeriod == null)
+				return null;
+			Key key = new Key();
+			key.iRatio = tpm.getScaledRatio();
+			key.iCyclic = tpm.isCyclicView();
+			key.iOrigin = tpm.getScaledOrigin();
+			key.iViewOriginX = tpm.getViewOriginX();
+			return key;
+		}
+
+		public boolean equals(Object o){
+			if (!(o instanceof Key))
+				return false;
+			Key other = (Key)o;
+			return iRatio == other.iRatio && iCyclic == other.iCyclic && iOrigin == other.iOrigin &&
+					iViewOriginX == other.iViewOriginX && iStrategy == other.iStrategy;
+		}
+
+		public int hashCode(){
+			return (int)(iOrigin ^ (iOrigin >>> 32) ^ iViewOriginX ^ iRatio) ^ (iCyclic ? 1 : 0) ^ (iStrategy << 4);
+		}
+	}
+
+
+	//	A copy of a pane's layout.  Level n of the pane is in iLevels[n], in the level list's order, and
+	//	iPositions[n] holds the four nominal positions of each of those states, one after the other.
+	protected static class Layout extends Object {
+		protected DisplayedState[][] iLevels;
+		protected int[][] iPositions;
+		protected int iStateCount;
+
+		public Layout(Placer placer){
+			int levelCount = placer.iLevelList.size();
+			iLevels = new DisplayedState[levelCount][];
+			iPositions = new int[levelCount][];
+			for (int levelNumber = 0; levelNumber < levelCount; levelNumber++){
+				List curLevel = (List)placer.iLevelList.get(levelNumber);
+				DisplayedState[] states = (DisplayedState[])curLevel.toArray(new DisplayedState[curLevel.size()]);
+				int[] positions = new int[4 * states.length];
+				for (int i = 0; i < states.length; i++){
+					positions[4 * i] = states[i].iNominalX0;
+					positions[4 * i + 1] = states[i].iNominalX1;
+					positions[4 * i + 2] = states[i].iNominalX2;
+					positions[4 * i + 3] = states[i].iNominalX3;
+				}
+				iLevels[levelNumber] = states;
+				iPositions[levelNumber] = positions;
+				iStateCount += states.length;
+			}
+		}
+
+		public void restore(Placer placer){
+			placer.forgetLevelAssignments();
+			for (int levelNumber = 0; levelNumber < iLevels.length; levelNumber++){
+				DisplayedState[] states = iLevels[levelNumber];
+				int[] positions = iPositions[levelNumber];
+				for (int i = 0; i < states.length; i++)
+					states[i].restoreDimensions(positions[4 * i], positions[4 * i + 1],
+								positions[4 * i + 2], positions[4 * i + 3]);
+				placer.appendLevel(states);
+			}
+		}
+	}
+}
@@ -0,0 +1,121 @@
+//	LayoutService.java - Lay out a timeline pane on a background thread.
+
+//	Measuring and placing every state of a large document takes long enough that doing it on the event
+//	dispatch thread freezes the window.  TimelinePane hands such layouts to us instead.  We take a snapshot
+//	of the states to be shown and of the TimePositionMapping, and lay out private copies of the states'
+//	DisplayedStates on the layout thread, so nothing the window is drawing from is touched.  When we are
+//	done, the finished layout (the copies, arranged into levels) is handed back to the pane on the event
+//	dispatch thread, which adopts it in one step.  Until then, the pane goes on showing its old layout.
+//
+//	Each request replaces any earlier one.  A layout that was requested before the latest request is
+//	thrown away, whether it has started or not, so the pane only ever adopts the layout of the latest
+//	snapshot.  The pane must make a new request (or call cancel()) whenever anything the snapshot was
+//	taken from changes.
+//
+//	All methods must be called on the event dispatch thread.
+
+import java.util.*;
+import java.util.concurrent.*;
+import javax.swing.SwingUtilities;
+
+class LayoutService extends Object {
+
+	//	Class variables ----------------------------------------------------------------
+	//	The thread that all panes' layouts are done on.  The work of each layout is spread over all the
+	//	processors by Placer.assignToLevelInParallel().
+	protected static ExecutorService sLayoutThread = Executors.newSingleThreadExecutor(new ThreadFactory(){
+			public Thread newThread(Runnable r){
+				Thread thread = new Thread(r, "Timeline layout");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+
+
+	//	Instance variables ----------------------------------------------------------------
+	protected TimelinePane iTLPane;				//	Pane we lay out
+	protected volatile int iGeneration;			//	Number of the latest request
+	protected boolean iPending;					//	A layout has been requested but not yet adopted
+
+
+	//	Constructor ---------------------------------------------------------------------
+	public LayoutService(TimelinePane tlPane){
+		iTLPane = tlPane;
+	}
+
+
+	//	Trivial accessors -------------------------------------------------------------
+	public boolean isPending()				{	return iPending;		}
+
+
+	//	Start laying out the given states, using a copy of the given TPM and placement strategy.  When the
+	//	layout is finished, unless another request has been made since, TimelinePane.adoptLayout() is called
+	//	with a List of the levels;  each level is a List of new DisplayedStates, in X order.
+	public void requestLayout(Collection states, TimePositionMapping tpm, int strategy){
+		final int generation = ++iGeneration;
+		final TLState[] stateSnapshot = (TLState[])states.toArray(new TLState[states.size()]);
+		final TimePositionMapping tpmSnapshot = tpm.copyMapping();
+		final int placementStrategy = strategy;
+		iPending = true;
+
+		sLayoutThread.execute(new Runnable(){
+			public void run(){
+				if (generation != iGeneration)
+					return;
+				List levels = null;
+				try {
+					levels = LayoutService.layOut(stateSnapshot, tpmSnapshot, placementStrategy);
+				}
+				catch (Throwable t){
+					Debug.log(Debug.INTERNAL_FAILURES, "Background layout failed because " + t.toString());
+				}
+				finally {
+				
+					//	Whatever happened, hand the result back, so the pane isn't left waiting forever.
+					//	If there is no layout, have the pane lay itself out in the foreground, which will
+					//	report the problem where the user can see it.
+					final List result = levels;
+					SwingUtilities.invokeLater(new Runnable(){
+						public void run(){
+							if (generation != iGeneration)
+								return;
+							iPending = false;
+							if (result != null)
+								iTLPane.adoptLayout(result);
+							else
+								iTLPane.layOutAllInForeground();
+						}
+					});
+				}
+			}
+		});
+	}
+
+
+	//	Forget any layout that has been requested, but not adopted.  Called when the pane has laid itself
+	//	out in some other way.
+	public void cancel(){
+		iGeneration++;
+		iPending = false;
+	}
+
+
+	//	Internal methods ------------------------------------------------------------
+
+	//	Measure and place new DisplayedStates for a set of states.  Runs on the layout thread.
+	protected static List layOut(TLState[] states, TimePositionMapping tpm, int strategy){
+		long startTime = System.currentTimeMillis();
+
+		Set displayList = new HashSet(2 * states.length);
+		for (int i = 0; i < states.length; i++)
+			displayList.add(new DisplayedState(states[i]));
+		Placer placer = new Placer();
+		placer.setStrategy(strategy);
+		placer.assignToLevelInParallel(displayList, tpm);
+
+		if (Debug.DISPLAY_TIMINGS)
+			System.out.println((System.currentTimeMillis() - startTime) + " mS. to lay out " + states.length +
+						" states in the background");
+		return placer.iLevelList;
+	}
+}
@@ -0,0 +1,154 @@
+//	LevelIndexBenchmark.java - Time placing large sets of states with LevelIndex, against the List-based search.
+
+//	Run with "java LevelIndexBenchmark [sizes...]";  the default sizes are 10,000, 100,000 and 1,000,000.
+//	For each size, makes that many random states, measured and ready to place, and places them as
+//	Placer.assignToLevel() does with LONGEST_FIRST:  in order of decreasing duration, each in the first level
+//	it fits into.  They are placed twice:  by Placer itself, which searches LevelIndex's arrays, and by the
+//	search Placer used before LevelIndex, a binary search of each level's List of DisplayedStates.  Reports
+//	the best of ROUNDS times for each, and the number of levels, and exits with status 1 if any state went
+//	to a different level.
+//
+//	The states are made like those of a zoomed-out document:  start positions spread over 20 pixels per
+//	state, durations spread evenly over the logarithms of 1 to MAX_DURATION pixels, and labels 30 to 120
+//	pixels wide.  The Random is seeded, so each run places the same states.
+
+import java.util.*;
+
+class LevelIndexBenchmark extends Object {
+
+	// 	Constants ------------------------------------------------------------------------
+	protected static final int[] DEFAULT_SIZES = { 10000, 100000, 1000000 };
+	protected static final int ROUNDS = 3;					//	Placements timed for each way;  the best is reported
+	protected static final int WARMUP_SIZE = 10000;			//	States placed each way before timing, for the JIT
+	protected static final int PIXELS_PER_OBJECT = 20;
+	protected static final int MAX_DURATION = 20000;			//	Pixels
+	protected static final int MIN_LABEL_WIDTH = 30;
+	protected static final int MAX_LABEL_WIDTH = 120;
+	protected static final long MILLIS_PER_PIXEL = 60 * 1000;
+	protected static final long SEED = 1;
+
+
+	//	Class variables ----------------------------------------------------------------
+	protected static boolean sFailed;
+
+
+	public static void main(String[] args){
+		int[] sizes = DEFAULT_SIZES;
+		if (args.length > 0){
+			sizes = new int[args.length];
+			for (int i = 0; i < args.length; i++)
+				sizes[i] = Integer.parseInt(args[i]);
+		}
+		List warmUp = LevelIndexBenchmark.makeStates(WARMUP_SIZE);
+		for (int round = 0; round < ROUNDS; round++){
+			new Placer().placeInOrder(warmUp);
+			LevelIndexBenchmark.placeInLists(warmUp);
+		}
+		for (int i = 0; i < sizes.length; i++)
+			LevelIndexBenchmark.run(sizes[i]);
+		System.out.println(sFailed ? "FAILED" : "All checks passed");
+		System.exit(sFailed ? 1 : 0);
+	}
+
+
+	protected static void run(int size){
+		List states = LevelIndexBenchmark.makeStates(size);
+
+		//	Place with Placer, which uses LevelIndex.
+		long indexTime = Long.MAX_VALUE;
+		Placer placer = null;
+		for (int round = 0; round < ROUNDS; round++){
+			placer = new Placer();
+			long startTime = System.currentTimeMillis();
+			placer.placeInOrder(states);
+			indexTime = Math.min(indexTime, System.currentTimeMillis() - startTime);
+		}
+		int[] levels = new int[size];
+		for (int i = 0; i < size; i++)
+			levels[i] = ((DisplayedState)states.get(i)).getLevelNumber();
+		System.out.println(size + " states:  " + indexTime + " mS. to place in " + placer.getLevelCount() +
+					" levels with LevelIndex");
+
+		//	Place again, searching Lists.
+		long listTime = Long.MAX_VALUE;
+		int[] listLevels = null;
+		for (int round = 0; round < ROUNDS; round++){
+			long startTime = System.currentTimeMillis();
+			listLevels = LevelIndexBenchmark.placeInLists(states);
+			listTime = Math.min(listTime, System.currentTimeMillis() - startTime);
+		}
+		System.out.println(size + " states:  " + listTime + " mS. to place searching Lists");
+		LevelIndexBenchmark.check(size + " states placed in the same levels", Arrays.equals(levels, listLevels));
+	}
+
+
+	//	Place states, taken in the order given, the way Placer did before LevelIndex:  binary search each
+	//	level's List of DisplayedStates, sorted by X position, until one has room.  Returns the level of
+	//	each state.
+	protected static int[] placeInLists(List states){
+		List levelList = new ArrayList();
+		int[] levels = new int[states.size()];
+		for (int s = 0; s < states.size(); s++){
+			DisplayedState dObj = (DisplayedState)states.get(s);
+			int levelNumber = 0;
+			for (; levelNumber < levelList.size(); levelNumber++){
+				List curLevel = (List)levelList.get(levelNumber);
+				int searchResult = Collections.binarySearch(curLevel, dObj, TLUtilities.SORT_UP_BY_X_POSITION);
+				if (searchResult >= 0)
+					continue;
+				int insertionPoint = -(searchResult + 1);
+				if (insertionPoint > 0){
+					DisplayedState objectBefore = (DisplayedState)curLevel.get(insertionPoint - 1);
+					if (objectBefore.getXLocation() + objectBefore.getWidth() >= dObj.getXLocation())
+						continue;
+				}
+				if (curLevel.size() > insertionPoint){
+					DisplayedState objectAfter = (DisplayedState)curLevel.get(insertionPoint);
+					if (objectAfter.getXLocation() <= dObj.getXLocation() + dObj.getWidth())
+						continue;
+				}
+				curLevel.add(insertionPoint, dObj);
+				break;
+			}
+			if (levelNumber == levelList.size()){
+				List newLevel = new ArrayList();
+				newLevel.add(dObj);
+				levelList.add(newLevel);
+			}
+			levels[s] = levelNumber;
+		}
+		return levels;
+	}
+
+
+	//	Return size measured states, sorted by decreasing duration as assignToLevel() sorts them.
+	protected static List makeStates(int size){
+		Random random = new Random(SEED);
+		LabelInfo labelInfo = new LabelInfo("State", "", false);
+		DisplayedState[] states = new DisplayedState[size];
+		for (int i = 0; i < size; i++){
+			int left = random.nextInt(size * PIXELS_PER_OBJECT);
+			int duration = (int)Math.exp(random.nextDouble() * Math.log(MAX_DURATION));
+			int labelWidth = MIN_LABEL_WIDTH + random.nextInt(MAX_LABEL_WIDTH - MIN_LABEL_WIDTH + 1);
+			long start = left * MILLIS_PER_PIXEL;
+			long end = start + duration * MILLIS_PER_PIXEL;
+			DisplayedState dObj = new DisplayedState(new TLState(labelInfo, new TLEvent(start, start),
+						new TLEvent(end, end), null));
+
+			//	Without a window there is no TimePositionMapping, so do what calculateDimensions() does.
+			dObj.iLabelWidth = labelWidth;
+			dObj.iMeasuredLabel = labelInfo.getLabel();
+			dObj.restoreDimensions(left, left, left + duration, left + duration);
+			states[i] = dObj;
+		}
+		Arrays.sort(states, TLUtilities.SORT_DOWN_BY_DURATION_COMPARATOR);
+		return Arrays.asList(states);
+	}
+
+
+	protected static void check(String what, boolean passed){
+		System.out.println((passed ? "ok      " : "FAILED  ") + what);
+		if (!passed)
+			sFailed = true;
+	}
+}
@@ -0,0 +1,260 @@
+//	OverviewPane.java - Show where the states of a whole document are, and move the timeline there.
+
+//	OverviewPane is a short strip along the bottom of a TLWindow, spanning the document's whole time range.
+//	Each pixel column is shaded by how many states start in it, and the part of the timeline showing in the
+//	window is outlined.  Clicking or dragging in the strip centers the timeline on the time clicked.
+//
+//	The counts come from a DensityHistogram, which we bring up to date as the document changes, so painting
+//	takes time in proportion to the width of the strip, however many states there are.  The histogram
+//	doesn't remember which states it counted where, so we keep the start time each state was counted at,
+//	for when it is modified or removed.  Unlike the timeline, the overview counts every state in the
+//	document, whether or not its categories are shown.
+
+import java.awt.*;
+import java.awt.event.*;
+import java.util.*;
+import java.util.List;
+import javax.swing.JComponent;
+import javax.swing.event.*;
+
+class OverviewPane extends JComponent implements ChangeListener {
+
+	// 	Constants ------------------------------------------------------------------------
+	static final protected int PANE_HEIGHT = 24;
+	static final protected int DENSITY_SHADES = 8;			//	Shades of the bars, for 1, 2-3, 4-7... states
+	static final protected Color BACKGROUND_COLOR = GridPane.BACKGROUND_COLOR;
+	static final protected Color DENSITY_COLOR = Color.darkGray;
+	static final protected Color VISIBLE_PERIOD_COLOR = Color.blue;
+
+
+	//	Instance variables ----------------------------------------------------------------
+	protected TLDocument iDoc;					//	Document whose states we show
+	protected TLWindow iWindow;					//	The window whose timeline we move
+	protected TimePositionMapping iTPM;			//	Maps time to space in the window's timeline
+
+	protected DensityHistogram iHistogram;		//	Counts of the states' start times
+	protected Map iCountedStarts = new HashMap();	//	Start time each state was counted at, as a Long
+	protected Color[] iShades;					//	Colors for each number of states in a column
+	protected int[] iColumnCounts = new int[0];	//	Scratch space for painting
+
+
+	//	Constructor ---------------------------------------------------------------------
+	public OverviewPane(TLDocument itsDoc, TLWindow window, TimePositionMapping tpm){
+		iDoc = itsDoc;
+		iWindow = window;
+		iTPM = tpm;
+
+		//	Set up our relationships with other objects.  The scroll bar tells us when the visible part of
+		//	the timeline moves;  the TPM tells us when it changes size.
+		iDoc.addChangeListener(this);
+		iTPM.addChangeListener(this);
+		iWindow.getHScrollbar().getModel().addChangeListener(this);
+		MouseInputAdapter mouseListener = new MouseInputAdapter(){
+			public void mousePressed(MouseEvent e){
+				OverviewPane.this.centerTimelineAt(e.getX());
+			}
+
+			public void mouseDragged(MouseEvent e){
+				OverviewPane.this.centerTimelineAt(e.getX());
+			}
+		};
+		this.addMouseListener(mouseListener);
+		this.addMouseMotionListener(mouseListener);
+
+		iShades = new Color[DENSITY_SHADES];
+		for (int i = 0; i < DENSITY_SHADES; i++)
+			iShades[i] = new Color(DENSITY_COLOR.getRed(), DENSITY_COLOR.getGreen(), DENSITY_COLOR.getBlue(),
+						255 * (i + 1) / DENSITY_SHADES);
+
+		//	Initialize our properties as a Swing component.
+		this.setOpaque(true);
+		this.setBackground(BACKGROUND_COLOR);
+		this.setPreferredSize(new Dimension(0, PANE_HEIGHT));
+		this.setToolTipText("Click or drag to move the timeline");
+
+		this.rebuildHistogram();
+	}
+
+
+	//	Draw this component.
+	protected void paintComponent(Graphics g){
+		super.paintComponent(g);
+		Dimension size = this.getSize();
+		TimePeriod docPeriod = iDoc.getDocTimePeriod();
+		if (docPeriod == null || size.width <= 0)
+			return;
+
+		//	Count the states starting in each column.
+		if (iColumnCounts.length < size.width)
+			iColumnCounts = new int[size.width];
+		int before = iHistogram.countBefore(this.xToTime(0, size.width, docPeriod));
+		for (int x = 0; x < size.width; x++){
+			int upTo = iHistogram.countBefore(this.xToTime(x + 1, size.width, docPeriod));
+			iColumnCounts[x] = upTo - before;
+			before = upTo;
+		}
+
+		//	Draw each run of columns with the same shade as one rectangle.
+		int runStart = 0;
+		int runShade = -1;
+		for (int x = 0; x <= size.width; x++){
+			int shade = -1;
+			if (x < size.width && iColumnCounts[x] > 0)
+				shade = Math.min(DENSITY_SHADES - 1, 31 - Integer.numberOfLeadingZeros(iColumnCounts[x]));
+			if (shade != runShade || x == size.width){
+				if (runShade >= 0){
+					g.setColor(iShades[runShade]);
+					g.fillRect(runStart, 0, x - runStart, size.height);
+				}
+				runStart = x;
+				runShade = shade;
+			}
+		}
+
+		//	Outline the part of the timeline showing in the window.  In a cyclic view, that isn't a single
+		//	part of the document's range.
+		if (!iTPM.isCyclicView()){
+			TimePeriod visible = iWindow.getVisiblePeriod();
+			int left = this.timeToX(visible.getPeriodStart(), size.width, docPeriod);
+			int right = this.timeToX(visible.getPeriodEnd(), size.width, docPeriod);
+			g.setColor(VISIBLE_PERIOD_COLOR);
+			g.drawRect(left, 0, Math.max(1, right - left - 1), size.height - 1);
+		}
+	}
+
+
+	//	Change handling -------------------------------------------------------------------------------------------
+	//	Implement the stateChanged() method of the ChangeListener interface.
+	//	This is called when the document, the TPM or the scroll bar changes.
+	public void stateChanged(ChangeEvent e){
+		Object source = e.getSource();
+		if (source == iDoc)
+			this.docStateChanged(e);
+		else if (source == iTPM || source == iWindow.getHScrollbar().getModel())
+			this.repaint();
+		else
+			throw new ImplementationException("Received stateChanged event from unexpected source - " +
+					source.toString());
+	}
+
+
+	//	Handle ChangeEvent's from the document, by counting the states it touched out of the histogram
+	//	and back in again.
+	protected void docStateChanged(ChangeEvent ev){
+		Set addedStates = Collections.EMPTY_SET;
+		Set removedStates = Collections.EMPTY_SET;
+		Set modifiedStates = Collections.EMPTY_SET;
+		if (ev instanceof StateAddDeleteChange){
+			StateAddDeleteChange event = (StateAddDeleteChange)ev;
+			if (event.isDeleting())
+				removedStates = event.getAffectedStates();
+			else
+				addedStates = event.getAffectedStates();
+		}
+		else if (ev instanceof StateModifyChange){
+			modifiedStates = ((StateModifyChange)ev).getAffectedStates();
+		}
+		else if (ev instanceof CompoundChange){
+			CompoundChange change = (CompoundChange)ev;
+			addedStates = change.getAddedStates();
+			removedStates = change.getRemovedStates();
+			modifiedStates = change.getModifiedStates();
+		}
+		else if (ev instanceof CategoryChange || ev instanceof DocumentNameChange){
+			return;
+		}
+		else {
+			this.rebuildHistogram();
+			this.repaint();
+			return;
+		}
+
+		this.uncountStates(removedStates);
+		this.uncountStates(modifiedStates);
+		if (!this.countStates(modifiedStates) || !this.countStates(addedStates))
+			this.rebuildHistogram();
+		this.repaint();
+	}
+
+
+	//	Internal methods ------------------------------------------------------------
+
+	//	Count all of the document's states into a new histogram, with room around them for the document
+	//	to grow.
+	protected void rebuildHistogram(){
+		long startTime = System.currentTimeMillis();
+
+		//	Find the span of start times.  The document's time range isn't necessarily up to date yet.
+		List states = iDoc.getStatesByStartList();
+		long earliest = System.currentTimeMillis();
+		long latest = earliest;
+		Iterator iter = states.iterator();
+		if (iter.hasNext())
+			earliest = latest = ((TLState)iter.next()).getPeriodStart();
+		while (iter.hasNext()){
+			long start = ((TLState)iter.next()).getPeriodStart();
+			earliest = Math.min(earliest, start);
+			latest = Math.max(latest, start);
+		}
+		long margin = (latest - earliest) / 2 + 1;
+		iHistogram = new DensityHistogram(earliest - margin, latest + margin);
+
+		iCountedStarts.clear();
+		this.countStates(states);
+
+		if (Debug.DISPLAY_TIMINGS)
+			System.out.println((System.currentTimeMillis() - startTime) + " mS. to count " +
+						iHistogram.getStateCount() + " states for the overview");
+	}
+
+
+	//	Count a Collection of states into the histogram.  Stops, returning false, if a state starts where
+	//	the histogram can't count it.
+	protected boolean countStates(Collection states){
+		Iterator iter = states.iterator();
+		while (iter.hasNext()){
+			TLState state = (TLState)iter.next();
+			long start = state.getPeriodStart();
+			if (!iHistogram.covers(start))
+				return false;
+			iHistogram.add(start, 1);
+			iCountedStarts.put(state, Long.valueOf(start));
+		}
+		return true;
+	}
+
+
+	//	Count a Collection of states out of the histogram, at the times they were counted in.
+	protected void uncountStates(Collection states){
+		Iterator iter = states.iterator();
+		while (iter.hasNext()){
+			Long start = (Long)iCountedStarts.remove(iter.next());
+			if (start != null)
+				iHistogram.add(start.longValue(), -1);
+		}
+	}
+
+
+	//	Center the window's timeline on the time at an X position in this pane.
+	protected void centerTimelineAt(int x){
+		TimePeriod docPeriod = iDoc.getDocTimePeriod();
+		int width = this.getWidth();
+		if (docPeriod == null || width <= 0)
+			return;
+		x = Math.max(0, Math.min(width - 1, x));
+		long t = (this.xToTime(x, width, docPeriod) + this.xToTime(x + 1, width, docPeriod)) / 2;
+		iWindow.setVisiblePeriod(new ConcreteTimePeriod(t, t));
+	}
+
+
+	//	Convert between X positions in this pane and times, with the document's time range spanning the
+	//	pane's width.
+	protected long xToTime(int x, int width, TimePeriod docPeriod){
+		return docPeriod.getPeriodStart() + (long)((double)(docPeriod.getDuration() + 1) * x / width);
+	}
+
+	protected int timeToX(long t, int width, TimePeriod docPeriod){
+		double x = (double)(t - docPeriod.getPeriodStart()) * width / (docPeriod.getDuration() + 1);
+		return (int)Math.max(-1, Math.min(width + 1, x));
+	}
+}
@@ -0,0 +1,115 @@
+//	PaintAllocationCheck.java - Check that drawing states doesn't allocate memory.
+
+//	Run with "java PaintAllocationCheck".  Makes STATE_COUNT states, in CATEGORY_COUNT categories with
+//	LABEL_COUNT different labels, and draws them all into an offscreen image over and over, as a repaint
+//	of a crowded pane would.  Once the JIT has settled down, measures the bytes allocated by this thread
+//	while drawing, and exits with status 1 if drawing a state allocates anything.  Prints the bytes per
+//	state and the time per paint.
+//
+//	Needs a JVM that can report the bytes allocated by a thread, as HotSpot's ThreadMXBean can.
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+
+class PaintAllocationCheck extends Object {
+
+	// 	Constants ------------------------------------------------------------------------
+	protected static final int STATE_COUNT = 50000;
+	protected static final int CATEGORY_COUNT = 8;
+	protected static final int LABEL_COUNT = 500;
+	protected static final int LEVEL_COUNT = 40;
+	protected static final int IMAGE_WIDTH = 2048;
+	protected static final int IMAGE_HEIGHT = Placer.TOP_MARGIN + LEVEL_COUNT * Placer.LEVEL_SPACING;
+	protected static final int WARMUP_PAINTS = 50;
+	protected static final int MEASURED_PAINTS = 20;
+	protected static final long SEED = 1;
+
+	//	Bytes per state allowed, for the odd allocation that isn't the drawing's--by the JIT, for example.
+	protected static final double ALLOWED_BYTES_PER_STATE = 0.1;
+
+
+	public static void main(String[] args){
+		java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		if (!(threads instanceof com.sun.management.ThreadMXBean)){
+			System.out.println("This JVM can't report the bytes allocated by a thread");
+			System.exit(2);
+		}
+		com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean)threads;
+		long threadId = Thread.currentThread().getId();
+
+		DisplayedState[] states = PaintAllocationCheck.makeStates();
+		BufferedImage image = new BufferedImage(IMAGE_WIDTH, IMAGE_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = image.createGraphics();
+		Rectangle clipRect = new Rectangle(0, 0, IMAGE_WIDTH, IMAGE_HEIGHT);
+		g.setClip(clipRect);
+		g.setFont(DisplayedState.LABEL_FONT);
+
+		for (int i = 0; i < WARMUP_PAINTS; i++)
+			PaintAllocationCheck.paint(g, clipRect, states);
+
+		long startBytes = allocations.getThreadAllocatedBytes(threadId);
+		long startTime = System.currentTimeMillis();
+		for (int i = 0; i < MEASURED_PAINTS; i++)
+			PaintAllocationCheck.paint(g, clipRect, states);
+		long elapsed = System.currentTimeMillis() - startTime;
+		long bytes = allocations.getThreadAllocatedBytes(threadId) - startBytes;
+		g.dispose();
+
+		double bytesPerState = (double)bytes / ((long)MEASURED_PAINTS * STATE_COUNT);
+		System.out.println(STATE_COUNT + " states:  " + bytes / MEASURED_PAINTS + " bytes allocated per paint, " +
+					bytesPerState + " per state, " + elapsed / MEASURED_PAINTS + " mS. per paint");
+		boolean passed = bytesPerState <= ALLOWED_BYTES_PER_STATE;
+		System.out.println((passed ? "ok      " : "FAILED  ") + "drawing states doesn't allocate");
+		System.exit(passed ? 0 : 1);
+	}
+
+
+	//	Draw all the states, as TimelinePane.drawDataObjects() does.
+	protected static void paint(Graphics g, Rectangle clipRect, DisplayedState[] states){
+		for (int i = 0; i < states.length; i++)
+			states[i].draw(g, clipRect);
+	}
+
+
+	//	Make the states, measured and placed across the image.  Their labels and category memberships are
+	//	shared, as they are in a document.
+	protected static DisplayedState[] makeStates(){
+		Random random = new Random(SEED);
+		DefinedCategorySet definedCategories = new DefinedCategorySet();
+		DefinedCategorySet.MemberSet[] memberSets = new DefinedCategorySet.MemberSet[CATEGORY_COUNT];
+		for (int i = 0; i < CATEGORY_COUNT; i++){
+			Category cat = new Category("Category " + i, "", false,
+						Color.getHSBColor((float)i / CATEGORY_COUNT, 0.8f, 0.8f));
+			definedCategories.add(cat);
+			memberSets[i] = definedCategories.getSharedMemberSet(Collections.singleton(cat));
+		}
+		String[] labels = new String[LABEL_COUNT];
+		for (int i = 0; i < LABEL_COUNT; i++)
+			labels[i] = "State label " + i;
+
+		DisplayedState[] states = new DisplayedState[STATE_COUNT];
+		for (int i = 0; i < STATE_COUNT; i++){
+			String label = labels[random.nextInt(LABEL_COUNT)];
+			TLState state = new TLState(new LabelInfo(label, "", false), new TLEvent(0, 0), new TLEvent(0, 0),
+						memberSets[random.nextInt(CATEGORY_COUNT)]);
+			DisplayedState dObj = new DisplayedState(state);
+
+			//	Without a window there is no TimePositionMapping, so do what calculateDimensions() does
+			//	with made-up positions:  some states with an indefinite start and end, some long enough
+			//	to embed (and repeat) their labels.
+			int x0 = random.nextInt(IMAGE_WIDTH);
+			int x1 = x0 + random.nextInt(10);
+			int x2 = x1 + random.nextInt(400);
+			int x3 = x2 + random.nextInt(10);
+			dObj.iLabelWidth = LabelCache.getSharedCache().getWidth(DisplayedState.LABEL_METRICS, label);
+			dObj.iMeasuredLabel = label;
+			dObj.restoreDimensions(x0, x1, x2, Math.max(x3, x0 + DisplayedState.MINIMUM_BODY_WIDTH));
+			dObj.setLevelNumber(i % LEVEL_COUNT);
+			dObj.setYLocation(Placer.TOP_MARGIN + (i % LEVEL_COUNT) * Placer.LEVEL_SPACING);
+			states[i] = dObj;
+		}
+		return states;
+	}
+}
@@ -1,227 +1,597 @@
-//	Placer.java - Arrange the contents of the timeline pane.
-
-//	Placement only affects the vertical position of states.  Each DisplayedState computes its X location itself.  
-
-import java.awt.Point;
-import java.util.*;
-
-public class Placer extends Object {
-
-	// 	Constants------------------------------------------------------------------------
-	//	Constants determining pane layout.
-	static final public int LEVEL_SPACING = 25;	//	Distance between each level
-	static final protected int TOP_MARGIN = 10;		//	Distrance from top of pane to first level
-
-
-	//	Instance variables----------------------------------------------------------------
-	//	These variables describe the extent and contents of the level lists.
-	//	Each level list is sorted by the starting time of the data item.
-	//	The level lists are sorted in iLevelList from top to bottom of the pane.  Since we don't put
-	//	overlapping data objects in a given level, it is also true that element n ends before
-	//	element n+1 begins.
-	protected List iLevelList;					//	List of the levels;  each is also a List
-
-
-	//	Constructor---------------------------------------------------------------------
-	public Placer(){
-		iLevelList = new ArrayList();
-	}
-	 
-	 
-	//	Assign all elements of the provided display list to a level, building the level lists as we go.
-	public void assignToLevel(Set displayList){
-	
-	        long startTime = System.currentTimeMillis();
-		
-		//	To improve usability of the output display, try to place longer objects toward the top of the display.
-		//	Do this by pre-sorting the display objects by width.
-		List sortedDisplayList = new ArrayList(displayList);
-		Collections.sort(sortedDisplayList, TLUtilities.SORT_DOWN_BY_DURATION_COMPARATOR);
-
-		//	Once around for each element in the display list.
-		Iterator sortedDisplayListIter = sortedDisplayList.iterator();
-		while (sortedDisplayListIter.hasNext()){
-			
-			//	Get the next DisplayedObject.
-			DisplayedState dObj = (DisplayedState) sortedDisplayListIter.next();
-			
-			//	Look through existing level lists for one that this will fit in.
-			//	Once around for each existing level.
-			boolean insertedIntoLevel = false;
-			Iterator levelIter = iLevelList.iterator();
-			int levelNumber = -1;
-			while (!insertedIntoLevel && levelIter.hasNext()){
-			
-				//	Increment the level number first, so that we can use continue statement.
-				levelNumber++;
-			
-				//	See if the current display object fits in this level.
-				List curLevel = (List)levelIter.next();
-				int searchResult = Collections.binarySearch(curLevel, dObj, TLUtilities.SORT_UP_BY_X_POSITION);
-				
-				//	If searchResult is positive, there was an exact match.  This is obviously a
-				//	collision, so go on to the next level.
-				if (searchResult >= 0)
-					continue;
-				
-				//	Variable insertionPoint is where the data object would appear in this level list if
-				//	it was inserted.  This calculation of insertionPoint undoes the "mangling" that 
-				//	Collections.binarySearch() does to its result if it doesn't find a match.
-				int insertionPoint = -(searchResult + 1);
-				
-				//	If insertionPoint is greater than zero, there is something in the level that starts before
-				//	the current data object.  If it overlaps the new object, loop to check the next level.
-				if (insertionPoint > 0){
-					DisplayedState objectBefore = (DisplayedState) curLevel.get(insertionPoint - 1);
-					if (objectBefore.getXLocation() + objectBefore.getWidth() >= dObj.getXLocation()){
-						continue;
-					}
-				}
-				
-				//	If the size of the list is greater than insertionPoint, there is something in the
-				//	level that starts after the current object.  If it overlaps the new object,
-				//	loop to check the next level.
-				if (curLevel.size() > insertionPoint){
-					DisplayedState objectAfter = (DisplayedState) curLevel.get(insertionPoint);
-					if (objectAfter.getXLocation() <= dObj.getXLocation() + dObj.getWidth()){
-						continue;
-					}
-				}
-				
-				//	The current data object fits in this level, so put it in.  Since we use the
-				//	insertion point that Collections.binarySearch() computed for us, the level list
-				//	remains sorted.
-				if (insertionPoint < curLevel.size()){
-		 			curLevel.add(insertionPoint, dObj);
-		 		}
-		 		else {
-		 			curLevel.add(dObj);
-		 		}
-
-				insertedIntoLevel = true;
-			}
-			
-			//	If insertedIntoLevel is false, we didn't find an existing level that this data object would
-			//	fit into.  Create a new one, and add the data object to it.
-			//	??	Would it improve performance to specify an initialSize for the new level?
-			if (!insertedIntoLevel){
-				levelNumber++;
-				List newLevel = new ArrayList();
-				iLevelList.add(newLevel);
-				newLevel.add(dObj);
-			}
-			
-			//	Update the DisplayedObject with its y location.
-			dObj.setYLocation(this.levelToYPosition(levelNumber));
-		}
-		if (Debug.DISPLAY_TIMINGS)
-			System.out.println((System.currentTimeMillis() - startTime) + " mS. to place states");
-	}
-
-
-	//	Forget all assignments of objects to levels.
-	public void forgetLevelAssignments(){
-		Iterator levelIter = iLevelList.iterator();
-		while (levelIter.hasNext()){
-			List curLevel = (List)levelIter.next();
-			curLevel.clear();
-		}
-	}
-	
-	
-	 //	Return the level containing the provided DataObj.  Throws ImplementationException if DataObj not found.
-	public int getLevel(DataObj o){
-		
-		//	Once around for each level in existence.
-		Iterator iter = iLevelList.iterator();
-		int levelNumber = 0;
-		while (iter.hasNext()){
-			List level = (List)iter.next();
-			int searchResult = Collections.binarySearch(level, o, TLUtilities.SORT_UP_BY_START_COMPARATOR);
-			if (searchResult >= 0)
-				return levelNumber;
-			levelNumber ++;	
-		}
-	 	
-	 	throw new ImplementationException("Couldn't find DataObj");
-	}
-	 
-	 
-	 //	Translate a level index (zero-based) to a vertical location in the pane (expressed in
-	 //	drawing coordinates).
-	 protected int levelToYPosition(int level){
-	 	return TOP_MARGIN + level * LEVEL_SPACING;
-	 }
-	 
-	 
-	 //	Translate a y position to a level index.  Returns -1 if the y position is between levels
-	 //	or beyond the last occupied level.
-	 protected int yPositionToLevelNum(int y){
-	 	
-	 	//	If we're above the first level of state (in the top margin), report no hit.
-	 	int normalizedY = y - TOP_MARGIN;
-	 	if (normalizedY < 0)
-	 		return -1;
-	 	
-	 	int level = normalizedY / LEVEL_SPACING;
-	 	
-	 	//	If we're beyond the lowest occupied level, report no hit.
-	 	if (level >= iLevelList.size())
-	 		return -1;
-	 	
-	 	//	If we're between state bodies, report no hit.
-	 	if (normalizedY - level * LEVEL_SPACING > DisplayedState.BODY_HEIGHT)
-	 		return -1;
-	 			 	
-	 	return level;
-	 }
-	 
-	 
-	 //	Return the height  of the pane used by the current placements.
-	 public int getMaximumYUsed(){
-		return levelToYPosition(iLevelList.size());
-	 }
-
-
-	 //	Identify which DisplayedState contains the given point.  Return null if no object at that point.
-	 public DisplayedState pointToDisplayedObject(Point p){
-	 
-		//	Determine which level the mouse-down is in.  
-		//	If beyond all existing levels, return null.
-		int levelNum = yPositionToLevelNum(p.y);
-		if (levelNum < 0)
-			return null;
-		List level = (List)iLevelList.get(levelNum);
-			
-		//	Create a dummy "probe" DisplayedState corresponding to the x position of the mouse-down.
-		//	??	This is a bit inelegant.  Among other warts, this is the only place DummyDisplayedObject
-		//	??	is used.
-		DisplayedObject probe = new DummyDisplayedObject(p.x);
-		
-		//	Do a binary search to determine where our probe would appear in the level list.
-		int searchResult = Collections.binarySearch(level, probe, TLUtilities.SORT_UP_BY_X_POSITION);
-		
-		//	If we got a match from the binary search, which means our probe hit the very beginning of an object,
-		//	return that object.
-		if (searchResult >= 0)
-			return (DisplayedState)level.get(searchResult);
-		
-		//	Variable insertionPoint is where the data object would appear in this level list if
-		//	it was inserted.  This calculation of insertionPoint undoes the "mangling" that 
-		//	Collections.binarySearch() does to its result if it doesn't find a match.
-		int insertionPoint = -(searchResult + 1);
-		
-		//	If the probe is before the first object in the list, return null.
-		if (insertionPoint == 0)
-			return null;
-		
-		//	See whether the data object that starts before the probe point is large enough to contain it.  
-		//	If so, we've got a hit.
-		DisplayedState o = (DisplayedState)level.get(insertionPoint - 1);
-		if (o.getXLocation() <= p.x && p.x <= o.getXLocation() + o.getWidth())
-			return o;
-		
-		return null;
-	 }
-}	 
-	 
+//	Placer.java - Arrange the contents of the timeline pane.
+
+//	Placement only affects the vertical position of states.  Each DisplayedState computes its X location itself.  
+//
+//	There are two placement strategies.  LONGEST_FIRST places states in order of decreasing duration, each in
+//	the first level it fits in, so that longer states tend to be near the top of the pane.  FEWEST_LEVELS sweeps
+//	across the pane from left to right, putting each state into the level that came free the longest time
+//	ago.  This uses the fewest levels possible, which keeps the pane short for dense documents.
+
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.util.*;
+import java.util.concurrent.*;
+
+public class Placer extends Object {
+
+	// 	Constants------------------------------------------------------------------------
+	//	Constants determining pane layout.
+	static final public int LEVEL_SPACING = 25;	//	Distance between each level
+	static final protected int TOP_MARGIN = 10;		//	Distrance from top of pane to first level
+	
+	//	Placement strategies.
+	static final public int LONGEST_FIRST = 0;
+	static final public int FEWEST_LEVELS = 1;
+	
+	//	Constants for assignToLevelInParallel().  Work is split into pieces of about this many states, which
+	//	is enough to make the cost of handing a piece to another thread insignificant.
+	static final protected int PARALLEL_BATCH_SIZE = 1000;
+	
+	//	Orders the int[] { end, level } entries of the sweep used by FEWEST_LEVELS by end position.
+	static final protected Comparator LEVEL_END_COMPARATOR = new Comparator(){
+			public int compare(Object o1, Object o2){
+				int end1 = ((int[])o1)[0];
+				int end2 = ((int[])o2)[0];
+				return (end1 < end2) ? -1 : ((end1 == end2) ? 0 : 1);
+			}
+		};
+
+
+	//	Instance variables----------------------------------------------------------------
+	//	These variables describe the extent and contents of the level lists.
+	//	Each level list is sorted by the starting time of the data item.
+	//	The level lists are sorted in iLevelList from top to bottom of the pane.  Since we don't put
+	//	overlapping data objects in a given level, it is also true that element n ends before
+	//	element n+1 begins.
+	protected List iLevelList;					//	List of the levels;  each is also a List
+	protected LevelIndex iLevelIndex;				//	Extents of the objects in iLevelList, for fast searching
+	protected int iStrategy = LONGEST_FIRST;			//	Placement strategy used by assignToLevel()
+
+
+	//	Constructor---------------------------------------------------------------------
+	public Placer(){
+		iLevelList = new ArrayList();
+		iLevelIndex = new LevelIndex();
+	}
+	
+	
+	//	Trivial accessors -------------------------------------------------------------
+	public int getStrategy()				{	return iStrategy;	}
+	public void setStrategy(int strategy)		{	iStrategy = strategy;	}
+	public int getLevelCount()				{	return iLevelList.size();		}
+	public List getLevelContents(int levelNumber)	{	return (List)iLevelList.get(levelNumber);	}	//	Not to be changed
+	 
+	 
+	//	Assign all elements of the provided display list to a level, building the level lists as we go.
+	public void assignToLevel(Set displayList){
+	
+	        long startTime = System.currentTimeMillis();
+		
+		if (iStrategy == FEWEST_LEVELS){
+			this.assignToFewestLevels(displayList);
+			if (Debug.DISPLAY_TIMINGS)
+				System.out.println((System.currentTimeMillis() - startTime) + " mS. to place states in fewest levels");
+			return;
+		}
+		
+		//	To improve usability of the output display, try to place longer objects toward the top of the display.
+		//	Do this by pre-sorting the display objects by width.
+		List sortedDisplayList = new ArrayList(displayList);
+		Collections.sort(sortedDisplayList, TLUtilities.SORT_DOWN_BY_DURATION_COMPARATOR);
+		this.placeInOrder(sortedDisplayList);
+		
+		if (Debug.DISPLAY_TIMINGS)
+			System.out.println((System.currentTimeMillis() - startTime) + " mS. to place states");
+	}
+	
+	
+	//	Put each object of a list into the first level it fits in, taking them in the order given.
+	protected void placeInOrder(List displayList){
+	
+		//	Once around for each element in the display list.
+		Iterator displayListIter = displayList.iterator();
+		while (displayListIter.hasNext()){
+			DisplayedState dObj = (DisplayedState) displayListIter.next();
+			this.placeInFirstFreeLevel(dObj);
+		}
+	}
+	
+	
+	//	Measure all elements of the provided display list and assign them to levels, as assignToLevel() does,
+	//	but using every processor.  The level lists must be empty.
+	//	Objects that don't overlap can't affect each other's placement, so the display list breaks up into
+	//	clusters:  runs of objects, in X order, in which each object overlaps something earlier in the run.
+	//	Wherever the document has a gap, a new cluster starts.  Each cluster is placed into levels of its own,
+	//	and then level n of the pane is made up of level n of each cluster, from left to right.  With 
+	//	LONGEST_FIRST, the objects of each cluster are taken in the same order that assignToLevel() would take
+	//	them, so the result is exactly the same.  With FEWEST_LEVELS, the pane has the same number of levels,
+	//	but states may be on different levels than assignToLevel() would have put them.
+	//	??	A document with no gaps is a single cluster, and only the measuring is done in parallel.
+	public void assignToLevelInParallel(Set displayList, TimePositionMapping tpm){
+		Debug.assertOnError(iLevelList.isEmpty());
+		
+	        long startTime = System.currentTimeMillis();
+		ForkJoinPool pool = ForkJoinPool.commonPool();
+		DisplayedState[] objects = (DisplayedState[])displayList.toArray(new DisplayedState[displayList.size()]);
+		
+		//	Measure the objects.  This also sets their X positions, which the rest depends on.
+		pool.invoke(new MeasureTask(objects, 0, objects.length, tpm));
+		
+		//	Find the clusters.  An object belongs to the current cluster unless it starts after everything in
+		//	the cluster has ended.  Objects that just touch must be in different levels, so they are in the
+		//	same cluster.
+		DisplayedState[] byPosition = objects.clone();
+		Arrays.parallelSort(byPosition, TLUtilities.SORT_UP_BY_X_POSITION);
+		List clusters = new ArrayList();
+		List cluster = null;
+		int clusterEnd = 0;
+		for (int i = 0; i < byPosition.length; i++){
+			DisplayedState dObj = byPosition[i];
+			int left = dObj.getXLocation();
+			if (cluster == null || left > clusterEnd){
+				cluster = new ArrayList();
+				clusters.add(cluster);
+				clusterEnd = left;
+			}
+			cluster.add(dObj);
+			clusterEnd = Math.max(clusterEnd, left + dObj.getWidth());
+		}
+		
+		//	For LONGEST_FIRST, put each cluster's objects into the order that assignToLevel() would place them in.
+		//	The sort is stable, and the objects array is in the display list's order, just like the list
+		//	that assignToLevel() sorts.
+		if (iStrategy == LONGEST_FIRST){
+			Map clusterOf = new IdentityHashMap(objects.length);
+			for (int c = 0; c < clusters.size(); c++){
+				cluster = (List)clusters.get(c);
+				Integer clusterNumber = Integer.valueOf(c);
+				for (int i = 0; i < cluster.size(); i++)
+					clusterOf.put(cluster.get(i), clusterNumber);
+				cluster.clear();
+			}
+			Arrays.parallelSort(objects, TLUtilities.SORT_DOWN_BY_DURATION_COMPARATOR);
+			for (int i = 0; i < objects.length; i++)
+				((List)clusters.get(((Integer)clusterOf.get(objects[i])).intValue())).add(objects[i]);
+		}
+		
+		//	Place the clusters.
+		List[] clusterLevels = new List[clusters.size()];
+		pool.invoke(new PlaceTask(clusters, 0, clusters.size(), clusterLevels, iStrategy));
+		
+		//	Merge the clusters' levels.  The clusters are in X order and don't overlap, so appending each
+		//	cluster's level n to the pane's level n keeps it sorted.
+		for (int c = 0; c < clusterLevels.length; c++){
+			for (int levelNumber = 0; levelNumber < clusterLevels[c].size(); levelNumber++){
+				if (levelNumber == iLevelList.size()){
+					iLevelList.add(new ArrayList());
+					iLevelIndex.addLevel();
+				}
+				List curLevel = (List)iLevelList.get(levelNumber);
+				List clusterLevel = (List)clusterLevels[c].get(levelNumber);
+				for (int i = 0; i < clusterLevel.size(); i++){
+					DisplayedState dObj = (DisplayedState)clusterLevel.get(i);
+					iLevelIndex.insert(levelNumber, curLevel.size(), dObj.getXLocation(), dObj.getXLocation() + dObj.getWidth());
+					curLevel.add(dObj);
+				}
+			}
+		}
+		
+		if (Debug.DISPLAY_TIMINGS)
+			System.out.println((System.currentTimeMillis() - startTime) + " mS. to measure and place " + 
+						objects.length + " states in " + clusterLevels.length + " clusters");
+	}
+	
+	
+	//	Place the objects of a display list in as few levels as possible.  The level lists must be empty.
+	//	The objects are taken in order of their X position.  Any level whose last object ends before the
+	//	current object starts can take it;  we use the one whose last object ends first.  A new level is only
+	//	started when every level is still busy at the object's starting position, which means that that
+	//	many objects overlap there.  So no placement could use fewer levels.
+	protected void assignToFewestLevels(Collection displayList){
+		Debug.assertOnError(iLevelList.isEmpty());
+		
+		List sortedDisplayList = new ArrayList(displayList);
+		Collections.sort(sortedDisplayList, TLUtilities.SORT_UP_BY_X_POSITION);
+		
+		//	The levels, ordered by the position where their last object ends.
+		PriorityQueue levelEnds = new PriorityQueue(11, LEVEL_END_COMPARATOR);
+		
+		Iterator iter = sortedDisplayList.iterator();
+		while (iter.hasNext()){
+			DisplayedState dObj = (DisplayedState) iter.next();
+			int left = dObj.getXLocation();
+			int right = left + dObj.getWidth();
+			
+			//	Objects in a level must not touch, hence the strict comparison.
+			int[] levelEnd = (int[])levelEnds.peek();
+			if (levelEnd != null && levelEnd[0] < left)
+				levelEnds.poll();
+			else {
+				iLevelList.add(new ArrayList());
+				iLevelIndex.addLevel();
+				levelEnd = new int[] { 0, iLevelList.size() - 1 };
+			}
+			
+			int levelNumber = levelEnd[1];
+			this.insertIntoLevel(dObj, levelNumber, ((List)iLevelList.get(levelNumber)).size());
+			levelEnd[0] = right;
+			levelEnds.add(levelEnd);
+		}
+	}
+	
+	
+	//	Place a few objects without disturbing the objects already placed.  Each object whose preferred
+	//	level (the one it was in before it was removed) is given, and still has room for it, goes back there;
+	//	the others go into the first level they fit in, just as assignToLevel() would put them.
+	//	This is the same for both strategies, so with FEWEST_LEVELS, the result may use more levels than
+	//	necessary until the next full placement.
+	public void assignToLevelIncrementally(Collection displayList){
+	
+	        long startTime = System.currentTimeMillis();
+		
+		List sortedDisplayList = new ArrayList(displayList);
+		Collections.sort(sortedDisplayList, TLUtilities.SORT_DOWN_BY_DURATION_COMPARATOR);
+
+		Iterator iter = sortedDisplayList.iterator();
+		while (iter.hasNext()){
+			DisplayedState dObj = (DisplayedState) iter.next();
+			int preferredLevel = dObj.getLevelNumber();
+			if (preferredLevel != DisplayedState.NO_LEVEL && preferredLevel < iLevelList.size()){
+				int insertionPoint = this.findInsertionPoint(preferredLevel, dObj);
+				if (insertionPoint >= 0){
+					this.insertIntoLevel(dObj, preferredLevel, insertionPoint);
+					continue;
+				}
+			}
+			this.placeInFirstFreeLevel(dObj);
+		}
+		
+		this.removeEmptyTrailingLevels();
+		if (Debug.DISPLAY_TIMINGS)
+			System.out.println((System.currentTimeMillis() - startTime) + " mS. to place " + 
+						sortedDisplayList.size() + " states incrementally");
+	}
+	
+	
+	//	Remove objects from their levels, freeing their space for other objects.  The objects remember the
+	//	level they were in, for use by assignToLevelIncrementally().  Objects that aren't placed are ignored.
+	public void removeFromLevels(Collection displayList){
+		Iterator iter = displayList.iterator();
+		while (iter.hasNext()){
+			DisplayedState dObj = (DisplayedState)iter.next();
+			int levelNumber = dObj.getLevelNumber();
+			if (levelNumber == DisplayedState.NO_LEVEL)
+				continue;
+			List curLevel = (List)iLevelList.get(levelNumber);
+			
+			//	The level is sorted by X position, so we can usually find the object by binary search.  If it
+			//	has been given a drag offset since it was placed, we have to look for it the hard way.
+			int index = Collections.binarySearch(curLevel, dObj, TLUtilities.SORT_UP_BY_X_POSITION);
+			if (index < 0 || curLevel.get(index) != dObj)
+				index = curLevel.indexOf(dObj);
+			Debug.assertOnError(index >= 0);
+			curLevel.remove(index);
+			iLevelIndex.remove(levelNumber, index);
+		}
+	}
+	
+	
+	//	Put an object into the first level it fits in, creating a new level if there is none.
+	protected void placeInFirstFreeLevel(DisplayedState dObj){
+	
+		//	Look through existing levels for one that this will fit in.
+		int left = dObj.getXLocation();
+		int right = left + dObj.getWidth();
+		int levelNumber = iLevelIndex.findFirstFreeLevel(left, right);
+		
+		//	If we didn't find an existing level that this data object would fit into, create a new one.
+		//	??	Would it improve performance to specify an initialSize for the new level?
+		if (levelNumber < 0){
+			iLevelList.add(new ArrayList());
+			iLevelIndex.addLevel();
+			levelNumber = iLevelList.size() - 1;
+		}
+		this.insertIntoLevel(dObj, levelNumber, iLevelIndex.findInsertionPoint(levelNumber, left, right));
+	}
+	
+	
+	//	Return where in a level list an object would go, or -1 if it would overlap something already there.
+	protected int findInsertionPoint(int levelNumber, DisplayedState dObj){
+		int left = dObj.getXLocation();
+		return iLevelIndex.findInsertionPoint(levelNumber, left, left + dObj.getWidth());
+	}
+	
+	
+	//	Put an object into a level, at the position returned by findInsertionPoint(), so the level list
+	//	remains sorted.  Update the object with its level and y location.
+	protected void insertIntoLevel(DisplayedState dObj, int levelNumber, int insertionPoint){
+		List curLevel = (List)iLevelList.get(levelNumber);
+		curLevel.add(insertionPoint, dObj);
+		iLevelIndex.insert(levelNumber, insertionPoint, dObj.getXLocation(), dObj.getXLocation() + dObj.getWidth());
+		dObj.setLevelNumber(levelNumber);
+		dObj.setYLocation(this.levelToYPosition(levelNumber));
+	}
+	
+	
+	//	Add a level to the bottom of the pane, holding the given objects, which must be in X order and must not
+	//	overlap.  Used to put back a layout remembered by LayoutCache.
+	public void appendLevel(DisplayedState[] objects){
+		int levelNumber = iLevelList.size();
+		int[] starts = new int[Math.max(objects.length, 1)];
+		int[] ends = new int[starts.length];
+		for (int i = 0; i < objects.length; i++){
+			DisplayedState dObj = objects[i];
+			starts[i] = dObj.getXLocation();
+			ends[i] = starts[i] + dObj.getWidth();
+			dObj.setLevelNumber(levelNumber);
+			dObj.setYLocation(this.levelToYPosition(levelNumber));
+		}
+		iLevelList.add(new ArrayList(Arrays.asList(objects)));
+		iLevelIndex.addLevel();
+		iLevelIndex.load(levelNumber, starts, ends, objects.length);
+	}
+	
+	
+	//	Called after every placed object has been measured again, without being placed again, so that objects
+	//	are found where they now are.  A change of scale keeps the objects of each level in order, but labels
+	//	don't change width with the scale, so after zooming out, neighbours in a level may overlap.  The ends
+	//	recorded for each level are kept in order anyway, so that getObjectsInRect() still finds everything,
+	//	at the cost of the odd object too many.  The next full placement puts things right.
+	public void reindex(){
+		iLevelIndex.clear();
+		for (int levelNumber = 0; levelNumber < iLevelList.size(); levelNumber++){
+			List level = (List)iLevelList.get(levelNumber);
+			int[] starts = new int[Math.max(level.size(), 1)];
+			int[] ends = new int[starts.length];
+			int end = Integer.MIN_VALUE;
+			for (int i = 0; i < level.size(); i++){
+				DisplayedState dObj = (DisplayedState)level.get(i);
+				starts[i] = dObj.getXLocation();
+				end = Math.max(end, starts[i] + dObj.getWidth());
+				ends[i] = end;
+			}
+			iLevelIndex.addLevel();
+			iLevelIndex.load(levelNumber, starts, ends, level.size());
+		}
+	}
+	
+	
+	//	Called after every placed object has been moved horizontally by the same number of pixels.
+	//	Their order within the levels is unchanged, so only the index needs to know.
+	public void translate(int xShift){
+		iLevelIndex.translate(xShift);
+	}
+	
+	
+	//	Drop empty levels from the bottom of the pane, so it doesn't stay taller than its contents.
+	protected void removeEmptyTrailingLevels(){
+		int lastLevel = iLevelList.size() - 1;
+		while (lastLevel >= 0 && ((List)iLevelList.get(lastLevel)).isEmpty()){
+			iLevelList.remove(lastLevel--);
+			iLevelIndex.removeLastLevel();
+		}
+	}
+
+
+	//	Forget all assignments of objects to levels.
+	public void forgetLevelAssignments(){
+		Iterator levelIter = iLevelList.iterator();
+		while (levelIter.hasNext()){
+			List curLevel = (List)levelIter.next();
+			Iterator iter = curLevel.iterator();
+			while (iter.hasNext())
+				((DisplayedState)iter.next()).setLevelNumber(DisplayedState.NO_LEVEL);
+		}
+		iLevelList.clear();
+		iLevelIndex.clear();
+	}
+	
+	
+	 //	Return the level containing the provided DataObj.  Throws ImplementationException if DataObj not found.
+	public int getLevel(DataObj o){
+		
+		//	Once around for each level in existence.
+		Iterator iter = iLevelList.iterator();
+		int levelNumber = 0;
+		while (iter.hasNext()){
+			List level = (List)iter.next();
+			int searchResult = Collections.binarySearch(level, o, TLUtilities.SORT_UP_BY_START_COMPARATOR);
+			if (searchResult >= 0)
+				return levelNumber;
+			levelNumber ++;	
+		}
+	 	
+	 	throw new ImplementationException("Couldn't find DataObj");
+	}
+	 
+	 
+	 //	Translate a level index (zero-based) to a vertical location in the pane (expressed in
+	 //	drawing coordinates).
+	 protected int levelToYPosition(int level){
+	 	return TOP_MARGIN + level * LEVEL_SPACING;
+	 }
+	 
+	 
+	 //	Translate a y position to a level index.  Returns -1 if the y position is between levels
+	 //	or beyond the last occupied level.
+	 protected int yPositionToLevelNum(int y){
+	 	
+	 	//	If we're above the first level of state (in the top margin), report no hit.
+	 	int normalizedY = y - TOP_MARGIN;
+	 	if (normalizedY < 0)
+	 		return -1;
+	 	
+	 	int level = normalizedY / LEVEL_SPACING;
+	 	
+	 	//	If we're beyond the lowest occupied level, report no hit.
+	 	if (level >= iLevelList.size())
+	 		return -1;
+	 	
+	 	//	If we're between state bodies, report no hit.
+	 	if (normalizedY - level * LEVEL_SPACING > DisplayedState.BODY_HEIGHT)
+	 		return -1;
+	 			 	
+	 	return level;
+	 }
+	 
+	 
+	 //	Return the height  of the pane used by the current placements.
+	 public int getMaximumYUsed(){
+		return levelToYPosition(iLevelList.size());
+	 }
+
+
+	 //	Return a List of the placed objects that might intersect a rectangle, such as a clip rectangle.
+	 //	Only the levels that the rectangle's y range crosses are looked at, and in each of those, a binary
+	 //	search finds the first object that ends at or after its left edge, so the time taken depends on how
+	 //	many objects are in the rectangle, not how many there are.  Objects are found by the position they
+	 //	were placed at, so an object that has been given an offset since (by a drag), or measured again
+	 //	without being placed again (see ZoomPreview), may be missed.
+	 public List getObjectsInRect(Rectangle r){
+	 	List result = new ArrayList();
+	 	int firstLevel = Math.max(0, (r.y - TOP_MARGIN - DisplayedState.BODY_HEIGHT) / LEVEL_SPACING);
+	 	int lastLevel = Math.min(iLevelList.size() - 1, (r.y + r.height - TOP_MARGIN) / LEVEL_SPACING);
+	 	int right = r.x + r.width;
+	 	for (int levelNumber = firstLevel; levelNumber <= lastLevel; levelNumber++){
+	 		List level = (List)iLevelList.get(levelNumber);
+	 		int i = iLevelIndex.findFirstEndingAtOrAfter(levelNumber, r.x);
+	 		for (int size = level.size(); i < size; i++){
+	 			DisplayedState dObj = (DisplayedState)level.get(i);
+
+	 			//	Stop at the first object recorded as starting beyond the rectangle.  This must be the
+	 			//	recorded start, which is what the level is sorted by, and not getXLocation(), which
+	 			//	includes any drag offset:  a selected object dragged to the right would otherwise end
+	 			//	the scan early, and the unselected objects after it would not be drawn.
+	 			if (iLevelIndex.getStart(levelNumber, i) > right)
+	 				break;
+	 			result.add(dObj);
+	 		}
+	 	}
+	 	return result;
+	 }
+	 
+	 
+	 //	Identify which DisplayedState contains the given point.  Return null if no object at that point.
+	 public DisplayedState pointToDisplayedObject(Point p){
+	 
+		//	Determine which level the mouse-down is in.  
+		//	If beyond all existing levels, return null.
+		int levelNum = yPositionToLevelNum(p.y);
+		if (levelNum < 0)
+			return null;
+		List level = (List)iLevelList.get(levelNum);
+			
+		//	Create a dummy "probe" DisplayedState corresponding to the x position of the mouse-down.
+		//	??	This is a bit inelegant.  Among other warts, this is the only place DummyDisplayedObject
+		//	??	is used.
+		DisplayedObject probe = new DummyDisplayedObject(p.x);
+		
+		//	Do a binary search to determine where our probe would appear in the level list.
+		int searchResult = Collections.binarySearch(level, probe, TLUtilities.SORT_UP_BY_X_POSITION);
+		
+		//	If we got a match from the binary search, which means our probe hit the very beginning of an object,
+		//	return that object.
+		if (searchResult >= 0)
+			return (DisplayedState)level.get(searchResult);
+		
+		//	Variable insertionPoint is where the data object would appear in this level list if
+		//	it was inserted.  This calculation of insertionPoint undoes the "mangling" that 
+		//	Collections.binarySearch() does to its result if it doesn't find a match.
+		int insertionPoint = -(searchResult + 1);
+		
+		//	If the probe is before the first object in the list, return null.
+		if (insertionPoint == 0)
+			return null;
+		
+		//	See whether the data object that starts before the probe point is large enough to contain it.  
+		//	If so, we've got a hit.
+		DisplayedState o = (DisplayedState)level.get(insertionPoint - 1);
+		if (o.getXLocation() <= p.x && p.x <= o.getXLocation() + o.getWidth())
+			return o;
+		
+		return null;
+	 }
+
+	 
+	//	Measures a range of an array of objects for assignToLevelInParallel(), splitting the work until the
+	//	pieces are small.  Measuring only reads the document and the TPM, and writes the object itself.
+	protected static class MeasureTask extends RecursiveAction {
+		protected DisplayedState[] iObjects;
+		protected int iFrom, iTo;
+		protected TimePositionMapping iTPM;
+		
+		public MeasureTask(DisplayedState[] objects, int from, int to, TimePositionMapping tpm){
+			iObjects = objects;
+			iFrom = from;
+			iTo = to;
+			iTPM = tpm;
+		}
+		
+		protected void compute(){
+			if (iTo - iFrom <= PARALLEL_BATCH_SIZE){
+				for (int i = iFrom; i < iTo; i++)
+					iObjects[i].calculateDimensions(iTPM);
+				return;
+			}
+			int middle = (iFrom + iTo) >>> 1;
+			invokeAll(new MeasureTask(iObjects, iFrom, middle, iTPM), new MeasureTask(iObjects, middle, iTo, iTPM));
+		}
+	}
+	
+	
+	//	Places a range of the clusters found by assignToLevelInParallel(), each in levels of its own, and
+	//	stores each cluster's level list into iResults.  Small clusters are placed in batches, each batch
+	//	using a Placer of its own.
+	protected static class PlaceTask extends RecursiveAction {
+		protected List iClusters;
+		protected int iFrom, iTo;
+		protected List[] iResults;
+		protected int iStrategy;
+		
+		public PlaceTask(List clusters, int from, int to, List[] results, int strategy){
+			iClusters = clusters;
+			iFrom = from;
+			iTo = to;
+			iResults = results;
+			iStrategy = strategy;
+		}
+		
+		protected void compute(){
+		
+			//	Split the range in half, by number of objects, until it is small or is a single cluster.
+			int size = 0;
+			for (int c = iFrom; c < iTo && size <= PARALLEL_BATCH_SIZE; c++)
+				size += ((List)iClusters.get(c)).size();
+			if (size > PARALLEL_BATCH_SIZE && iTo - iFrom > 1){
+				int middle = (iFrom + iTo) >>> 1;
+				invokeAll(new PlaceTask(iClusters, iFrom, middle, iResults, iStrategy), 
+						new PlaceTask(iClusters, middle, iTo, iResults, iStrategy));
+				return;
+			}
+			
+			Placer placer = new Placer();
+			placer.setStrategy(iStrategy);
+			for (int c = iFrom; c < iTo; c++){
+				List cluster = (List)iClusters.get(c);
+				
+				//	Most clusters in a sparse document are a single state, which needs no searching.
+				if (cluster.size() == 1){
+					DisplayedState dObj = (DisplayedState)cluster.get(0);
+					dObj.setLevelNumber(0);
+					dObj.setYLocation(placer.levelToYPosition(0));
+					iResults[c] = Collections.singletonList(cluster);
+					continue;
+				}
+				
+				//	Start the placer afresh without disturbing the level numbers of the last cluster's objects.
+				placer.iLevelList = new ArrayList();
+				placer.iLevelIndex.clear();
+				if (iStrategy == FEWEST_LEVELS)
+					placer.assignToFewestLevels(cluster);
+				else
+					placer.placeInOrder(cluster);
+				iResults[c] = placer.iLevelList;
+			}
+		}
+	}
+}	 
@@ -0,0 +1,180 @@
+//	StateDelta.java - Compact record of the differences between two values of a TLState.
+
+//	StateEdit used to keep two complete copies of the state it changed, one from before the edit and one
+//	from after it.  Most edits change only one or two parameters--a drag changes times, the attribute
+//	dialog usually changes only the label--so a StateDelta keeps just the parts that differ.  Time
+//	parameters are kept as differences, so that applying the delta forward or backward is an addition.
+//
+//	The strings and time differences can be written to an undo spill file and released;  see EditManager.
+//	Category sets are shared by many states, so they are cheap to keep and are never spilled.
+
+import java.io.*;
+
+class StateDelta {
+
+	// 	Constants ------------------------------------------------------------------------
+	//	Bits in iChanged, recording which parts of the state differ.
+	protected static final int TIMES_CHANGED = 1;
+	protected static final int LABEL_CHANGED = 2;
+	protected static final int NOTES_CHANGED = 4;
+	protected static final int LOCK_CHANGED = 8;
+	protected static final int CATEGORIES_CHANGED = 16;
+	protected static final int LABEL_INFO_CHANGED = LABEL_CHANGED | NOTES_CHANGED | LOCK_CHANGED;
+	
+	//	Rough heap cost of this object and of its time difference array, for the undo memory budget.
+	protected static final int OBJECT_SIZE = 48;
+	protected static final int TIME_DELTA_SIZE = 16 + 8 * TLState.PARAMETER_COUNT;
+	
+	
+	//	Instance variables ----------------------------------------------------------------
+	protected int iChanged;						//	Which parts differ;  see constants above
+	protected long[] iTimeDelta;					//	New minus old, indexed by TLState.T0...T3
+	protected String iOldLabel, iNewLabel;
+	protected String iOldNotes, iNewNotes;
+	protected boolean iNewLocked;					//	The old value is the opposite
+	protected DefinedCategorySet.MemberSet iOldCategories, iNewCategories;
+	protected boolean iSpilled;					//	Strings and times are in the spill file
+	
+	
+	//	Constructor ---------------------------------------------------------------------
+	//	Record the differences between two values of a state.  Neither argument is retained.
+	public StateDelta(TLState oldValue, TLState newValue){
+		
+		//	Time parameters.
+		long[] delta = new long[TLState.PARAMETER_COUNT];
+		for (int i = 0; i < TLState.PARAMETER_COUNT; i++){
+			delta[i] = newValue.getTimeParameter(i) - oldValue.getTimeParameter(i);
+			if (delta[i] != 0)
+				iChanged |= TIMES_CHANGED;
+		}
+		if ((iChanged & TIMES_CHANGED) != 0)
+			iTimeDelta = delta;
+		
+		//	Label information.
+		LabelInfo oldInfo = oldValue.getLabelInfo();
+		LabelInfo newInfo = newValue.getLabelInfo();
+		if (!sameString(oldInfo.getLabel(), newInfo.getLabel())){
+			iChanged |= LABEL_CHANGED;
+			iOldLabel = oldInfo.getLabel();
+			iNewLabel = newInfo.getLabel();
+		}
+		if (!sameString(oldInfo.getNotes(), newInfo.getNotes())){
+			iChanged |= NOTES_CHANGED;
+			iOldNotes = oldInfo.getNotes();
+			iNewNotes = newInfo.getNotes();
+		}
+		if (oldInfo.isLocked() != newInfo.isLocked()){
+			iChanged |= LOCK_CHANGED;
+			iNewLocked = newInfo.isLocked();
+		}
+		
+		//	Categories.  MemberSets are shared, so we can compare them by identity.
+		if (oldValue.getCategories() != newValue.getCategories()){
+			iChanged |= CATEGORIES_CHANGED;
+			iOldCategories = oldValue.getCategories();
+			iNewCategories = newValue.getCategories();
+		}
+	}
+	
+	
+	//	Trivial accessors -------------------------------------------------------------
+	public boolean isEmpty()					{	return iChanged == 0;			}
+	public boolean isSpilled()					{	return iSpilled;				}
+	
+	
+	//	Apply this delta to a state, either forward (old value to new) or backward (new value to old).
+	//	As with TLState.setAllFrom(), the state keeps its identity but gets new constituent objects.
+	public void applyTo(TLState state, boolean forward){
+		Debug.assertOnError(!iSpilled);
+		
+		if ((iChanged & TIMES_CHANGED) != 0){
+			long[] t = new long[TLState.PARAMETER_COUNT];
+			for (int i = 0; i < TLState.PARAMETER_COUNT; i++)
+				t[i] = state.getTimeParameter(i) + (forward ? iTimeDelta[i] : -iTimeDelta[i]);
+			state.setTimeParameters(t[TLState.T0], t[TLState.T1], t[TLState.T2], t[TLState.T3]);
+		}
+		
+		if ((iChanged & LABEL_INFO_CHANGED) != 0){
+			LabelInfo info = state.getLabelInfo();
+			String label = ((iChanged & LABEL_CHANGED) != 0) ? (forward ? iNewLabel : iOldLabel) : info.getLabel();
+			String notes = ((iChanged & NOTES_CHANGED) != 0) ? (forward ? iNewNotes : iOldNotes) : info.getNotes();
+			boolean locked = ((iChanged & LOCK_CHANGED) != 0) ? (forward == iNewLocked) : info.isLocked();
+			state.setLabelInfo(new LabelInfo(label, notes, locked));
+		}
+		
+		if ((iChanged & CATEGORIES_CHANGED) != 0)
+			state.setCategories(forward ? iNewCategories : iOldCategories);
+	}
+	
+	
+	//	Estimate the heap occupied by this delta, in bytes.
+	public int getRetainedSize(){
+		int size = OBJECT_SIZE;
+		if (!iSpilled){
+			if (iTimeDelta != null)
+				size += TIME_DELTA_SIZE;
+			size += stringSize(iOldLabel) + stringSize(iNewLabel) + stringSize(iOldNotes) + stringSize(iNewNotes);
+		}
+		return size;
+	}
+	
+	
+	//	Spill file support -----------------------------------------------------------
+	//	Write the strings and time differences to a spill file record.
+	public void writeSpillData(DataOutput os) throws IOException {
+		Debug.assertOnError(!iSpilled);
+		if ((iChanged & TIMES_CHANGED) != 0){
+			for (int i = 0; i < TLState.PARAMETER_COUNT; i++)
+				os.writeLong(iTimeDelta[i]);
+		}
+		if ((iChanged & LABEL_CHANGED) != 0){
+			UndoSpillFile.writeString(os, iOldLabel);
+			UndoSpillFile.writeString(os, iNewLabel);
+		}
+		if ((iChanged & NOTES_CHANGED) != 0){
+			UndoSpillFile.writeString(os, iOldNotes);
+			UndoSpillFile.writeString(os, iNewNotes);
+		}
+	}
+	
+	
+	//	Drop the parts written by writeSpillData(), once they are safely in the file.
+	public void releaseSpillData(){
+		iTimeDelta = null;
+		iOldLabel = iNewLabel = null;
+		iOldNotes = iNewNotes = null;
+		iSpilled = true;
+	}
+	
+	
+	//	Restore the parts written by writeSpillData().
+	public void readSpillData(DataInput is) throws IOException {
+		Debug.assertOnError(iSpilled);
+		if ((iChanged & TIMES_CHANGED) != 0){
+			iTimeDelta = new long[TLState.PARAMETER_COUNT];
+			for (int i = 0; i < TLState.PARAMETER_COUNT; i++)
+				iTimeDelta[i] = is.readLong();
+		}
+		if ((iChanged & LABEL_CHANGED) != 0){
+			iOldLabel = UndoSpillFile.readString(is);
+			iNewLabel = UndoSpillFile.readString(is);
+		}
+		if ((iChanged & NOTES_CHANGED) != 0){
+			iOldNotes = UndoSpillFile.readString(is);
+			iNewNotes = UndoSpillFile.readString(is);
+		}
+		iSpilled = false;
+	}
+	
+	
+	//	Utilities -------------------------------------------------------------------
+	protected static boolean sameString(String a, String b){
+		return (a == null) ? (b == null) : a.equals(b);
+	}
+	
+	
+	//	Rough heap cost of a String, in bytes.
+	protected static int stringSize(String s){
+		return (s == null) ? 0 : 40 + 2 * s.length();
+	}
+}
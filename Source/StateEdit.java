@@ -1,61 +1,70 @@
-//	StateEdit.java - Represent an edit in which one or more parameters of a TLState are changed.
-
-import java.util.*;
-import java.util.List;
-import javax.swing.undo.*;
-
-public class StateEdit extends TLUndoableEdit {
-
-	// 	Constants ------------------------------------------------------------------------
-	protected static final String PRESENTATION_NAME = "state modification";
-	
-	
-	//	Instance variables ----------------------------------------------------------------
-	//	The TLStates referenced in iOldValue and INewValue are to be used for their
-	//	values only.  Neither should be linked into the document!
-	protected TLState iOldValue;			//	Values before edit
-	protected TLState iNewValue;		//	Values after edit
-	
-	
-	//	Constructor ---------------------------------------------------------------------
-	public StateEdit(TLState affectedState, TLState newValue){
-		super(affectedState);
-		
-		//	Save the old value of this state in a new object.
-		//	Save the new value in the object that our called passed to us.
-		iOldValue =new TLState(affectedState);
-		iNewValue = newValue;
-	}
-	
-	
-	//	doEdit() - Do the edit.  Normally called by the EditManager.
-	public void doEdit(TLDocument doc){
-		rememberDocument(doc);
-		TLState affectedState = this.getAffectedState();
-		affectedState.setModifyTime(System.currentTimeMillis());
-		iDoc.editChangeState(this, affectedState, iNewValue);
-	}
-	
-	
-	//	undo() - Undo the edit.  Normally called by the EditManager.
-	public void undo() throws CannotUndoException {
-		super.undo();
-		
-		TLState affectedState = this.getAffectedState();
-		iDoc.editChangeState(this, affectedState, iOldValue);
-	}
-	
-	
-	//	redo() - Redo the edit.  Normally called by the EditManager.
-	public void redo() throws CannotRedoException {
-		super.redo();
-		
-		this.doEdit(iDoc);
-	}
-	
-	
-	//	Describe this operation in a form that ends up in the undo menu item.
-	public String getPresentationName() {
-		return PRESENTATION_NAME;
-	}
+//	StateEdit.java - Represent an edit in which one or more parameters of a TLState are changed.
+
+import java.io.*;
+import java.util.*;
+import java.util.List;
+import javax.swing.undo.*;
+
+public class StateEdit extends TLUndoableEdit {
+
+	// 	Constants ------------------------------------------------------------------------
+	protected static final String PRESENTATION_NAME = "state modification";
+	
+	
+	//	Instance variables ----------------------------------------------------------------
+	protected StateDelta iDelta;			//	Differences between the values before and after the edit
+	
+	
+	//	Constructor ---------------------------------------------------------------------
+	//	The TLState passed as newValue is used for its values only, and is not retained.
+	public StateEdit(TLState affectedState, TLState newValue){
+		super(affectedState);
+		iDelta = new StateDelta(affectedState, newValue);
+	}
+	
+	
+	//	doEdit() - Do the edit.  Normally called by the EditManager.
+	public void doEdit(TLDocument doc){
+		rememberDocument(doc);
+		TLState affectedState = this.getAffectedState();
+		affectedState.setModifyTime(System.currentTimeMillis());
+		iDoc.editChangeState(this, affectedState, iDelta, true);
+	}
+	
+	
+	//	undo() - Undo the edit.  Normally called by the EditManager.
+	public void undo() throws CannotUndoException {
+		super.undo();
+		
+		TLState affectedState = this.getAffectedState();
+		iDoc.editChangeState(this, affectedState, iDelta, false);
+	}
+	
+	
+	//	redo() - Redo the edit.  Normally called by the EditManager.
+	public void redo() throws CannotRedoException {
+		super.redo();
+		
+		this.doEdit(iDoc);
+	}
+	
+	
+	//	Describe this operation in a form that ends up in the undo menu item.
+	public String getPresentationName() {
+		return PRESENTATION_NAME;
+	}
+	
+	
+	//	Undo memory budget.  The delta's strings and times can always be spilled.
+	public int getRetainedSize()			{	return super.getRetainedSize() + iDelta.getRetainedSize();	}
+	public boolean canSpill()				{	return !iDelta.isSpilled();							}
+	protected void releaseSpillData()		{	iDelta.releaseSpillData();							}
+	
+	protected void writeSpillData(DataOutput os) throws IOException {
+		iDelta.writeSpillData(os);
+	}
+	
+	protected void readSpillData(DataInput is) throws IOException {
+		iDelta.readSpillData(is);
+	}
 }
\ No newline at end of file
@@ -1,28 +1,39 @@
-//	StateModifyChange.java - Change event for when states are modified.
-
-import java.util.*;
-
-public class StateModifyChange extends StateChangeEvent {
-
-	// 	Constants ------------------------------------------------------------------------
-	
-	//	Instance variables----------------------------------------------------------------
-	protected TLState iNewValue;			//	Holder of values, NOT the state itself
-	
-	//	Constructor---------------------------------------------------------------------
-	//	Constructor, for when there is a set of affected states.
-	public StateModifyChange(Object source, Set affectedStates, TLState newValue){
-		super(source, affectedStates);
-		iNewValue = newValue;
-	}
-
-
-	//	Constructor, for when there is a single affected state.
-	public StateModifyChange(Object source, TLState affectedState, TLState newValue){
-		super(source, affectedState);
-		iNewValue = newValue;
-	}
-
-	
-	public TLState getNewValue()			{	return iNewValue;		}
+//	StateModifyChange.java - Change event for when states are modified.
+
+import java.util.*;
+
+public class StateModifyChange extends StateChangeEvent {
+
+	// 	Constants ------------------------------------------------------------------------
+	
+	//	Instance variables----------------------------------------------------------------
+	protected TLState iNewValue;			//	Holder of values, NOT the state itself.  May be null.
+	
+	//	Constructor---------------------------------------------------------------------
+	//	Constructor, for when there is a set of affected states.
+	public StateModifyChange(Object source, Set affectedStates, TLState newValue){
+		super(source, affectedStates);
+		iNewValue = newValue;
+	}
+
+
+	//	Constructor, for when there is a single affected state.
+	public StateModifyChange(Object source, TLState affectedState, TLState newValue){
+		super(source, affectedState);
+		iNewValue = newValue;
+	}
+
+
+	//	Constructors for when the change was not described by a separate value holder.
+	public StateModifyChange(Object source, Set affectedStates){
+		this(source, affectedStates, null);
+	}
+
+
+	public StateModifyChange(Object source, TLState affectedState){
+		this(source, affectedState, null);
+	}
+
+	
+	public TLState getNewValue()			{	return iNewValue;		}
 }
\ No newline at end of file
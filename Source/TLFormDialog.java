@@ -1,18 +1,18 @@
-//	TLFormDialog.java - Add functionality to FormDialog that is useful in Timelines.
-
-import java.text.*;
-import java.util.*;
-import javax.swing.*;
-import javax.swing.text.*;
-
-public abstract class TLFormDialog extends FormDialog {
-
-	// 	Constants ------------------------------------------------------------------------
-
-	//	Constructor ---------------------------------------------------------
-	public TLFormDialog(JFrame frame, String windowName){
-		super(frame, windowName);
-	}
-	
-	
+//	TLFormDialog.java - Add functionality to FormDialog that is useful in Timelines.
+
+import java.text.*;
+import java.util.*;
+import javax.swing.*;
+import javax.swing.text.*;
+
+public abstract class TLFormDialog extends FormDialog {
+
+	// 	Constants ------------------------------------------------------------------------
+
+	//	Constructor ---------------------------------------------------------
+	public TLFormDialog(JFrame frame, String windowName){
+		super(frame, windowName);
+	}
+	
+	
 }
\ No newline at end of file
@@ -1 +1,269 @@
-//	TLState.java - Represent states in Timeline's data model.import java.io.*;import java.util.*;import java.util.List;class TLState extends DataObj implements Serializable {	//	Public constants.	//	Number of time parameters in a State.	public static final int PARAMETER_COUNT = 4;	protected static final int PREVIOUS_STREAM_VERSION = 7;	protected static final int PORTABLE_STREAM_VERSION = 8;		//	Define symbols for the four time parameters.	public static final int T0 = 0;	public static final int T1 = 1;	public static final int T2 = 2;	public static final int T3 = 3;	//	Instance fields.	protected TLEvent iStartedBy;			//	Starting event for this state	protected TLEvent iEndedBy;				//	Ending event for this state		//	Accessors.	public long getPeriodStart()			{ return iStartedBy.getPeriodStart();}	public long getPeriodEnd()				{ return iEndedBy.getPeriodEnd();}		public void setPeriodStart(long m)		{ throw new ImplementationException("Can't set TLState period");}	public void setPeriodEnd(long m)			{ throw new ImplementationException("Can't set TLState period");}	public TLEvent getStartingEvent()		{ return iStartedBy;}	public TLEvent getEndingEvent()			{ return iEndedBy;}	//	Constructor for building from a Macintosh input stream.  Along with the	//	stream, we're passed a list of the events in the file, and a list of the defined categories.	public TLState(MacInputStream is, List eventList, DefinedCategorySet definedCategoryList) throws IOException, FileFormatError {		Debug.assertOnError(is.readShort() == 5);		//	Version number of TDataObj part		is.readShort();							//	2 unused bytes				//	Create a LabelInfo from the label and notes.		String label = is.readMacString();		String notes = is.readMacString();		iLabelInfo = new LabelInfo(label, notes, is.readMacBoolean());			//	Find the categories that this State is a part of.		iCategories = definedCategoryList.getSharedMemberSet(is);		//	Locate the starting and ending events.		Debug.assertOnError(is.readShort() == 2);		//	Version number of State part		iStartedBy = (TLEvent)eventList.get(is.readShort() - 1); //	-1 to make zero-based		iEndedBy = (TLEvent)eventList.get(is.readShort() - 1);				is.readInt();							//	4 bytes unused	}			//	Constructor for building from a data input stream.  Along with the	//	stream, we're passed a list of the events in the file, and a list of the defined categories.	public TLState(DataInputStream is, TLEvent startEvt, TLEvent endEvt, DefinedCategorySet definedCategoryList) 														throws IOException, FileFormatError {		switch (is.readShort()){					case PREVIOUS_STREAM_VERSION:				//	Create a LabelInfo from the label and notes.				iLabelInfo = new LabelInfo(is.readUTF(), is.readUTF(), is.readBoolean());								//	This file version doesn't include timestamps.				iCreateTimestamp = DataObj.UNKNOWN_TIMESTAMP;				iModifyTimestamp = DataObj.UNKNOWN_TIMESTAMP;							//	Find the categories that this State is a part of.				iCategories = definedCategoryList.getSharedMemberSet(is);				//	Fill in the starting and ending events.				Debug.assertOnError(startEvt != null && endEvt != null);				iStartedBy = startEvt;				iEndedBy = endEvt;				break;						case PORTABLE_STREAM_VERSION:				//	Create a LabelInfo from the label and notes.				iLabelInfo = new LabelInfo(is.readUTF(), is.readUTF(), is.readBoolean());								//	Read in the timestamps.				iCreateTimestamp = is.readLong();				iModifyTimestamp = is.readLong();							//	Find the categories that this State is a part of.				iCategories = definedCategoryList.getSharedMemberSet(is);				//	Fill in the starting and ending events.				Debug.assertOnError(startEvt != null && endEvt != null);				iStartedBy = startEvt;				iEndedBy = endEvt;				break;						default:				Debug.assertOnError(false, "unrecognized file component version");		}	}			//	Write the object to a data input stream.  Along with the	//	stream, we're passed two lists.  One is contains all defined categories, and we represent categories	//	in the output stream as their index in this list.  The second list contains all TLEvents in the document,	//	and we build it by adding the two TLEvents referenced by this TLState to the end of the list.	public void writeTo(DataOutputStream os) throws IOException {		os.writeShort(PORTABLE_STREAM_VERSION);				//	Write the label and notes.		os.writeUTF(iLabelInfo.getLabel());		os.writeUTF(iLabelInfo.getNotes());		os.writeBoolean(iLabelInfo.isLocked());			//	Write the timestamps.		os.writeLong(iCreateTimestamp);		os.writeLong(iModifyTimestamp);		//	Write out the categories that this State is a part of.		iCategories.writeTo(os);	}				//	Constructor for building from component objects.	public TLState(LabelInfo li, TLEvent startingEvent, TLEvent endingEvent, DefinedCategorySet.MemberSet categories){		super(li, categories);		iStartedBy = startingEvent;		iEndedBy = endingEvent;		checkSanity();	}			//	Constructor for creating from another TLState.	//	Pure Java style would use clone(), but I don't think that is a good design.	public TLState(TLState other){		this.setAllFrom(other);	}				//	Set value of this object from another TLState.	//	Note that, although the TLState stays the same, its constituent parts change.  	public void setAllFrom(TLState other){		super.setAllFrom(other);		iStartedBy = new TLEvent(other.iStartedBy);		iEndedBy =new TLEvent(other.iEndedBy);		checkSanity();	}	//	Make sure that the time values in this object make sense.	protected void checkSanity(){		if (Debug.sCurLevel >= 0){			Debug.assertOnError(iStartedBy != null);			Debug.assertOnError(iEndedBy != null);			Debug.assertOnError(iEndedBy.getPeriodStart() >= iStartedBy.getPeriodStart());			Debug.assertOnError(iEndedBy.getPeriodEnd() >= iStartedBy.getPeriodEnd());		}	}			//	Get the time parameter specified using a constant defined in this class (above).	public long getTimeParameter(int index){		switch (index){			case T0:				return iStartedBy.getPeriodStart();			case T1:				return iStartedBy.getPeriodEnd();			case T2:				return iEndedBy.getPeriodStart();			case T3:				return iEndedBy.getPeriodEnd();			default:				throw new ImplementationException("Illegal index");		}	}	//	Set the time parameter specified using a constant defined in this class (above).	public void setTimeParameter(int index, long value){		switch (index){			case T0:				 iStartedBy.setPeriodStart(value);   				 break;				 			case T1:				iStartedBy.setPeriodEnd(value);				 break;				 			case T2:				iEndedBy.setPeriodStart(value);				 break;				 			case T3:				iEndedBy.setPeriodEnd(value);				 break;				 			default:				throw new ImplementationException("Illegal index");		}	}	//	Overrides of standard methods.	public String toString(){		return "TLState \"" + iLabelInfo.getLabel() + "\"";	}	}
\ No newline at end of file
+//	TLState.java - Represent states in Timeline's data model.
+
+import java.io.*;
+import java.util.*;
+import java.util.List;
+
+
+class TLState extends DataObj implements Serializable {
+
+	//	Public constants.
+	//	Number of time parameters in a State.
+	public static final int PARAMETER_COUNT = 4;
+	protected static final int PREVIOUS_STREAM_VERSION = 7;
+	protected static final int PORTABLE_STREAM_VERSION = 8;
+	
+	//	Rough heap cost, in bytes, of a state and the objects it alone owns, not counting the characters 
+	//	in its strings.  Used for the undo memory budget.
+	protected static final int ESTIMATED_OBJECTS_SIZE = 216;
+	
+	//	Define symbols for the four time parameters.
+	public static final int T0 = 0;
+	public static final int T1 = 1;
+	public static final int T2 = 2;
+	public static final int T3 = 3;
+
+	//	Instance fields.
+	protected TLEvent iStartedBy;			//	Starting event for this state
+	protected TLEvent iEndedBy;				//	Ending event for this state
+
+	
+	//	Accessors.
+	public long getPeriodStart()			{ return iStartedBy.getPeriodStart();}
+	public long getPeriodEnd()				{ return iEndedBy.getPeriodEnd();}	
+	public void setPeriodStart(long m)		{ throw new ImplementationException("Can't set TLState period");}
+	public void setPeriodEnd(long m)			{ throw new ImplementationException("Can't set TLState period");}
+	public TLEvent getStartingEvent()		{ return iStartedBy;}
+	public TLEvent getEndingEvent()			{ return iEndedBy;}
+
+
+	//	Constructor for building from a Macintosh input stream.  Along with the
+	//	stream, we're passed a list of the events in the file, and a list of the defined categories.
+	public TLState(MacInputStream is, List eventList, DefinedCategorySet definedCategoryList) throws IOException, FileFormatError {
+
+		Debug.assertOnError(is.readShort() == 5);		//	Version number of TDataObj part
+		is.readShort();							//	2 unused bytes
+		
+		//	Create a LabelInfo from the label and notes.
+		String label = is.readMacString();
+		String notes = is.readMacString();
+		iLabelInfo = new LabelInfo(label, notes, is.readMacBoolean());
+	
+		//	Find the categories that this State is a part of.
+		iCategories = definedCategoryList.getSharedMemberSet(is);
+
+		//	Locate the starting and ending events.
+		Debug.assertOnError(is.readShort() == 2);		//	Version number of State part
+		iStartedBy = (TLEvent)eventList.get(is.readShort() - 1); //	-1 to make zero-based
+		iEndedBy = (TLEvent)eventList.get(is.readShort() - 1);
+		
+		is.readInt();							//	4 bytes unused
+	}
+	
+	
+	//	Constructor for building from a data input stream.  Along with the
+	//	stream, we're passed a list of the events in the file, and a list of the defined categories.
+	public TLState(DataInputStream is, TLEvent startEvt, TLEvent endEvt, DefinedCategorySet definedCategoryList) 
+														throws IOException, FileFormatError {
+		switch (is.readShort()){
+		
+			case PREVIOUS_STREAM_VERSION:
+				//	Create a LabelInfo from the label and notes.
+				iLabelInfo = new LabelInfo(is.readUTF(), is.readUTF(), is.readBoolean());
+				
+				//	This file version doesn't include timestamps.
+				iCreateTimestamp = DataObj.UNKNOWN_TIMESTAMP;
+				iModifyTimestamp = DataObj.UNKNOWN_TIMESTAMP;
+			
+				//	Find the categories that this State is a part of.
+				iCategories = definedCategoryList.getSharedMemberSet(is);
+
+				//	Fill in the starting and ending events.
+				Debug.assertOnError(startEvt != null && endEvt != null);
+				iStartedBy = startEvt;
+				iEndedBy = endEvt;
+				break;
+			
+			case PORTABLE_STREAM_VERSION:
+				//	Create a LabelInfo from the label and notes.
+				iLabelInfo = new LabelInfo(is.readUTF(), is.readUTF(), is.readBoolean());
+				
+				//	Read in the timestamps.
+				iCreateTimestamp = is.readLong();
+				iModifyTimestamp = is.readLong();
+			
+				//	Find the categories that this State is a part of.
+				iCategories = definedCategoryList.getSharedMemberSet(is);
+
+				//	Fill in the starting and ending events.
+				Debug.assertOnError(startEvt != null && endEvt != null);
+				iStartedBy = startEvt;
+				iEndedBy = endEvt;
+				break;
+			
+			default:
+				Debug.assertOnError(false, "unrecognized file component version");
+		}
+	}
+	
+	
+	//	Write the object to a data input stream.  Along with the
+	//	stream, we're passed two lists.  One is contains all defined categories, and we represent categories
+	//	in the output stream as their index in this list.  The second list contains all TLEvents in the document,
+	//	and we build it by adding the two TLEvents referenced by this TLState to the end of the list.
+	public void writeTo(DataOutputStream os) throws IOException {
+
+		os.writeShort(PORTABLE_STREAM_VERSION);
+		
+		//	Write the label and notes.
+		os.writeUTF(iLabelInfo.getLabel());
+		os.writeUTF(iLabelInfo.getNotes());
+		os.writeBoolean(iLabelInfo.isLocked());
+	
+		//	Write the timestamps.
+		os.writeLong(iCreateTimestamp);
+		os.writeLong(iModifyTimestamp);
+
+		//	Write out the categories that this State is a part of.
+		iCategories.writeTo(os);
+	}
+		
+	
+	//	Constructor for building from component objects.
+	public TLState(LabelInfo li, TLEvent startingEvent, TLEvent endingEvent, DefinedCategorySet.MemberSet categories){
+		super(li, categories);
+		iStartedBy = startingEvent;
+		iEndedBy = endingEvent;
+		checkSanity();
+	}
+	
+	
+	//	Constructor for creating from another TLState.
+	//	Pure Java style would use clone(), but I don't think that is a good design.
+	public TLState(TLState other){
+		this.setAllFrom(other);
+	}
+		
+	
+	//	Set value of this object from another TLState.
+	//	Note that, although the TLState stays the same, its constituent parts change.  
+	public void setAllFrom(TLState other){
+		super.setAllFrom(other);
+		iStartedBy = new TLEvent(other.iStartedBy);
+		iEndedBy =new TLEvent(other.iEndedBy);
+		checkSanity();
+	}
+
+
+	//	Replace all four time parameters at once.  Used when a state is shifted as a whole, since
+	//	setTimeParameter() checks the ordering of each parameter as it is changed.
+	public void setTimeParameters(long t0, long t1, long t2, long t3){
+		iStartedBy = new TLEvent(t0, t1);
+		iEndedBy = new TLEvent(t2, t3);
+		checkSanity();
+	}
+	
+	
+	//	Estimate the heap occupied by this state and the objects it alone owns, in bytes.
+	public int getEstimatedSize(){
+		if (iLabelInfo == null)
+			return ESTIMATED_OBJECTS_SIZE;
+		return ESTIMATED_OBJECTS_SIZE + 2 * (iLabelInfo.getLabel().length() + iLabelInfo.getNotes().length());
+	}
+	
+	
+	//	Undo spill file support.  These are used by AddDeleteStateEdit for states that are not part of the
+	//	document, so that the contents of deleted states need not stay in memory.  The categories are
+	//	shared with other states, and are kept.  Between releaseContents() and readContents() the state is
+	//	an empty shell, and must not be used for anything else.
+	void writeContents(DataOutput os) throws IOException {
+		UndoSpillFile.writeString(os, iLabelInfo.getLabel());
+		UndoSpillFile.writeString(os, iLabelInfo.getNotes());
+		os.writeBoolean(iLabelInfo.isLocked());
+		os.writeLong(iCreateTimestamp);
+		os.writeLong(iModifyTimestamp);
+		for (int i = 0; i < PARAMETER_COUNT; i++)
+			os.writeLong(getTimeParameter(i));
+	}
+	
+	
+	void releaseContents(){
+		iLabelInfo = null;
+		iStartedBy = null;
+		iEndedBy = null;
+	}
+	
+	
+	void readContents(DataInput is) throws IOException {
+		Debug.assertOnError(iLabelInfo == null);
+		String label = UndoSpillFile.readString(is);
+		String notes = UndoSpillFile.readString(is);
+		iLabelInfo = new LabelInfo(label, notes, is.readBoolean());
+		iCreateTimestamp = is.readLong();
+		iModifyTimestamp = is.readLong();
+		long t0 = is.readLong();
+		long t1 = is.readLong();
+		long t2 = is.readLong();
+		long t3 = is.readLong();
+		setTimeParameters(t0, t1, t2, t3);
+	}
+
+
+	//	Make sure that the time values in this object make sense.
+	protected void checkSanity(){
+		if (Debug.sCurLevel >= 0){
+			Debug.assertOnError(iStartedBy != null);
+			Debug.assertOnError(iEndedBy != null);
+			Debug.assertOnError(iEndedBy.getPeriodStart() >= iStartedBy.getPeriodStart());
+			Debug.assertOnError(iEndedBy.getPeriodEnd() >= iStartedBy.getPeriodEnd());
+		}
+	}
+	
+	
+	//	Get the time parameter specified using a constant defined in this class (above).
+	public long getTimeParameter(int index){
+		switch (index){
+			case T0:
+				return iStartedBy.getPeriodStart();
+			case T1:
+				return iStartedBy.getPeriodEnd();
+			case T2:
+				return iEndedBy.getPeriodStart();
+			case T3:
+				return iEndedBy.getPeriodEnd();
+			default:
+				throw new ImplementationException("Illegal index");
+		}
+	}
+
+
+	//	Set the time parameter specified using a constant defined in this class (above).
+	public void setTimeParameter(int index, long value){
+		switch (index){
+			case T0:
+				 iStartedBy.setPeriodStart(value);   
+				 break;
+				 
+			case T1:
+				iStartedBy.setPeriodEnd(value);
+				 break;
+				 
+			case T2:
+				iEndedBy.setPeriodStart(value);
+				 break;
+				 
+			case T3:
+				iEndedBy.setPeriodEnd(value);
+				 break;
+				 
+			default:
+				throw new ImplementationException("Illegal index");
+		}
+	}
+
+
+	//	Overrides of standard methods.
+	public String toString(){
+		return "TLState \"" + iLabelInfo.getLabel() + "\"";
+	}	
+}
\ No newline at end of file
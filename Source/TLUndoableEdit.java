@@ -1,61 +1,140 @@
-//	TLUndoableEdit.java - Base class for all Timelines document edits.
-
-import javax.swing.undo.*;
-import java.util.*;
-import java.util.List;
-
-//	Overview of editing mechanism:
-//	----------------------
-//	Individual editing commands (frequently Actions) build subclasses of TLUndoableEdit, and then call
-//	TLDocument.executeEdit(), which delegates to EditManager.executeEdit().  This method calls the
-//	doEdit() method of the TLUndoableEdit subclass, which actually changes the documents datastructures,
-//	usually through a call to TLDocument.editXXXXX().  This TLDocument method generates ChangeEvents
-//	which are listened to by all UI components that need to track changes to the document's data.
-
-//	Some edits affect a set of states, while others only affect a single state.  
-//	This class has constructors and getAffectedStates()/getAffectedState() which efficiently
-//	handle both cases.
-public abstract class TLUndoableEdit extends AbstractUndoableEdit {
-
-	protected TLDocument iDoc;
-	protected Set iAffectedStates;
-	
-	
-	//	Constructor, for when there is a set of affected states.
-	public TLUndoableEdit(Set affectedStates){
-		
-		//	Make a copy of the affected states set, so that it remains valid for do and undo.
-		iAffectedStates = new HashSet(affectedStates);
-	}
-	
-	
-	//	Constructor, for when there is a single affected state.
-	public TLUndoableEdit(TLState affectedState){
-		iAffectedStates = new HashSet(1);
-		iAffectedStates.add(affectedState);
-	}
-	
-	
-	//	Remember the document which has been edited, so that we can find it again if we have
-	//	to undo.  This is called by subclasses' doEdit() method.
-	protected void rememberDocument(TLDocument doc){
-		iDoc = doc;
-	}
-	
-	
-	//	The Swing base class for this class doesn't have a doEdit() method--it assumes that the
-	//	operation has been done the first time by the same code that creates this object.  It
-	//	seems cleaner to me to localize all implementations here, so I'm adding a doEdit() method.
-	public void doEdit(TLDocument doc){
-		throw new ImplementationException("This should be an abstract method");
-	}
-	
-	
-	//	Accessors.
-	public Set getAffectedStates()		{		return iAffectedStates;			}
-	
-	public TLState getAffectedState(){
-		Debug.assertOnError(iAffectedStates.size() == 1);
-		return (TLState)iAffectedStates.iterator().next();
-	}
+//	TLUndoableEdit.java - Base class for all Timelines document edits.
+
+import javax.swing.undo.*;
+import java.io.*;
+import java.util.*;
+import java.util.List;
+
+//	Overview of editing mechanism:
+//	----------------------
+//	Individual editing commands (frequently Actions) build subclasses of TLUndoableEdit, and then call
+//	TLDocument.executeEdit(), which delegates to EditManager.executeEdit().  This method calls the
+//	doEdit() method of the TLUndoableEdit subclass, which actually changes the documents datastructures,
+//	usually through a call to TLDocument.editXXXXX().  This TLDocument method generates ChangeEvents
+//	which are listened to by all UI components that need to track changes to the document's data.
+
+//	Some edits affect a set of states, while others only affect a single state.  
+//	This class has constructors and getAffectedStates()/getAffectedState() which efficiently
+//	handle both cases.  The affected states are kept in an array rather than a Set, since an edit
+//	may stay on the undo list for a long time, and an import can affect tens of thousands of states.
+//	getAffectedStates() returns a read-only view of the array, made the first time it is asked for.
+
+//	The EditManager keeps the memory used by the undo history under a budget.  Each edit estimates
+//	the heap it retains, and edits whose bulky parts are not needed until they are undone or redone
+//	can write those parts to a spill file and drop them.  Subclasses that have something worth
+//	spilling override canSpill(), writeSpillData(), releaseSpillData() and readSpillData().
+public abstract class TLUndoableEdit extends AbstractUndoableEdit {
+
+	// 	Constants ------------------------------------------------------------------------
+	//	Rough heap costs, in bytes, for the undo memory budget.
+	protected static final int EDIT_OVERHEAD = 48;
+	protected static final int REFERENCE_SIZE = 8;
+	
+	//	Value of iSpillPosition when the edit is entirely in memory.
+	protected static final long NOT_SPILLED = -1;
+	
+	//	Value of iSpillPosition when the edit is part of a CompoundStateEdit which has been spilled.
+	protected static final long SPILLED_WITH_PARENT = -2;
+	
+	
+	//	Instance variables ----------------------------------------------------------------
+	protected TLDocument iDoc;
+	protected TLState[] iAffectedStates;
+	protected long iSpillPosition = NOT_SPILLED;	//	Offset of our record in the EditManager's spill file
+	protected Set iAffectedStateView;				//	View of iAffectedStates, or null if not asked for yet
+	
+	
+	//	Constructor, for when there is a set of affected states.
+	public TLUndoableEdit(Set affectedStates){
+		
+		//	Make a copy of the affected states set, so that it remains valid for do and undo.
+		iAffectedStates = (TLState[])affectedStates.toArray(new TLState[affectedStates.size()]);
+	}
+	
+	
+	//	Constructor, for when there is a single affected state.
+	public TLUndoableEdit(TLState affectedState){
+		iAffectedStates = new TLState[] { affectedState };
+	}
+	
+	
+	//	Remember the document which has been edited, so that we can find it again if we have
+	//	to undo.  This is called by subclasses' doEdit() method.
+	protected void rememberDocument(TLDocument doc){
+		iDoc = doc;
+	}
+	
+	
+	//	The Swing base class for this class doesn't have a doEdit() method--it assumes that the
+	//	operation has been done the first time by the same code that creates this object.  It
+	//	seems cleaner to me to localize all implementations here, so I'm adding a doEdit() method.
+	public void doEdit(TLDocument doc){
+		throw new ImplementationException("This should be an abstract method");
+	}
+	
+	
+	//	Accessors.
+	public int getAffectedStateCount()		{		return iAffectedStates.length;					}
+	public boolean isSpilled()			{		return iSpillPosition != NOT_SPILLED;				}
+	
+	//	The Set returned doesn't copy the states, so its contains() searches them one by one.  Callers that
+	//	look states up in it should copy it into a HashSet.
+	public Set getAffectedStates(){
+		if (iAffectedStateView == null)
+			iAffectedStateView = new AffectedStateSet(iAffectedStates);
+		return iAffectedStateView;
+	}
+	
+	public TLState getAffectedState(){
+		Debug.assertOnError(iAffectedStates.length == 1);
+		return iAffectedStates[0];
+	}
+	
+	
+	//	Undo memory budget -----------------------------------------------------------
+	
+	//	Estimate the heap retained by this edit, in bytes.  States that are part of the document are
+	//	not counted, since they would be retained whether or not this edit existed.
+	public int getRetainedSize(){
+		return EDIT_OVERHEAD + REFERENCE_SIZE * iAffectedStates.length;
+	}
+	
+	
+	//	Return true if this edit currently has something it can write to the spill file.
+	public boolean canSpill(){
+		return false;
+	}
+	
+	
+	//	Write the parts of this edit that can be spilled.  Nothing may be released yet, since the write
+	//	to the file may still fail.
+	protected void writeSpillData(DataOutput os) throws IOException {
+		throw new ImplementationException("This should be an abstract method");
+	}
+	
+	
+	//	Release the parts written by writeSpillData(), now that they are safely in the spill file.
+	protected void releaseSpillData(){
+		throw new ImplementationException("This should be an abstract method");
+	}
+	
+	
+	//	Restore the parts written by writeSpillData().
+	protected void readSpillData(DataInput is) throws IOException {
+		throw new ImplementationException("This should be an abstract method");
+	}
+	
+	
+	//	A read-only Set backed by an edit's array of affected states.  The states in the array are distinct.
+	protected static class AffectedStateSet extends AbstractSet {
+		protected TLState[] iStates;
+		
+		public AffectedStateSet(TLState[] states){
+			iStates = states;
+		}
+		
+		public Iterator iterator()			{	return Collections.unmodifiableList(Arrays.asList(iStates)).iterator();	}
+		public int size()				{	return iStates.length;		}
+		public Object[] toArray()			{	return (Object[])iStates.clone();		}
+	}
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+//	TPMChangeEvent.java - Describe a change to a TimePositionMapping.
+
+//	Most changes to the mapping move everything on the timeline, but the commonest ones don't:  when the
+//	mapped period grows (because the document's time range did, or the window was scrolled to a time
+//	outside it), either only the timeline's width changes, or every X position moves by the same number of
+//	pixels.  Listeners use the kind of change to avoid measuring and placing states again.
+
+public class TPMChangeEvent extends javax.swing.event.ChangeEvent {
+
+	// 	Constants------------------------------------------------------------------------
+	//	Kinds of change.
+	public static final int SCALE_CHANGE = 0;		//	Scale changed, or there was no mapping before
+	public static final int CYCLIC_CHANGE = 1;		//	Switched to or from the cyclic view
+	public static final int ORIGIN_SHIFT = 2;		//	All X positions moved by getXShift() pixels
+	public static final int RANGE_CHANGE = 3;		//	No X position moved, but the timeline width may have changed
+	public static final int VIEW_SHIFT = 4;			//	The panes show a different part of a wide timeline
+	public static final int ZOOM_STEP = 5;			//	Scale changed by one step of a continuous zoom;  more may follow
+
+
+	//	Instance variables----------------------------------------------------------------
+	protected int iKind;
+	protected int iXShift;			//	Pixels added to every X position;  zero unless ORIGIN_SHIFT or VIEW_SHIFT
+	protected TimePositionMapping iPreviousMapping;	//	Copy of the mapping before a ZOOM_STEP, otherwise null
+
+
+	//	Constructor---------------------------------------------------------------------
+	public TPMChangeEvent(TimePositionMapping source, int kind, int xShift){
+		super(source);
+		iKind = kind;
+		iXShift = xShift;
+	}
+	
+	public TPMChangeEvent(TimePositionMapping source, int kind, int xShift, TimePositionMapping previousMapping){
+		this(source, kind, xShift);
+		iPreviousMapping = previousMapping;
+	}
+
+
+	//	Accessors.
+	public int getKind()				{		return iKind;			}
+	public int getXShift()				{		return iXShift;			}
+	public TimePositionMapping getPreviousMapping()	{	return iPreviousMapping;	}
+
+
+	//	Report whether X positions changed other than by a uniform shift, so everything must be measured again.
+	//	When the view moves, positions far off the panes, which the TPM pins to a limit, don't move with the
+	//	rest, so they must be measured again too.
+	public boolean movesPositions(){
+		return iKind == SCALE_CHANGE || iKind == CYCLIC_CHANGE || iKind == VIEW_SHIFT || iKind == ZOOM_STEP;
+	}
+}
@@ -0,0 +1,261 @@
+//	TileCache.java - Keep the drawn contents of a pane in offscreen tiles.
+
+//	Scrolling used to redraw every revealed grid line and state from scratch, and the backing store can't
+//	be used because it doesn't see selection changes (see TLWindow).  Instead, GridPane and TimelinePane
+//	draw their contents into fixed-size tiles, and paint by copying tiles.  What goes into a tile is
+//	up to the pane (its Renderer);  anything that changes often, like the selection, must be left out
+//	and drawn on top.
+//
+//	Tiles are remembered under a key that the pane supplies, which identifies everything the tile's
+//	contents depend on that the pane doesn't report to us--for example, the TPM's scale, cyclic view
+//	and origin.  So going back to an earlier scale can reuse its tiles.  Everything else must be
+//	reported by calling invalidate(), invalidateAll() or clear().
+//
+//	When a pane is painted, the tiles next to the ones painted are drawn in advance on the tile thread, so
+//	a scroll usually finds them ready.  The tile thread never looks at the pane:  when a tile is queued,
+//	the pane makes a copy of what the tile will show (its TileContents), on the event dispatch thread, and
+//	the tile thread draws from that.  A tile drawn on the tile thread is only kept if nothing has been
+//	invalidated since its contents were copied, since the copy may be out of date.
+//
+//	The tiles of all panes share a single memory budget;  the least recently used tiles are discarded
+//	when it is exceeded.  Except where noted, all methods must be called on the event dispatch thread.
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.*;
+import java.util.concurrent.*;
+import javax.swing.SwingUtilities;
+
+class TileCache extends Object {
+
+	// 	Constants ------------------------------------------------------------------------
+	public static final int TILE_SIZE = 256;					//	Width and height of a tile, in pixels
+	protected static final int MEMORY_BUDGET = 64 * 1024 * 1024;	//	Bytes of tiles kept, for all panes
+	protected static final int TILE_BYTES = TILE_SIZE * TILE_SIZE * 4;
+	protected static final int PREFETCH_DISTANCE = 1;			//	Tiles drawn in advance around those painted
+
+
+	//	What a pane provides to draw its contents into a tile.
+	public interface Renderer {
+
+		//	Return everything that belongs in a tile covering the given rectangle of the pane, copied so that
+		//	it can be drawn on the tile thread while the pane goes on changing.
+		TileContents getTileContents(Rectangle bounds);
+	}
+
+
+	//	What a Renderer returns:  the contents of one tile, which no longer change.
+	public interface TileContents {
+
+		//	Draw the contents into a tile covering the given rectangle of the pane.  The Graphics is clipped
+		//	to the rectangle, and uses the pane's coordinates.  May be called on the tile thread.
+		void draw(Graphics g, Rectangle bounds);
+	}
+
+
+	//	Class variables ----------------------------------------------------------------
+	//	All tiles, least recently used first.  Maps TileKeys to BufferedImages.
+	protected static LinkedHashMap sTiles = new LinkedHashMap(256, 0.75f, true){
+			protected boolean removeEldestEntry(Map.Entry eldest){
+				return size() > MEMORY_BUDGET / TILE_BYTES;
+			}
+		};
+
+	//	The thread that tiles are drawn in advance on.
+	protected static ExecutorService sTileThread = Executors.newSingleThreadExecutor(new ThreadFactory(){
+			public Thread newThread(Runnable r){
+				Thread thread = new Thread(r, "Timeline tiles");
+				thread.setDaemon(true);
+				thread.setPriority(Thread.MIN_PRIORITY);
+				return thread;
+			}
+		});
+
+
+	//	Instance variables ----------------------------------------------------------------
+	protected Renderer iRenderer;				//	Draws the contents of our tiles
+	protected boolean iOpaque;					//	Tiles completely cover the pane
+	protected volatile int iGeneration;			//	Incremented whenever tiles are invalidated
+	protected Set iPrefetching = new HashSet();		//	TileKeys being drawn on the tile thread
+
+
+	//	Constructor ---------------------------------------------------------------------
+	//	If opaque is true, the renderer promises to paint every pixel of each tile.
+	public TileCache(Renderer renderer, boolean opaque){
+		iRenderer = renderer;
+		iOpaque = opaque;
+	}
+
+
+	//	Paint the part of the pane within a clip rectangle by copying tiles, drawing any that are missing.
+	//	key identifies the conditions the tiles are drawn under.
+	public void paint(Graphics g, Rectangle clipRect, Object key){
+		int firstColumn = Math.max(0, clipRect.x) / TILE_SIZE;
+		int lastColumn = Math.max(0, clipRect.x + clipRect.width - 1) / TILE_SIZE;
+		int firstRow = Math.max(0, clipRect.y) / TILE_SIZE;
+		int lastRow = Math.max(0, clipRect.y + clipRect.height - 1) / TILE_SIZE;
+
+		for (int row = firstRow; row <= lastRow; row++){
+			for (int column = firstColumn; column <= lastColumn; column++){
+				TileKey tileKey = new TileKey(this, key, column, row);
+				BufferedImage tile = (BufferedImage)sTiles.get(tileKey);
+				if (tile == null){
+					tile = this.renderTile(iRenderer.getTileContents(this.getTileBounds(column, row)), column, row);
+					sTiles.put(tileKey, tile);
+				}
+				g.drawImage(tile, column * TILE_SIZE, row * TILE_SIZE, null);
+			}
+		}
+
+		//	Get the neighbouring tiles ready.
+		for (int row = Math.max(0, firstRow - PREFETCH_DISTANCE); row <= lastRow + PREFETCH_DISTANCE; row++)
+			for (int column = Math.max(0, firstColumn - PREFETCH_DISTANCE); column <= lastColumn + PREFETCH_DISTANCE; column++)
+				this.prefetch(new TileKey(this, key, column, row));
+	}
+
+
+	//	Forget the tiles drawn under a key that overlap a rectangle of the pane.
+	public void invalidate(Object key, Rectangle r){
+		iGeneration++;
+		if (r.width <= 0 || r.height <= 0)
+			return;
+		int firstColumn = Math.max(0, r.x) / TILE_SIZE;
+		int lastColumn = Math.max(0, r.x + r.width - 1) / TILE_SIZE;
+		int firstRow = Math.max(0, r.y) / TILE_SIZE;
+		int lastRow = Math.max(0, r.y + r.height - 1) / TILE_SIZE;
+		for (int row = firstRow; row <= lastRow; row++)
+			for (int column = firstColumn; column <= lastColumn; column++)
+				sTiles.remove(new TileKey(this, key, column, row));
+	}
+
+
+	//	Forget all tiles drawn under a key.
+	public void invalidateAll(Object key){
+		iGeneration++;
+		Iterator iter = sTiles.keySet().iterator();
+		while (iter.hasNext()){
+			TileKey tileKey = (TileKey)iter.next();
+			if (tileKey.iCache == this && tileKey.iKey.equals(key))
+				iter.remove();
+		}
+	}
+
+
+	//	Forget all our tiles, except those drawn under the given key, which may be null.
+	public void clear(Object keyToKeep){
+		iGeneration++;
+		Iterator iter = sTiles.keySet().iterator();
+		while (iter.hasNext()){
+			TileKey tileKey = (TileKey)iter.next();
+			if (tileKey.iCache == this && !tileKey.iKey.equals(keyToKeep))
+				iter.remove();
+		}
+	}
+
+
+	//	Throw away the tiles being drawn on the tile thread, without forgetting any we have.  Called when
+	//	what tiles are drawn from changes without making any remembered tile wrong--for example, when the
+	//	pane goes to a different scale.
+	public void cancelPrefetches(){
+		iGeneration++;
+	}
+
+
+	//	Forget all our tiles, and throw away those being drawn on the tile thread.  Called when the pane
+	//	is closed;  the shared tiles would otherwise keep it, and its document, from being collected.
+	public void dispose(){
+		this.cancelPrefetches();
+		iPrefetching.clear();
+		Iterator iter = sTiles.keySet().iterator();
+		while (iter.hasNext())
+			if (((TileKey)iter.next()).iCache == this)
+				iter.remove();
+	}
+
+
+	//	Internal methods ------------------------------------------------------------
+
+	//	Return the rectangle of the pane covered by a tile.
+	protected Rectangle getTileBounds(int column, int row){
+		return new Rectangle(column * TILE_SIZE, row * TILE_SIZE, TILE_SIZE, TILE_SIZE);
+	}
+
+
+	//	Draw a tile from its contents.  May be called on the tile thread.
+	protected BufferedImage renderTile(TileContents contents, int column, int row){
+		BufferedImage tile = new BufferedImage(TILE_SIZE, TILE_SIZE,
+							iOpaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+		Rectangle bounds = this.getTileBounds(column, row);
+		Graphics2D g = tile.createGraphics();
+		try {
+			g.translate(-bounds.x, -bounds.y);
+			g.setClip(bounds);
+			contents.draw(g, bounds);
+		}
+		finally {
+			g.dispose();
+		}
+		return tile;
+	}
+
+
+	//	Start drawing a tile on the tile thread, unless we already have it or are already drawing it.
+	protected void prefetch(final TileKey tileKey){
+		if (sTiles.containsKey(tileKey) || iPrefetching.contains(tileKey))
+			return;
+		iPrefetching.add(tileKey);
+		final int generation = iGeneration;
+		final TileContents contents = iRenderer.getTileContents(this.getTileBounds(tileKey.iColumn, tileKey.iRow));
+
+		sTileThread.execute(new Runnable(){
+			public void run(){
+				BufferedImage tile = null;
+				if (generation == iGeneration){
+					try {
+						tile = renderTile(contents, tileKey.iColumn, tileKey.iRow);
+					}
+					catch (Throwable t){
+						//	The contents don't change, so this is a bug.  The tile will be drawn again
+						//	on the event dispatch thread when it is needed, where any failure is reported
+						//	to the user.
+						Debug.log(Debug.INTERNAL_FAILURES, "Could not draw tile in advance because " + t.toString());
+					}
+				}
+				final BufferedImage finishedTile = tile;
+				SwingUtilities.invokeLater(new Runnable(){
+					public void run(){
+						iPrefetching.remove(tileKey);
+						if (finishedTile != null && generation == iGeneration && !sTiles.containsKey(tileKey))
+							sTiles.put(tileKey, finishedTile);
+					}
+				});
+			}
+		});
+	}
+
+
+	//	Identifies one tile of one pane.
+	protected static class TileKey extends Object {
+		protected TileCache iCache;
+		protected Object iKey;
+		protected int iColumn, iRow;
+
+		public TileKey(TileCache cache, Object key, int column, int row){
+			iCache = cache;
+			iKey = key;
+			iColumn = column;
+			iRow = row;
+		}
+
+		public boolean equals(Object o){
+			if (!(o instanceof TileKey))
+				return false;
+			TileKey other = (TileKey)o;
+			return iCache == other.iCache && iColumn == other.iColumn && iRow == other.iRow && iKey.equals(other.iKey);
+		}
+
+		public int hashCode(){
+			return ((iKey.hashCode() * 31 + iColumn) * 31 + iRow) ^ System.identityHashCode(iCache);
+		}
+	}
+}
@@ -1,22 +1,73 @@
-//	TimeEdit.java - Represent an edit in which one or more time parameters of the state are changed.
-
-import java.util.*;
-import java.util.List;
-
-public class TimeEdit extends TLUndoableEdit {
-
-	protected long[] iDelta;			//	Change in each parameter (millis)
-	
-	
-	//	Constructor.
-	public TimeEdit(Set affectedStates, long[] del){
-		super(affectedStates);
-		
-		//	Use the delta array provided by our caller, without copying.
-		iDelta = del;
-	}
-	
-	
-	//	Accessors.
-	public long[] getDelta()			{		return iDelta;		}
-}
\ No newline at end of file
+//	TimeEdit.java - Represent an edit in which one or more time parameters of the state are changed.
+
+//	A TimeEdit shifts any number of states by the same per-parameter delta.  Since the delta is all that
+//	is needed to undo the change, this edit keeps no copies of the states' old values, and both doing
+//	and undoing it are a single pass over the affected states.  It is used for drags, including drags of
+//	multi-state selections, and for the Shift Times command.
+
+import javax.swing.undo.*;
+import java.util.*;
+import java.util.List;
+
+public class TimeEdit extends TLUndoableEdit {
+
+	// 	Constants ------------------------------------------------------------------------
+	protected static final String PRESENTATION_NAME = "time shift";
+	
+	
+	//	Instance variables ----------------------------------------------------------------
+	protected long[] iDelta;			//	Change in each parameter (millis)
+	
+	
+	//	Constructor.
+	public TimeEdit(Set affectedStates, long[] del){
+		super(affectedStates);
+		
+		//	Use the delta array provided by our caller, without copying.
+		Debug.assertOnError(del.length == TLState.PARAMETER_COUNT);
+		iDelta = del;
+	}
+	
+	
+	//	Accessors.
+	public long[] getDelta()			{		return iDelta;		}
+	
+	
+	//	doEdit() - Do the edit.  Normally called by the EditManager.
+	public void doEdit(TLDocument doc){
+		rememberDocument(doc);
+		
+		long now = System.currentTimeMillis();
+		for (int i = 0; i < iAffectedStates.length; i++)
+			iAffectedStates[i].setModifyTime(now);
+		iDoc.editShiftStates(this, iAffectedStates, iDelta, true);
+	}
+	
+	
+	//	undo() - Undo the edit.  Normally called by the EditManager.
+	public void undo() throws CannotUndoException {
+		super.undo();
+		
+		iDoc.editShiftStates(this, iAffectedStates, iDelta, false);
+	}
+	
+	
+	//	redo() - Redo the edit.  Normally called by the EditManager.
+	public void redo() throws CannotRedoException {
+		super.redo();
+		
+		this.doEdit(iDoc);
+	}
+	
+	
+	//	Describe this operation in a form that ends up in the undo menu item.
+	public String getPresentationName() {
+		return PRESENTATION_NAME;
+	}
+	
+	
+	//	Undo memory budget.
+	public int getRetainedSize(){
+		return super.getRetainedSize() + 16 + 8 * iDelta.length;
+	}
+}
@@ -1,343 +1,535 @@
-//	TimePositionMapping.java - Represent the relationship between time and position on a timeline pane.
-
-//	There are two elements to the time/position mapping:  the scaling factor, and the mapping period.
-//	The scaling factor defines how many milleseconds map to each pixel, and the mapping period defines the
-//	range of times over which the mapping is valid.
-//	(Technically, only the starting time of the mapping period is actually used (to define the graphics origin),
-//	but it is clearer to think about a period.)
-//	
-//	The mapping period computed as the document's time range, plus an optional "extra" range which is specified by the
-//	window through one of the ensureIncludedInMappedTimePeriod() methods.  Once an extra range is specified
-//	in this way, it remains in effect until a different one is requested, or the document's time range changes.
-//	It is possible, although rare, for there not to be a mapping at all.  This occurs, for example, when a blank document
-//	(which doesn't have a time range) is created.  However, as soon as a window is created to display this document,
-//	the mapping period is created to cover the width of the window.
-//
-//	The document notifies us if its time range changes, by calling documentTimeRangeChanged().
-//	The window notifies us if its scale changes, by calling setScale().  In either case, we notify the timeline,
-//	grid and drag panes of the change through the callbacks they've registered via addChangeListener().
-
-import java.util.*;
-import javax.swing.event.*;
-
-
-public class TimePositionMapping extends Object {
-
-	// 	Constants------------------------------------------------------------------------
-	public static final int SCALE_UNIT_SIZE = 20;	//	Width of the current scale unit.
-	public static final long MILLIS_INCLUDING_FEBRUARY28 = (new Date(76, 2, 29)).getTime() -
-											(new Date(76, 0, 1)).getTime();
-	
-	//	The number of extra units (of the current scale) which are allowed for as "margin" at the
-	//	beginning and ending of the timeline.
-	public static final int END_MARGIN = 3;
-
-	//	A table that maps time units (as defined by the constants defined in TimeUnit) into
-	//	the typical number of milleseconds in the unit.  N.B. These are typical values;  some of the
-	//	units (such as month and year) have a varying size.
-	protected static final long[] APPROX_MILLISECONDS_IN_UNIT = {	
-		1000,							//	SECOND
-		60 * 1000,						//	MINUTE
-		60 * 60 * 1000,					//	HOUR
-		24 * 60 * 60 * 1000,				//	DAY
-		7 * 24 * 60 * 60 * 1000,				//	WEEK
-		31L * 24 * 60 * 60 * 1000,			//	MONTH
-		365L * 24 * 60 * 60 * 1000,			//	YEAR
-	};
-
-	//	Instance variables.
-	protected TLDocument iDoc;					//	Document containing our data
-	protected TLWindow iWindow;				//	Window we're contained in
-	protected int iScale;						//	Current scale
-	protected TimePeriod iMappedPeriod;			//	Time period covered by mapping, or null
-	protected boolean iCyclicView;				//	Use cyclic form for view
-	protected long[] iCyclicBoundaries;			//	Start of each year enclosing mapped period, in millis
-	protected boolean [] iLeapYears;				//	For each entry in iCyclicBoundaries, is it a leap year?
-
-	//	These two variables define the mapping from time (milliseconds) to horizontal position.
-	//	iOriginMillis is really a cache of iMappedPeriod.getPeriodStart();
-	//	The document notifies us, by calling updateTimePositionMapping(), whenever the
-	//	document's time range changes.
-	protected long iOriginMillis;				//	Moment represented by the origin
-	protected long iMilliToPixelRatio;				//	Ratio of millis to screen pixels
-
-	/**
-	* Only one ChangeEvent is needed per TPM since the
-	* event's only (read-only) state is the source property.  The source
-	* of events generated here is always "this".
-	*/
-	protected transient ChangeEvent iChangeEvent = null;
-	protected EventListenerList iListenerList = new EventListenerList();
-
-
-	//	Constructor.
-	public TimePositionMapping(TLDocument itsDoc, TLWindow itsWindow, int scale, boolean cyclic){
-		iDoc = itsDoc;
-		iWindow = itsWindow;
-		iScale = scale;
-		iCyclicView = cyclic;
-		
-		//	Initialize our period to be that covered by the document.  Note that this may be
-		//	null if the document is empty.  
-		iMappedPeriod = iDoc.getDocTimePeriod();
-
-		//	Compute the mapping between time and space.
-		computeMilliToPixel();
-		if (iMappedPeriod != null)
-			computeTimePositionMapping();
-	}
-	
-	
-	//	Trivial accessors.
-	public boolean isCyclicView()			{	return iCyclicView;		}
-	
-	
-	//	Called (by TLDocument via TLWindow) when the document time range changes.
-	public void documentTimeRangeChanged(){
-		
-		//	Our mapped period is the cover of the document range, and the
-		//	period currently visible in the window.
-		ensureIncludedInMappedTimePeriod(iWindow.getVisiblePeriod());
-	}
-	
-	
-	//	Ensure that the passed time period is included in the mapped time period.
-	public void ensureIncludedInMappedTimePeriod(TimePeriod tr){
-		TimePeriod docRange = iDoc.getDocTimePeriod();
-		TimePeriod newMapRange;
-		if (docRange == null)
-			newMapRange = tr;
-		else
-			newMapRange = docRange.cover(tr);
-		if (!newMapRange.equals(iMappedPeriod)){
-			iMappedPeriod = newMapRange;
-			computeTimePositionMapping();
-		}
-	}
-	
-	
-	//	This calculates iMilliToPixelRatio, which is part of the time/position mapping.
-	protected void computeMilliToPixel(){
-		//	Determine the typical number of milliseconds occupied by one scale unit.
-	
-		//	Note that some instances of this scale unit may
-		//	be a different length, and thus will be slightly different in 
-		//	size on the screen.
-		long millisecondsInScaleUnit = APPROX_MILLISECONDS_IN_UNIT[iScale];
-			
-		//	Compute the number of milliseconds that must be represented by one pixel,
-		//	in order for the scale unit to be (on average) SCALE_UNIT_SIZE wide.
-		iMilliToPixelRatio = (millisecondsInScaleUnit / SCALE_UNIT_SIZE) + 1;
-	}
-	
-	
-	//	This must be called when any value that the mapping depends upon is changed.  At present,
-	//	these are the TPM time range and the scale.
-	protected void computeTimePositionMapping(){
-	
-		//	A mapped period must be determined before this method can function.
-		//	Verify that this has been done.
-		Debug.assertOnError(iMappedPeriod != null);
-		
-		//	Determine the typical number of milliseconds occupied by one scale unit.
-		computeMilliToPixel();
-				
-		if (iCyclicView){
-			
-			//	Build the cyclic boundary array.  To make finding the appropriate entry as
-			//	simple as possible, we build the array so that it "encloses" the mapped period.
-			//	The first entry in the array is the start of the nearest leap year before the start of the 
-			//	mapped period;  the last entry in the array is the start of the year _after_ the
-			//	end of the mapped period.
-			CustomGregorianCalendar cal = new CustomGregorianCalendar();
-			
-			//	Find the years in which the mapped period starts and ends.
-			cal.setTimeInMillis(iMappedPeriod.getPeriodStart());
-			cal.truncateToLower(Calendar.YEAR);
-			int startingYear = cal.get(Calendar.YEAR);
-
-			cal.clear();
-			cal.setTimeInMillis(iMappedPeriod.getPeriodEnd());
-			cal.truncateToLower(Calendar.YEAR);
-			cal.roll(Calendar.YEAR, true);
-			int endingYear = cal.get(Calendar.YEAR);
-			
-			//	Find the nearest year at or before the starting year of the mapped period
-			//	which is a leap year.
-			//	Compute the length of the array.
-			while (!cal.isLeapYear(startingYear))
-				--startingYear;
-			int arraySize = endingYear - startingYear + 1;
-			
-			//	Allocate the arrays.
-			iCyclicBoundaries = new long[arraySize];
-			iLeapYears = new boolean[arraySize];
-			
-			//	Fill in the array.
-			cal.clear();
-			cal.set(startingYear, 0, 1);
-			cal.truncateToLower(Calendar.YEAR);
-			for (int i = 0; i < arraySize; i++){
-				iCyclicBoundaries[i] = cal.getTimeInMillis();
-				iLeapYears[i] = cal.isLeapYear(cal.get(Calendar.YEAR));
-				cal.roll(Calendar.YEAR, true);
-			}
-			iOriginMillis = iCyclicBoundaries[0];
-		}
-		else {
-			//	Compute the origin moment, as expressed in millis, as the lower bound of the
-			//	TPM period, truncated down to the next lower whole scale unit.
-			CustomGregorianCalendar temp = new CustomGregorianCalendar();
-			long startTime = iMappedPeriod.getPeriodStart();
-			long startWithMargin = startTime - END_MARGIN * APPROX_MILLISECONDS_IN_UNIT[iScale];
-			temp.setTimeInMillis(startWithMargin);
-			temp.truncateToLower(iScale);
-			iOriginMillis = temp.getTimeInMillis();
-		}
-		
-		//	Notify all panes that the mapping has changed.
-		fireStateChanged();
-	}
-	
-	
-	//	Return the width of the timeline, in pixels.  This width is zero if the mapped period is not defined.
-	public int getTimelineWidth(){
-		if (iMappedPeriod != null){
-			if (iCyclicView)
-				return timeDeltaToXDelta(APPROX_MILLISECONDS_IN_UNIT[TimeUnit.YEAR] +
-								APPROX_MILLISECONDS_IN_UNIT[TimeUnit.DAY]);
-			else {
-				long endTime = iMappedPeriod.getPeriodEnd();
-				long endWithMargin = endTime + END_MARGIN * APPROX_MILLISECONDS_IN_UNIT[iScale];
-				return timeToXPosition(endWithMargin);
-			}
-		}
-		else
-			return 0;
-	}
-
-
-	//	Translate a moment in time (expressed in millis) into a horizontal location in the pane 
-	//	(expressed in drawing coordinates).
-	public int timeToXPosition(long millis){
-		long value;
-		if (!iCyclicView){
-			value = (millis - iOriginMillis)/iMilliToPixelRatio;
-			if (Debug.sCurLevel > 0)
-				Debug.assertOnError((value > 0) && (value < Integer.MAX_VALUE));
-		}
-		else {
-			//	Search through boundary array, until we find the start of the year containing this time.
-			//	??	Could do a binary search and/or cache the last value found.
-			int i;
-			for (i = 0;  i <  iCyclicBoundaries.length - 1; i++){
-				if (iCyclicBoundaries[i] <= millis && millis < iCyclicBoundaries[i+1])
-					break;
-				Debug.assertOnError( i < iCyclicBoundaries.length - 1);
-			}
-			long millisSinceStartOfYear = millis - iCyclicBoundaries[i];
-			
-			//	Adjust for leap years.  The cyclic view is always a leap year.  If the time we're converting
-			//	is not in a leap year, and it is after February 28, add in one day, so that, for example,
-			//	July 1 in the source year converts to July 1 in the target yet.
-			if (!iLeapYears[i] & millisSinceStartOfYear >= MILLIS_INCLUDING_FEBRUARY28)
-				millisSinceStartOfYear += APPROX_MILLISECONDS_IN_UNIT[TimeUnit.DAY];
-			
-			//	Compute the final X offset in pixels.
-			value = (millisSinceStartOfYear)/iMilliToPixelRatio;
-		}
-		
-		return (int)value;
-	}
-
-
-	//	Translate a horizontal position in the pane (in drawing coordinates) into a moment of time
-	//	(in millis).
-	public long xPositionToTime(int x){
-		return ((long)x * iMilliToPixelRatio) + iOriginMillis;
-	}
-
-
-	//	Translate a horizontal delta (in pixels) into a time delta (in millis).
-	public long xDeltaToTimeDelta(int d){
-		return (long)d * iMilliToPixelRatio;
-	}
-
-
-	//	Translate a time delta (in millis) into a hoirizontal delta (in pixels).
-	public int timeDeltaToXDelta(long d){
-		return (int)(d / iMilliToPixelRatio);
-	}
-
-
-	//	Get this pane's scale.
-	public int getScale(){
-		return iScale;
-	}
-	
-	
-	//	Change this pane's scale.
-	public void setScale(int newScale){
-		iScale = newScale;
-		computeTimePositionMapping();
-	}
-	
-	
-	//	Change whether the timeline is displayed in cyclic form.
-	public void setCyclicView(boolean cyclic){
-		iCyclicView = cyclic;
-		computeTimePositionMapping();
-	}
-	
-	
-	//	Return the time period supported by this mapping.
-	public TimePeriod getMappedPeriod(){
-		return iMappedPeriod;
-	}
-	
-	
-	    /**
-     * Adds a ChangeListener.  The change listeners are run each
-     * time any one of the Bounded Range model properties changes.
-     *
-     * @param l the ChangeListener to add
-     * @see #removeChangeListener
-     */
-    public void addChangeListener(ChangeListener l) {
-        iListenerList.add(ChangeListener.class, l);
-    }
-    
-
-    /**
-     * Removes a ChangeListener.
-     *
-     * @param l the ChangeListener to remove
-     * @see #addChangeListener
-     */
-    public void removeChangeListener(ChangeListener l) {
-        iListenerList.remove(ChangeListener.class, l);
-    }
-
-
-    /** 
-     * Run each ChangeListeners stateChanged() method.
-     * 
-     * @see #setRangeProperties
-     * @see EventListenerList
-     */
-    protected void fireStateChanged() 
-    {
-        Object[] listeners = iListenerList.getListenerList();
-        for (int i = listeners.length - 2; i >= 0; i -=2 ) {
-            if (listeners[i] == ChangeListener.class) {
-                if (iChangeEvent == null) {
-                    iChangeEvent = new ChangeEvent(this);
-                }
-                ((ChangeListener)listeners[i+1]).stateChanged(iChangeEvent);
-            }          
-        }
-    }   
-
-    
-
+//	TimePositionMapping.java - Represent the relationship between time and position on a timeline pane.
+
+//	There are two elements to the time/position mapping:  the scaling factor, and the mapping period.
+//	The scaling factor defines how many milleseconds map to each pixel, and the mapping period defines the
+//	range of times over which the mapping is valid.
+//	(Technically, only the starting time of the mapping period is actually used (to define the graphics origin),
+//	but it is clearer to think about a period.)
+//	
+//	The mapping period computed as the document's time range, plus an optional "extra" range which is specified by the
+//	window through one of the ensureIncludedInMappedTimePeriod() methods.  Once an extra range is specified
+//	in this way, it remains in effect until a different one is requested, or the document's time range changes.
+//	It is possible, although rare, for there not to be a mapping at all.  This occurs, for example, when a blank document
+//	(which doesn't have a time range) is created.  However, as soon as a window is created to display this document,
+//	the mapping period is created to cover the width of the window.
+//
+//	At fine scales, a long document can map to more pixels than an int can hold, or than it is sensible to
+//	make a Swing component.  So positions are really "logical" X coordinates, held in longs, measured from
+//	the origin of the whole timeline.  The panes are never made wider than MAX_PANE_WIDTH;  when the timeline
+//	is wider than that, they show a window onto it, starting at logical position iViewOriginX, and the
+//	positions handed out as ints are relative to that.  Positions far off either side of the panes are pinned
+//	to OFF_PANE_LIMIT, and states that far off aren't displayed at all (see isInView()).  The window moves,
+//	by ensureInView(), when the window scrolls near an edge of the panes or to a time outside them.
+//	For timelines no wider than MAX_PANE_WIDTH, the view origin is always zero, and logical and pane
+//	positions are the same.
+//
+//	The scaling factor needn't be a whole number of millis per pixel, so that the timeline can be zoomed
+//	smoothly (see setMillisPerPixel()).  It, and the origin, are kept in FRACTIONS_PER_MILLI parts of a
+//	milli, so positions can still be computed, and the origin moved by whole pixels, exactly.  The scale--
+//	the time unit the grid is drawn in--is the shortest unit at least SCALE_UNIT_SIZE pixels wide.  At the
+//	ratios setScale() sets, it is exactly that wide.
+//
+//	The document notifies us if its time range changes, by calling documentTimeRangeChanged().
+//	The window notifies us if its scale changes, by calling setScale().  In either case, we notify the timeline,
+//	grid and drag panes of the change through the callbacks they've registered via addChangeListener().
+
+import java.util.*;
+import javax.swing.event.*;
+
+
+public class TimePositionMapping extends Object implements Cloneable {
+
+	// 	Constants------------------------------------------------------------------------
+	public static final int SCALE_UNIT_SIZE = 20;	//	Width of the current scale unit.
+	
+	//	The ratio of millis to pixels, and the origin, are kept in this many parts of a milli.
+	protected static final long FRACTIONS_PER_MILLI = 1 << 10;
+	
+	//	The number of extra units (of the current scale) which are allowed for as "margin" at the
+	//	beginning and ending of the timeline.
+	public static final int END_MARGIN = 3;
+	
+	//	The widest the timeline panes are made, in pixels.  Wider timelines are shown through a window this wide.
+	public static final int MAX_PANE_WIDTH = 1 << 20;
+	
+	//	Positions further than this off either side of the panes are pinned here, so that nothing measured from
+	//	them can overflow.
+	protected static final int OFF_PANE_LIMIT = 1 << 28;
+	
+	//	States within this many pixels of either side of the panes are displayed, since their labels may reach
+	//	onto them.
+	protected static final int VIEW_MARGIN = 2048;
+	
+	//	The view is moved once the visible part of the window comes this close to either side of the panes.
+	protected static final int VIEW_EDGE = MAX_PANE_WIDTH / 8;
+
+	//	A table that maps time units (as defined by the constants defined in TimeUnit) into
+	//	the typical number of milleseconds in the unit.  N.B. These are typical values;  some of the
+	//	units (such as month and year) have a varying size.
+	protected static final long[] APPROX_MILLISECONDS_IN_UNIT = {	
+		1000,							//	SECOND
+		60 * 1000,						//	MINUTE
+		60 * 60 * 1000,					//	HOUR
+		24 * 60 * 60 * 1000,				//	DAY
+		7 * 24 * 60 * 60 * 1000,				//	WEEK
+		31L * 24 * 60 * 60 * 1000,			//	MONTH
+		365L * 24 * 60 * 60 * 1000,			//	YEAR
+	};
+
+	//	Instance variables.
+	protected TLDocument iDoc;					//	Document containing our data
+	protected TLWindow iWindow;				//	Window we're contained in
+	protected int iScale;						//	Current scale
+	protected TimePeriod iMappedPeriod;			//	Time period covered by mapping, or null
+	protected boolean iCyclicView;				//	Use cyclic form for view
+	protected CyclicMapping iCyclicMapping;		//	Positions within the year, for the cyclic view
+
+	//	These two variables define the mapping from time (milliseconds) to horizontal position, both in
+	//	FRACTIONS_PER_MILLI parts of a milli.  iScaledOrigin is derived from iMappedPeriod.getPeriodStart(), but
+	//	when the mapped period grows without a change of scale, it only moves by whole pixels, so that positions
+	//	already computed can simply be shifted.  The document notifies us, by calling documentTimeRangeChanged(),
+	//	whenever the document's time range changes.
+	protected long iScaledOrigin;				//	Moment represented by the origin
+	protected long iScaledRatio;				//	Ratio of millis to screen pixels
+	protected long iViewOriginX;					//	Logical position of the left edge of the panes
+
+	protected GridModel iGridModel;				//	Grid lines for this mapping, or null if not computed yet
+
+	protected EventListenerList iListenerList = new EventListenerList();
+
+
+	//	Constructor.
+	public TimePositionMapping(TLDocument itsDoc, TLWindow itsWindow, int scale, boolean cyclic){
+		iDoc = itsDoc;
+		iWindow = itsWindow;
+		iScale = scale;
+		iScaledRatio = TimePositionMapping.scaleToRatio(scale);
+		iCyclicView = cyclic;
+		
+		//	Initialize our period to be that covered by the document.  Note that this may be
+		//	null if the document is empty.  
+		iMappedPeriod = iDoc.getDocTimePeriod();
+
+		//	Compute the mapping between time and space.
+		if (iMappedPeriod != null)
+			computeTimePositionMapping();
+	}
+	
+	
+	//	Trivial accessors.
+	public boolean isCyclicView()			{	return iCyclicView;		}
+	public long getOriginMillis()			{	return CalendarEngine.floorDiv(iScaledOrigin, FRACTIONS_PER_MILLI);		}
+	public long getScaledOrigin()			{	return iScaledOrigin;		}
+	public long getScaledRatio()			{	return iScaledRatio;		}
+	public long getViewOriginX()			{	return iViewOriginX;		}
+	
+	
+	//	Called (by TLDocument via TLWindow) when the document time range changes.
+	public void documentTimeRangeChanged(){
+		
+		//	Our mapped period is the cover of the document range, and the
+		//	period currently visible in the window.
+		ensureIncludedInMappedTimePeriod(iWindow.getVisiblePeriod());
+	}
+	
+	
+	//	Ensure that the passed time period is included in the mapped time period.
+	public void ensureIncludedInMappedTimePeriod(TimePeriod tr){
+		TimePeriod docRange = iDoc.getDocTimePeriod();
+		TimePeriod newMapRange;
+		if (docRange == null)
+			newMapRange = tr;
+		else
+			newMapRange = docRange.cover(tr);
+		if (!newMapRange.equals(iMappedPeriod)){
+			boolean hadMapping = (iMappedPeriod != null);
+			boolean wasVirtual = this.isVirtual();
+			long oldScaledOrigin = iScaledOrigin;
+			long oldViewOriginX = iViewOriginX;
+			iMappedPeriod = newMapRange;
+			computeTimePositionMapping();
+			
+			//	If there was no mapping before, everything has to be positioned from scratch.  In the
+			//	cyclic view, positions are measured from the start of each year, so they never move.
+			if (!hadMapping)
+				fireStateChanged(TPMChangeEvent.SCALE_CHANGE, 0);
+			else if (iCyclicView)
+				fireStateChanged(TPMChangeEvent.RANGE_CHANGE, 0);
+			else {
+			
+				//	Move the origin to where computeTimePositionMapping() put it, rounded to a whole number
+				//	of pixels from the old origin.  Round so that it moves earlier, keeping at least
+				//	the margin that computeTimePositionMapping() allowed for.
+				long delta = oldScaledOrigin - iScaledOrigin;
+				long xShift = delta / iScaledRatio;
+				if (xShift * iScaledRatio < delta)
+					xShift++;
+				iScaledOrigin = oldScaledOrigin - xShift * iScaledRatio;
+				
+				//	If the timeline is, or was, too wide to show all of, keep the panes on the same times if
+				//	we can.  If they have to move, what is near enough to them to display changes.
+				if (wasVirtual || this.isVirtual()){
+					iViewOriginX = this.clampViewOrigin(oldViewOriginX + xShift);
+					long paneShift = oldViewOriginX + xShift - iViewOriginX;
+					if (paneShift == 0 && wasVirtual == this.isVirtual())
+						fireStateChanged(TPMChangeEvent.RANGE_CHANGE, 0);
+					else
+						fireStateChanged(TPMChangeEvent.VIEW_SHIFT, this.pinToPane(paneShift));
+				}
+				else if (xShift == 0)
+					fireStateChanged(TPMChangeEvent.RANGE_CHANGE, 0);
+				else
+					fireStateChanged(TPMChangeEvent.ORIGIN_SHIFT, (int)xShift);
+			}
+		}
+	}
+	
+	
+	//	Return the ratio of millis to pixels, in FRACTIONS_PER_MILLI parts of a milli, at which a scale unit is
+	//	(on average) SCALE_UNIT_SIZE wide.  Note that some instances of the unit may be a different length,
+	//	and thus will be slightly different in size on the screen.
+	protected static long scaleToRatio(int scale){
+		return (APPROX_MILLISECONDS_IN_UNIT[scale] / SCALE_UNIT_SIZE + 1) * FRACTIONS_PER_MILLI;
+	}
+	
+	
+	//	Return the scale for a ratio of millis to pixels:  the shortest unit at least (about) SCALE_UNIT_SIZE
+	//	pixels wide.
+	protected static int ratioToScale(long scaledRatio){
+		int scale = TimeUnit.MIN_VALUE;
+		while (scale < TimeUnit.MAX_VALUE && scaledRatio > TimePositionMapping.scaleToRatio(scale))
+			scale++;
+		return scale;
+	}
+	
+	
+	//	This must be called when any value that the mapping depends upon is changed.  At present,
+	//	these are the TPM time range and the ratio of millis to pixels.
+	protected void computeTimePositionMapping(){
+	
+		//	A mapped period must be determined before this method can function.
+		//	Verify that this has been done.
+		Debug.assertOnError(iMappedPeriod != null);
+		
+		if (iCyclicView){
+			
+			//	Find the start of each year enclosing the mapped period.  The first is the start of the nearest
+			//	leap year at or before the start of the mapped period.
+			iCyclicMapping = new CyclicMapping(CalendarEngine.getDefault(), iMappedPeriod.getPeriodStart(),
+						iMappedPeriod.getPeriodEnd());
+			iScaledOrigin = iCyclicMapping.getOriginMillis() * FRACTIONS_PER_MILLI;
+		}
+		else {
+			//	Compute the origin moment, as expressed in millis, as the lower bound of the
+			//	TPM period, truncated down to the next lower whole scale unit.
+			long startTime = iMappedPeriod.getPeriodStart();
+			long startWithMargin = startTime - END_MARGIN * APPROX_MILLISECONDS_IN_UNIT[iScale];
+			iScaledOrigin = CalendarEngine.getDefault().truncate(startWithMargin, iScale) * FRACTIONS_PER_MILLI;
+		}
+		
+		//	The timeline may now be narrower than it was.
+		iViewOriginX = this.clampViewOrigin(iViewOriginX);
+	}
+	
+	
+	//	Return the width of the timeline panes, in pixels.  This width is zero if the mapped period is not defined.
+	public int getTimelineWidth(){
+		return (int)Math.min(MAX_PANE_WIDTH, this.getLogicalWidth() - iViewOriginX);
+	}
+	
+	
+	//	Return the width of the whole timeline, in pixels.  This width is zero if the mapped period is not defined.
+	public long getLogicalWidth(){
+		if (iMappedPeriod != null){
+			if (iCyclicView)
+				return (APPROX_MILLISECONDS_IN_UNIT[TimeUnit.YEAR] + APPROX_MILLISECONDS_IN_UNIT[TimeUnit.DAY]) *
+								FRACTIONS_PER_MILLI / iScaledRatio;
+			else {
+				long endTime = iMappedPeriod.getPeriodEnd();
+				long endWithMargin = endTime + END_MARGIN * APPROX_MILLISECONDS_IN_UNIT[iScale];
+				return timeToLogicalX(endWithMargin);
+			}
+		}
+		else
+			return 0;
+	}
+	
+	
+	//	Report whether the timeline is too wide for the panes to show all of it.
+	public boolean isVirtual(){
+		return this.getLogicalWidth() > MAX_PANE_WIDTH;
+	}
+
+
+	//	Translate a moment in time (expressed in millis) into a horizontal location in the pane 
+	//	(expressed in drawing coordinates).  Moments far off the pane are pinned to OFF_PANE_LIMIT.
+	public int timeToXPosition(long millis){
+		return this.pinToPane(this.timeToLogicalX(millis) - iViewOriginX);
+	}
+
+
+	//	Translate a moment in time (expressed in millis) into a horizontal location on the whole timeline.
+	public long timeToLogicalX(long millis){
+		long value;
+		if (!iCyclicView){
+			value = CalendarEngine.floorDiv(millis * FRACTIONS_PER_MILLI - iScaledOrigin, iScaledRatio);
+		}
+		else {
+			//	Positions are measured from the start of the year, with every year drawn as a leap year.
+			value = iCyclicMapping.timeToCycleMillis(millis) * FRACTIONS_PER_MILLI / iScaledRatio;
+		}
+		
+		return value;
+	}
+
+
+	//	Translate a horizontal position in the pane (in drawing coordinates) into a moment of time
+	//	(in millis).
+	public long xPositionToTime(int x){
+		return CalendarEngine.floorDiv((x + iViewOriginX) * iScaledRatio + iScaledOrigin, FRACTIONS_PER_MILLI);
+	}
+
+
+	//	Translate a horizontal position in the pane into a moment of time.  In the cyclic view, where every
+	//	year is drawn in the same place, the moment is in the year containing nearMillis.
+	public long xPositionToTime(int x, long nearMillis){
+		if (!iCyclicView)
+			return this.xPositionToTime(x);
+		return iCyclicMapping.cycleMillisToTime((x + iViewOriginX) * iScaledRatio / FRACTIONS_PER_MILLI, nearMillis);
+	}
+
+
+	//	Report whether a period is near enough to the part of the timeline the panes show to be displayed.
+	//	Always true unless the timeline is too wide to show all of.
+	public boolean isInView(long fromMillis, long toMillis){
+		if (!this.isVirtual())
+			return true;
+		long fromX = this.timeToLogicalX(fromMillis);
+		long toX = this.timeToLogicalX(toMillis);
+		
+		//	In the cyclic view, a period can wrap around the end of the year.
+		if (toX < fromX)
+			return true;
+		return toX >= iViewOriginX - VIEW_MARGIN && fromX <= iViewOriginX + MAX_PANE_WIDTH + VIEW_MARGIN;
+	}
+	
+	
+	//	If the timeline is too wide to show all of, and the period from fromMillis to toMillis isn't well
+	//	inside the part the panes show, move the panes to center it.  Returns the number of pixels added
+	//	to every X position (pinned to OFF_PANE_LIMIT), which is zero if the panes didn't move.
+	public int ensureInView(long fromMillis, long toMillis){
+		if (!this.isVirtual())
+			return 0;
+		long fromX = this.timeToLogicalX(fromMillis) - iViewOriginX;
+		long toX = this.timeToLogicalX(toMillis) - iViewOriginX;
+		if (fromX >= VIEW_EDGE && toX <= MAX_PANE_WIDTH - VIEW_EDGE)
+			return 0;
+		
+		long newViewOriginX = this.clampViewOrigin(iViewOriginX + (fromX + toX) / 2 - MAX_PANE_WIDTH / 2);
+		if (newViewOriginX == iViewOriginX)
+			return 0;
+		int xShift = this.pinToPane(iViewOriginX - newViewOriginX);
+		iViewOriginX = newViewOriginX;
+		fireStateChanged(TPMChangeEvent.VIEW_SHIFT, xShift);
+		return xShift;
+	}
+
+
+	//	Limit a logical position, relative to the view origin, to what can safely be used on the panes.
+	protected int pinToPane(long x){
+		return (int)Math.max(-OFF_PANE_LIMIT, Math.min(OFF_PANE_LIMIT, x));
+	}
+	
+	
+	//	Limit a view origin to the positions that keep the panes within the timeline.
+	protected long clampViewOrigin(long viewOriginX){
+		return Math.max(0, Math.min(viewOriginX, this.getLogicalWidth() - MAX_PANE_WIDTH));
+	}
+	
+	
+	//	Put the view origin where the panes are centered on a moment, as far as it can go.  No event is fired.
+	protected void centerViewOn(long millis){
+		if (iMappedPeriod != null)
+			iViewOriginX = this.clampViewOrigin(this.timeToLogicalX(millis) - MAX_PANE_WIDTH / 2);
+	}
+	
+	
+	//	Translate a horizontal delta (in pixels) into a time delta (in millis).
+	public long xDeltaToTimeDelta(int d){
+		return (long)d * iScaledRatio / FRACTIONS_PER_MILLI;
+	}
+
+
+	//	Translate a time delta (in millis) into a hoirizontal delta (in pixels).
+	public int timeDeltaToXDelta(long d){
+		return (int)(d * FRACTIONS_PER_MILLI / iScaledRatio);
+	}
+
+
+	//	Get this pane's scale.
+	public int getScale(){
+		return iScale;
+	}
+	
+	
+	//	Report whether the ratio of millis to pixels is exactly the one setScale() sets for the scale, rather
+	//	than somewhere between that and the next smaller scale's.
+	public boolean isScaleExact(){
+		return iScaledRatio == TimePositionMapping.scaleToRatio(iScale);
+	}
+	
+	
+	//	Return the number of millis each pixel represents.
+	public double getMillisPerPixel(){
+		return (double)iScaledRatio / FRACTIONS_PER_MILLI;
+	}
+	
+	
+	//	Change this pane's scale, keeping the moment at the middle of the panes there.
+	public void setScale(int newScale){
+		this.setScale(newScale, this.xPositionToTime(this.getTimelineWidth() / 2));
+	}
+	
+	
+	//	Change this pane's scale.  If the timeline becomes too wide to show all of, the panes are centered on
+	//	the given moment.
+	public void setScale(int newScale, long centerMillis){
+		iScale = newScale;
+		iScaledRatio = TimePositionMapping.scaleToRatio(newScale);
+		computeTimePositionMapping();
+		this.centerViewOn(centerMillis);
+		fireStateChanged(TPMChangeEvent.SCALE_CHANGE, 0);
+	}
+	
+	
+	//	Change the number of millis each pixel represents, as one step of a continuous zoom, limited to the
+	//	range between the smallest and largest scales.  The scale becomes the unit suited to the new ratio.
+	//	If the timeline becomes too wide to show all of, the panes are centered on the given moment.  Listeners
+	//	are given a copy of the mapping as it was before the step.  Returns false, without doing anything, if
+	//	the ratio is already at the limit.
+	public boolean setMillisPerPixel(double millisPerPixel, long centerMillis){
+		long scaledRatio = Math.round(millisPerPixel * FRACTIONS_PER_MILLI);
+		scaledRatio = Math.max(TimePositionMapping.scaleToRatio(TimeUnit.MIN_VALUE),
+					Math.min(TimePositionMapping.scaleToRatio(TimeUnit.MAX_VALUE), scaledRatio));
+		if (scaledRatio == iScaledRatio)
+			return false;
+		TimePositionMapping previous = this.copyMapping();
+		iScaledRatio = scaledRatio;
+		iScale = TimePositionMapping.ratioToScale(scaledRatio);
+		computeTimePositionMapping();
+		this.centerViewOn(centerMillis);
+		fireStateChanged(TPMChangeEvent.ZOOM_STEP, 0, previous);
+		return true;
+	}
+	
+	
+	//	Return a copy of this mapping, for use by another thread while this one goes on changing.  The
+	//	copy never changes, and has no listeners.
+	public TimePositionMapping copyMapping(){
+		TimePositionMapping copy;
+		try {
+			copy = (TimePositionMapping)this.clone();
+		}
+		catch (CloneNotSupportedException e){
+			throw new ImplementationException(e.toString());
+		}
+		
+		//	The cyclic mapping is replaced, never changed, when the mapping is computed, so it can be shared.
+		copy.iListenerList = new EventListenerList();
+		return copy;
+	}
+	
+	
+	//	Return the grid lines for this mapping, covering at least the span from startX to endX.  The model
+	//	is shared by all the GridPanes using this mapping, and made again only when the mapping changes, or
+	//	a span it doesn't cover is asked for.  Synchronized because GridPanes also draw on the tile thread.
+	public synchronized GridModel getGridModel(int startX, int endX){
+		if (iGridModel == null || !iGridModel.covers(startX, endX))
+			iGridModel = new GridModel(this, startX, endX);
+		return iGridModel;
+	}
+	
+	
+	//	Return the grid lines for this mapping, covering the span from startX to endX.  Unlike getGridModel(),
+	//	a model made here covers only that span, for painting during a continuous zoom, when the mapping
+	//	changes too often for a model of the whole timeline to be worth making.
+	public synchronized GridModel getGridModelForSpan(int startX, int endX){
+		if (iGridModel == null || !iGridModel.covers(startX, endX))
+			iGridModel = new GridModel(this, startX, endX, true);
+		return iGridModel;
+	}
+	
+	
+	//	Change whether the timeline is displayed in cyclic form.
+	public void setCyclicView(boolean cyclic){
+		long centerMillis = this.xPositionToTime(this.getTimelineWidth() / 2);
+		iCyclicView = cyclic;
+		computeTimePositionMapping();
+		this.centerViewOn(centerMillis);
+		fireStateChanged(TPMChangeEvent.CYCLIC_CHANGE, 0);
+	}
+	
+	
+	//	Return the time period supported by this mapping.
+	public TimePeriod getMappedPeriod(){
+		return iMappedPeriod;
+	}
+	
+	
+	    /**
+     * Adds a ChangeListener.  The change listeners are run each
+     * time any one of the Bounded Range model properties changes.
+     *
+     * @param l the ChangeListener to add
+     * @see #removeChangeListener
+     */
+    public void addChangeListener(ChangeListener l) {
+        iListenerList.add(ChangeListener.class, l);
+    }
+    
+
+    /**
+     * Removes a ChangeListener.
+     *
+     * @param l the ChangeListener to remove
+     * @see #addChangeListener
+     */
+    public void removeChangeListener(ChangeListener l) {
+        iListenerList.remove(ChangeListener.class, l);
+    }
+
+
+    /** 
+     * Run each ChangeListeners stateChanged() method, passing a TPMChangeEvent
+     * describing the change.
+     * 
+     * @see TPMChangeEvent
+     * @see EventListenerList
+     */
+    protected void fireStateChanged(int kind, int xShift) 
+    {
+        this.fireStateChanged(kind, xShift, null);
+    }
+    
+    protected void fireStateChanged(int kind, int xShift, TimePositionMapping previousMapping) 
+    {
+        //	Every kind of change can move or add grid lines.
+        synchronized (this){
+            iGridModel = null;
+        }
+        
+        Object[] listeners = iListenerList.getListenerList();
+        TPMChangeEvent changeEvent = null;
+        for (int i = listeners.length - 2; i >= 0; i -=2 ) {
+            if (listeners[i] == ChangeListener.class) {
+                if (changeEvent == null) {
+                    changeEvent = new TPMChangeEvent(this, kind, xShift, previousMapping);
+                }
+                ((ChangeListener)listeners[i+1]).stateChanged(changeEvent);
+            }          
+        }
+    }   
+
+    
+
 }
\ No newline at end of file
@@ -1,290 +1,895 @@
-//	TimelinePane.java - Graphically display a timeline.
-
-import java.awt.*;
-import java.util.*;
-import java.util.List;
-import javax.swing.*;
-import javax.swing.event.*;
-
-
-import java.awt.event.*;
-
-public class TimelinePane extends JComponent implements ChangeListener {
-
-	// 	Constants------------------------------------------------------------------------
-
-
-
-	//	Instance variables----------------------------------------------------------------
-	protected TLDocument iDoc;					//	Document containing our data
-	protected TLWindow iWindow;				//	The window that we're a part of
-	protected TimePositionMapping iTPM;			//	Maps time to space on this pane
-	protected Placer iPlacer;					//	Arranges the contents of this pane
-	
-	protected Map iDisplayMap;					//	Maps all DisplayedStates to their TLStates
-	
-
-	//	Constructor---------------------------------------------------------------------
-	public TimelinePane(TLDocument itsDoc, TLWindow window, TimePositionMapping tpm){
-		iDoc = itsDoc;
-		iWindow = window;
-		iTPM = tpm;
-		
-		//	Initialize this object.
-		iDisplayMap = new HashMap();
-		iPlacer = new Placer();
-		
-		//	Set up our relationships with other objects.
-		iTPM.addChangeListener(this);
-		iDoc.addChangeListener(this); 
-
-		//	Initialize our properties as a Swing component.
-		//	??	I think that the alignment values are only needed because of a bug
-		//	??	in SizeRequirements.calculateAlignedPositions() in Swing 1.0.3.  
-		this.setFont(DisplayedState.LABEL_FONT);
-		this.setAlignmentX(LEFT_ALIGNMENT);
-		this.setAlignmentY(TOP_ALIGNMENT);
-		
-		//	??	Temporary dummies...
-		this.addToDisplayMap(iDoc.getStatesByStartList());
-		this.computeObjectDimensions();
-		iPlacer.assignToLevel(iDisplayMap.keySet());
-		
-		//	Compute the physical size of this pane.  
-		//	This has to happen AFTER we create the first display map.
-		this.updatePaneSize();
-	}
-	
-	
-    //	??	Following borrowed from SystemEventQueueUtilities for bug workaround in paintComponent() below.
-    private static class SystemEventQueue 
-    {
-        private static Toolkit tk = null;
-
-	// Return the AWT system event queue.  JDK1.2 applications 
-	// and PlugIn enabled browsers allow direct access to the 
-	// applet specific system event queue.
-	//
-	static EventQueue get() {
-            if (tk == null) {
-	        tk = Toolkit.getDefaultToolkit();
-	    }
-	    return tk.getSystemEventQueue();
-	}
-
-	static EventQueue get(JRootPane rootPane) {
-	    return rootPane.getToolkit().getSystemEventQueue();
-	}
-    }
-
-
-	//	Override of Swing standard method paintComponent().
-	protected void paintComponent(Graphics g) {
-		
-		//	??	Workaround for Swing bug.  When the mouse button is held down in a scrollbar arrow,
-		//	??	the scrollbar's value is updated every 100 mS.  If it takes longer than 100 mS to draw the
-		//	??	scrolled view, the Timer events back up in the system event queue, and prevent the
-		//	??	mouse-up from being recognized.  
-		//	??	As a workaround, peek into the system event queue, and see if there is another scrollbar 
-		//	??	update event in the queue.  If there is, just return without drawing.
-		//	??	The event ID is the one used by RunnableEvent.
-		//	??	THIS IS CURRENTLY DISABLED, BECAUSE IMPROVEMENTS IN DRAW SPEED MADE
-		//	??	IT LESS NEEDED, AND BECAUSE THE REFRESH PROBLEMS IT CAUSES ARE
-		//	??	INTRUSIVE.
-		AWTEvent evt = SystemEventQueue.get().peekEvent(AWTEvent.RESERVED_ID_MAX + 1000);
-		if (false && evt != null)
-			return;
-		
-		long startTime = System.currentTimeMillis();
-		this.drawDataObjects(g, iDisplayMap.keySet());
-		if (Debug.DISPLAY_TIMINGS)
-			System.out.println((System.currentTimeMillis() - startTime) + " mS. to paint TimelinePane");
-	 }
-	 
-	 
-	 //	Draw all data objects in a Collection.
-	 protected void drawDataObjects(Graphics g, Collection c){
-	 
-	 	//	Iterate through all objects, and draw each one.
-	        Rectangle clipRect = g.getClipBounds();	        
-	 	Iterator iter = c.iterator();	 	while (iter.hasNext()){
-	 		DisplayedState dObj = (DisplayedState)iter.next();
-	        		dObj.draw(g, clipRect);
-	 	}
-	 }
-	 
-	 
-	//	Request a repaint of all objects in a Collection.
-	protected void repaintDataObjects(Collection c){
-
-		//	Request a repaint of each object.
-		Iterator iter = c.iterator();
-		while (iter.hasNext()){
-			DisplayedState o = (DisplayedState)iter.next();
-			this.repaint(o.getXLocation(), o.getYLocation(), o.getWidth(), o.getHeight());
-		}
-	}
-	 
-	 
-	 //	Create DisplayObjects for the provided DataObj's, and add them to the display list.
-	 protected void addToDisplayMap(Collection dataObjectCollection){
-	
-		//	Once around for each element in the input list.
-		Iterator iter = dataObjectCollection.iterator();
-		while (iter.hasNext()){
-			TLState state = (TLState) iter.next();
-
-			//	See whether this state is included in the shown categories.
-			//	If not, go on to the next one.
-			if (! iWindow.isShown(state))
-				continue;
-			
-			//	Create a DisplayedObject for this data object, and add it to the display list.
-			DisplayedState dObj = new DisplayedState(state);
-			iDisplayMap.put(dObj, state);
-		}
-	 }
-	 
-	 
-	 //	Remove the specified data objects and their associated display objects from our map.
-	 protected void removeFromDisplayMap(Collection dataObjectCollection){
-	 	Iterator iter = dataObjectCollection.iterator();
-	 	while (iter.hasNext()){
-	 		DisplayedState dObj = getDisplayedStateFromState((TLState)iter.next());
-	 		Debug.assertOnError(iDisplayMap.remove(dObj) != null);
-	 	}
-	 }
-	 
-	 
-	 //	Returns the displayed state representing the provided state.
-	 protected DisplayedState getDisplayedStateFromState(TLState state){
-	 
-	 	//	This method is currently engineered under the assumption that this is a rare
-	 	//	function.  Thus, we use a lot of memory and CPU time.  If this becomes something
-	 	//	that is done frequently, we should accept the memory penalty of using iDisplayMap 
-	 	//	to hold a bi-directional mapping.
-	 	Set entrySet = iDisplayMap.entrySet();
-	 	Iterator iter = entrySet.iterator();
-	 	while (iter.hasNext()){
-	 		Map.Entry entry = (Map.Entry)iter.next();
-	 		if (entry.getValue().equals(state))
-	 			return (DisplayedState) entry.getKey();
-	 	}
-	 	Debug.assertOnError(false);					//	Could not find display object
-	 	return null;
-	 }
-	
-	
-	//	Compute the dimensions of all objects in the display list.  This also sets their X position
-	protected void computeObjectDimensions(){
-
-		//	Once around for each element in the display list.
-		Iterator displayListIter = iDisplayMap.keySet().iterator();
-		while (displayListIter.hasNext()){
-			
-			//	Get the next DisplayedObject, and tell it to update its dimensions..
-			DisplayedState dObj = (DisplayedState) displayListIter.next();
-			dObj.calculateDimensions(iTPM);
-		}
-	}
-	
-	
-	 //	Identify which DisplayedState contains the given point.  Return null if no object at that point.
-	 public DisplayedState pointToDisplayedObject(Point p){
-	 	return iPlacer.pointToDisplayedObject(p);
-	 }
-	 
-	 
-	//	Tell Swing what the current size of this pane is.
-	protected void updatePaneSize(){
-	
-		//	Update the prefered and maximum size we report to our layout manager.
-		//	??	Setting the maximum height every time is wasteful.
-		int paneHeight = iPlacer.getMaximumYUsed();
-		int paneWidth = iTPM.getTimelineWidth();
-		this.setPreferredSize(new Dimension(paneWidth, paneHeight));
-		this.setMaximumSize(new Dimension(Integer.MAX_VALUE, Integer.MAX_VALUE));
-
-		//	Ask the layout manager to update our size.
-		this.revalidate();
-	}
-	
-	
-	//	Implement the stateChanged() method of the ChangeListener interface.
-	//	This is called when the document or the TPM changes.
-	public void stateChanged(ChangeEvent e){
-		Object source = e.getSource();
-		if (source == iDoc)
-			this.docStateChanged(e);
-		else if (source == iTPM)
-			this.tpmStateChanged(e);
-		else
-			throw new ImplementationException("Received stateChanged event from unexpected source - " +
-					source.toString());
-	}
-	
-	
-	//	Handle ChangeEvent's from the document.
-	//	The current approach is to rebuild everything, regardless of what changed.
-	protected void docStateChanged(ChangeEvent ev){
-
-		//	If the edit was adding or removing states, update our display map.
-		if (ev instanceof StateAddDeleteChange){
-			StateAddDeleteChange event = (StateAddDeleteChange)ev;
-			Set affectedStates = event.getAffectedStates();
-			if (event.isDeleting())
-				this.removeFromDisplayMap(affectedStates);
-			else
-				this.addToDisplayMap(affectedStates);
-		}
-			
-		//	Iterate through all DisplayedObjects in the display map, telling them to recalculate their dimensions.
-		this.computeObjectDimensions();
-
-		//	Assign all displayed objects to levels.
-		iPlacer.forgetLevelAssignments();
-		iPlacer.assignToLevel(iDisplayMap.keySet());
-	
-		//	Tell Swing our new pane size.
-		this.updatePaneSize();
-		
-		//	Force a repaint of the window.
-		//	??	Why isn't this needed for the TPM state change?
-		this.repaint();
-	}
-
-
-	//	Called when the state of the TPM changes.  This is usually a scale change.
-	//	??	This also happens when the window's time period changes.  In this case, the
-	//	??	only thing we need to do is update the pane size, and the rest just gets in the
-	//	??	user's way.  Is the distraction bad enough to justify changing this?
-	protected void tpmStateChanged(ChangeEvent e){
-
-		//	Iterate through all levels, telling all DisplayedObjects to recalculate their dimensions.
-		this.computeObjectDimensions();
-
-		//	Assign all displayed objects to levels.
-		iPlacer.forgetLevelAssignments();
-		iPlacer.assignToLevel(iDisplayMap.keySet());
-	
-		//	Tell Swing our new pane size.
-		this.updatePaneSize();
-	}
-	
-	
-	//	Called by TLWindow when the set of shown categories changes.
-	public void shownCategoriesChanged(){
-	
-		//	Rebuild the display
-		iDisplayMap.clear();
-		this.addToDisplayMap(iDoc.getStatesByStartList());
-		this.computeObjectDimensions();
-		iPlacer.forgetLevelAssignments();
-		iPlacer.assignToLevel(iDisplayMap.keySet());
-		this.updatePaneSize();
-	
-		//	Force a repaint of the window.
-		this.repaint();
-	}
-	
+//	TimelinePane.java - Graphically display a timeline.
+
+import java.awt.*;
+import java.util.*;
+import java.util.List;
+import javax.swing.*;
+import javax.swing.event.*;
+
+
+import java.awt.event.*;
+
+public class TimelinePane extends JComponent implements ChangeListener, TileCache.Renderer {
+
+	// 	Constants------------------------------------------------------------------------
+	//	Once the document changes since the last full layout touch more than this fraction (1/n) of the
+	//	displayed states, we lay out from scratch.  Placing states around the existing ones leaves gaps
+	//	that a fresh layout would fill;  this bounds how much worse than a fresh layout we can get.
+	protected static final int INCREMENTAL_LAYOUT_FRACTION = 8;
+	
+	//	Display maps with at least this many states are measured and placed using all processors.  Below this,
+	//	starting the other threads costs more than it saves.
+	protected static final int PARALLEL_LAYOUT_THRESHOLD = 2000;
+	
+	//	Display maps with at least this many states are laid out from scratch in the background, by LayoutService,
+	//	so the window doesn't freeze while it happens.
+	protected static final int BACKGROUND_LAYOUT_THRESHOLD = 10000;
+	
+	//	When more than this many states start in each pixel column, on average, individual states are too
+	//	crowded to be worth laying out, and we show density strips instead (see DensityPyramid).  With labels
+	//	tens of pixels wide, this many starts per column already takes hundreds of levels, and the crowded
+	//	parts of a timeline are far more crowded than the average.
+	protected static final int DENSITY_THRESHOLD = 8;
+	protected static final int DENSITY_SHADES = 8;			//	Shades of each strip, for 1, 2-3, 4-7... states
+
+
+	//	Instance variables----------------------------------------------------------------
+	protected TLDocument iDoc;					//	Document containing our data
+	protected TLWindow iWindow;				//	The window that we're a part of
+	protected TimePositionMapping iTPM;			//	Maps time to space on this pane
+	protected Placer iPlacer;					//	Arranges the contents of this pane
+	protected LayoutCache iLayoutCache;			//	Layouts at recently shown scales
+	protected LayoutService iLayoutService;			//	Lays out large display maps in the background
+	protected ZoomPreview iZoomPreview;			//	Shows the states during a continuous zoom
+	protected TileCache iTileCache;				//	Drawn states, without the selection
+	protected DensityPyramid iDensityPyramid;		//	Counts of the states over time, or null if not made yet
+	protected int iDensityStripCount = -1;			//	Strips in the last pyramid made, or -1 if none yet
+	protected Map iDensityShades = new HashMap();		//	Maps strip Colors to their shades;  see getDensityShades()
+	protected boolean iShowingDensity;			//	Showing density strips instead of states
+	protected boolean iWindowed;				//	Display map only holds states near the TPM's view
+	
+	protected Map iDisplayMap;					//	Maps all DisplayedStates to their TLStates
+	protected Map iStateMap;					//	The reverse of iDisplayMap
+	protected int iIncrementalChangeCount;			//	States placed or removed since the last full layout
+	
+
+	//	Constructor---------------------------------------------------------------------
+	public TimelinePane(TLDocument itsDoc, TLWindow window, TimePositionMapping tpm){
+		iDoc = itsDoc;
+		iWindow = window;
+		iTPM = tpm;
+		
+		//	Initialize this object.
+		iDisplayMap = new HashMap();
+		iStateMap = new IdentityHashMap();
+		iPlacer = new Placer();
+		iPlacer.setStrategy(iWindow.getPlacementStrategy());
+		iLayoutCache = new LayoutCache();
+		iLayoutService = new LayoutService(this);
+		iZoomPreview = new ZoomPreview(this, iTPM, iPlacer);
+		iTileCache = new TileCache(this, false);
+		
+		//	Set up our relationships with other objects.
+		iTPM.addChangeListener(this);
+		iDoc.addChangeListener(this); 
+
+		//	Initialize our properties as a Swing component.
+		//	??	I think that the alignment values are only needed because of a bug
+		//	??	in SizeRequirements.calculateAlignedPositions() in Swing 1.0.3.  
+		this.setFont(DisplayedState.LABEL_FONT);
+		this.setAlignmentX(LEFT_ALIGNMENT);
+		this.setAlignmentY(TOP_ALIGNMENT);
+		
+		//	??	Temporary dummies...
+		iWindowed = iTPM.isVirtual();
+		this.addToDisplayMap(iDoc.getStatesByStartList());
+		this.layOutAll();
+		
+		//	Compute the physical size of this pane.  
+		//	This has to happen AFTER we create the first display map.
+		this.updatePaneSize();
+	}
+	
+	
+    //	??	Following borrowed from SystemEventQueueUtilities for bug workaround in paintComponent() below.
+    private static class SystemEventQueue 
+    {
+        private static Toolkit tk = null;
+
+	// Return the AWT system event queue.  JDK1.2 applications 
+	// and PlugIn enabled browsers allow direct access to the 
+	// applet specific system event queue.
+	//
+	static EventQueue get() {
+            if (tk == null) {
+	        tk = Toolkit.getDefaultToolkit();
+	    }
+	    return tk.getSystemEventQueue();
+	}
+
+	static EventQueue get(JRootPane rootPane) {
+	    return rootPane.getToolkit().getSystemEventQueue();
+	}
+    }
+
+
+	//	Override of Swing standard method paintComponent().
+	protected void paintComponent(Graphics g) {
+		
+		//	??	Workaround for Swing bug.  When the mouse button is held down in a scrollbar arrow,
+		//	??	the scrollbar's value is updated every 100 mS.  If it takes longer than 100 mS to draw the
+		//	??	scrolled view, the Timer events back up in the system event queue, and prevent the
+		//	??	mouse-up from being recognized.  
+		//	??	As a workaround, peek into the system event queue, and see if there is another scrollbar 
+		//	??	update event in the queue.  If there is, just return without drawing.
+		//	??	The event ID is the one used by RunnableEvent.
+		//	??	THIS IS CURRENTLY DISABLED, BECAUSE IMPROVEMENTS IN DRAW SPEED MADE
+		//	??	IT LESS NEEDED, AND BECAUSE THE REFRESH PROBLEMS IT CAUSES ARE
+		//	??	INTRUSIVE.
+		AWTEvent evt = SystemEventQueue.get().peekEvent(AWTEvent.RESERVED_ID_MAX + 1000);
+		if (false && evt != null)
+			return;
+		
+		//	Copy the states from tiles.  The tiles leave out the selected states;  DragPane draws them on top.
+		long startTime = System.currentTimeMillis();
+		Rectangle clipRect = g.getClipBounds();
+		if (iShowingDensity){
+			this.drawDensity(g, (clipRect != null) ? clipRect : new Rectangle(this.getSize()));
+			if (Debug.DISPLAY_TIMINGS)
+				System.out.println((System.currentTimeMillis() - startTime) + " mS. to paint density of " + 
+							iDisplayMap.size() + " states in TimelinePane");
+			return;
+		}
+		
+		//	During a continuous zoom, every step would have tiles of its own.  Draw the states directly.
+		if (iZoomPreview.isActive()){
+			iZoomPreview.paint(g, (clipRect != null) ? clipRect : new Rectangle(this.getSize()));
+			if (Debug.DISPLAY_TIMINGS)
+				System.out.println((System.currentTimeMillis() - startTime) + " mS. to paint TimelinePane while zooming");
+			return;
+		}
+		Object tileKey = this.getTileKey();
+		if (clipRect != null && tileKey != null){
+			iTileCache.paint(g, clipRect, tileKey);
+			if (Debug.DISPLAY_TIMINGS)
+				System.out.println((System.currentTimeMillis() - startTime) + " mS. to paint TimelinePane from tiles");
+			return;
+		}
+		
+		//	Only draw the states the Placer finds in the clip rectangle.  A state being dragged may be drawn
+		//	away from where it was placed, but DragPane draws those.
+		Collection visibleStates = (clipRect == null) ? iDisplayMap.keySet() : iPlacer.getObjectsInRect(clipRect);
+		this.drawDataObjects(g, visibleStates);
+		if (Debug.DISPLAY_TIMINGS)
+			System.out.println((System.currentTimeMillis() - startTime) + " mS. to paint " + visibleStates.size() + 
+						" of " + iDisplayMap.size() + " states in TimelinePane");
+	 }
+	 
+	 
+	 //	Draw all data objects in a Collection.
+	 protected void drawDataObjects(Graphics g, Collection c){
+	 
+	 	//	Iterate through all objects, and draw each one.
+	        Rectangle clipRect = g.getClipBounds();	        
+	 	Iterator iter = c.iterator();	 	while (iter.hasNext()){
+	 		DisplayedState dObj = (DisplayedState)iter.next();
+	 		
+	 		//	States added while a background layout is under way aren't placed until it finishes.
+	 		if (dObj.isPlaced())
+	        			dObj.draw(g, clipRect);
+	 	}
+	 }
+	 
+	 
+	//	Draw a strip for each category, shaded by how many of its states start in each pixel column.  The
+	//	time taken depends on the size of the clip rectangle, not on the number of states.
+	protected void drawDensity(Graphics g, Rectangle clipRect){
+		DensityPyramid pyramid = this.getDensityPyramid();
+		int endX = clipRect.x + clipRect.width;
+		for (int strip = 0; strip < pyramid.getStripCount(); strip++){
+			int y = Placer.TOP_MARGIN + strip * Placer.LEVEL_SPACING;
+			if (y + DisplayedState.BODY_HEIGHT < clipRect.y || clipRect.y + clipRect.height < y)
+				continue;
+			
+			Color[] shades = this.getDensityShades(pyramid.getStripColor(strip));
+			
+			//	Draw each run of columns with the same shade as one rectangle.
+			int runStart = clipRect.x;
+			int runShade = -1;
+			long columnStart = iTPM.xPositionToTime(clipRect.x);
+			for (int x = clipRect.x; x <= endX; x++){
+				int shade = -1;
+				if (x < endX){
+					long columnEnd = iTPM.xPositionToTime(x + 1);
+					int count = pyramid.count(strip, columnStart, columnEnd);
+					columnStart = columnEnd;
+					if (count > 0)
+						shade = Math.min(DENSITY_SHADES - 1, 31 - Integer.numberOfLeadingZeros(count));
+				}
+				if (shade != runShade || x == endX){
+					if (runShade >= 0){
+						g.setColor(shades[runShade]);
+						g.fillRect(runStart, y, x - runStart, DisplayedState.BODY_HEIGHT);
+					}
+					runStart = x;
+					runShade = shade;
+				}
+			}
+		}
+	}
+	
+	
+	//	Return the shades to draw a strip of the given color in, from faint to the color itself.  They are
+	//	made the first time a color is drawn, so painting doesn't make Colors.
+	protected Color[] getDensityShades(Color color){
+		Color[] shades = (Color[])iDensityShades.get(color);
+		if (shades == null){
+			shades = new Color[DENSITY_SHADES];
+			for (int i = 0; i < DENSITY_SHADES; i++)
+				shades[i] = new Color(color.getRed(), color.getGreen(), color.getBlue(), 
+							255 * (i + 1) / DENSITY_SHADES);
+			iDensityShades.put(color, shades);
+		}
+		return shades;
+	}
+	
+	
+	//	Return the counts of the states in the display map, making them if need be.  Counting takes time in
+	//	proportion to the number of states, so changes to the document only drop the counts (see
+	//	docStateChanged()), and they are counted again when next painted.  If that changes the number of
+	//	strips, the pane's height changes too.
+	protected DensityPyramid getDensityPyramid(){
+		if (iDensityPyramid == null){
+			iDensityPyramid = new DensityPyramid(iDisplayMap.keySet(), iTPM.getMappedPeriod());
+			int oldStripCount = iDensityStripCount;
+			iDensityStripCount = iDensityPyramid.getStripCount();
+			if (iShowingDensity && oldStripCount >= 0 && iDensityStripCount != oldStripCount)
+				this.updatePaneSize();
+		}
+		return iDensityPyramid;
+	}
+	
+	
+	//	Report whether the states are too crowded at the current scale to be shown individually.  The
+	//	cyclic view always shows them individually, since the strips are counted over real time.
+	protected boolean shouldShowDensity(){
+		TimePeriod mappedPeriod = iTPM.getMappedPeriod();
+		if (iTPM.isCyclicView() || mappedPeriod == null)
+			return false;
+		long timelineWidth = Math.max(1, iTPM.getTimelineWidth());
+		if (iDisplayMap.size() <= DENSITY_THRESHOLD * timelineWidth)
+			return false;
+		
+		//	The pyramid can't count more finely than its buckets.  Its buckets cover the mapped period, so we
+		//	know how long they are without counting the states.
+		long bucketMillis = DensityPyramid.getBucketMillisFor(mappedPeriod.getPeriodEnd() - mappedPeriod.getPeriodStart() + 1);
+		return iTPM.xDeltaToTimeDelta(1) >= bucketMillis;
+	}
+	
+	
+	//	Switch to showing density strips.  Nothing is laid out until the user zooms in far enough.
+	protected void showDensity(){
+		iZoomPreview.end();
+		iLayoutService.cancel();
+		iPlacer.forgetLevelAssignments();
+		iIncrementalChangeCount = 0;
+		iShowingDensity = true;
+	}
+	
+	
+	//	Implement the getTileContents() method of the TileCache.Renderer interface.
+	//	Copy the placed states in a tile, leaving out the selected ones, which DragPane draws.
+	public TileCache.TileContents getTileContents(Rectangle bounds){
+		List objects = iPlacer.getObjectsInRect(bounds);
+		List copies = new ArrayList(objects.size());
+		Iterator iter = objects.iterator();
+		while (iter.hasNext()){
+			DisplayedState dObj = (DisplayedState)iter.next();
+			if (dObj.isPlaced() && !dObj.isSelected())
+				copies.add(dObj.copyForDrawing());
+		}
+		return new StateTileContents((DisplayedState[])copies.toArray(new DisplayedState[copies.size()]));
+	}
+	
+	
+	//	The contents of one of our tiles:  copies of the unselected states in it.
+	protected static class StateTileContents extends Object implements TileCache.TileContents {
+		protected DisplayedState[] iStates;
+		
+		public StateTileContents(DisplayedState[] states){
+			iStates = states;
+		}
+		
+		//	Draw the states without the selection highlight or drag handles.  Called on the tile thread,
+		//	as well as the event dispatch thread.
+		public void draw(Graphics g, Rectangle bounds){
+			g.setFont(DisplayedState.LABEL_FONT);
+			for (int i = 0; i < iStates.length; i++)
+				iStates[i].draw(g, bounds, false);
+		}
+	}
+	
+	
+	//	Return the key our tiles are remembered under:  the same conditions a layout is remembered under,
+	//	since going back to them brings back the same layout.  Returns null if the TPM has no mapping.
+	protected Object getTileKey(){
+		return LayoutCache.Key.makeKey(iTPM, iPlacer);
+	}
+	
+	
+	//	Forget the tiles covering a rectangle of the pane, and repaint it.  Called when the states drawn
+	//	there change.
+	protected void redrawRegion(int x, int y, int width, int height){
+		Object tileKey = this.getTileKey();
+		if (tileKey != null)
+			iTileCache.invalidate(tileKey, new Rectangle(x, y, width, height));
+		this.repaint(x, y, width, height);
+	}
+	
+	
+	//	Forget all tiles at the current scale, and repaint the whole pane.
+	protected void redrawAll(){
+		Object tileKey = this.getTileKey();
+		if (tileKey != null)
+			iTileCache.invalidateAll(tileKey);
+		this.repaint();
+	}
+	
+	
+	//	Redraw all objects in a Collection, whose appearance (other than their selection) has changed.
+	protected void redrawDataObjects(Collection c){
+		Iterator iter = c.iterator();
+		while (iter.hasNext()){
+			DisplayedState o = (DisplayedState)iter.next();
+			this.redrawRegion(o.getXLocation(), o.getYLocation(), o.getWidth(), o.getHeight());
+		}
+	}
+	
+	
+	//	Request a repaint of all objects in a Collection.  Only for selected objects, which the tiles leave
+	//	out;  use redrawDataObjects() for anything else.
+	protected void repaintDataObjects(Collection c){
+
+		//	Request a repaint of each object.
+		Iterator iter = c.iterator();
+		while (iter.hasNext()){
+			DisplayedState o = (DisplayedState)iter.next();
+			this.repaint(o.getXLocation(), o.getYLocation(), o.getWidth(), o.getHeight());
+		}
+	}
+	 
+	 
+	 //	Create DisplayObjects for the provided DataObj's, and add them to the display list.
+	 protected void addToDisplayMap(Collection dataObjectCollection){
+	
+		//	Once around for each element in the input list.
+		Iterator iter = dataObjectCollection.iterator();
+		while (iter.hasNext()){
+			TLState state = (TLState) iter.next();
+
+			//	See whether this state is included in the shown categories, and near enough to be seen.
+			//	If not, go on to the next one.
+			if (! this.isDisplayed(state))
+				continue;
+			
+			//	Create a DisplayedObject for this data object, and add it to the display list.
+			this.addDisplayedState(new DisplayedState(state));
+		}
+	 }
+	 
+	 
+	 //	Report whether a state belongs in the display map:  it must be in one of the shown categories, and
+	 //	near enough to the part of the timeline we show (see TimePositionMapping).
+	 protected boolean isDisplayed(TLState state){
+	 	return iWindow.isShown(state) && iTPM.isInView(state.getPeriodStart(), state.getPeriodEnd());
+	 }
+	 
+	 
+	 //	Bring the display map up to date with the shown categories and the TPM's view.  States that stay
+	 //	keep their DisplayedStates.  Returns true if any state was added or removed.
+	 protected boolean updateDisplayMap(){
+		iWindowed = iTPM.isVirtual();
+		
+		//	Drop the states that are no longer displayed.
+		List hiddenStates = new ArrayList();
+		Iterator iter = iStateMap.keySet().iterator();
+		while (iter.hasNext()){
+			TLState state = (TLState)iter.next();
+			if (!this.isDisplayed(state))
+				hiddenStates.add(state);
+		}
+		this.removeFromDisplayMap(hiddenStates);
+		
+		//	Add the states that have just come into view.
+		boolean changed = !hiddenStates.isEmpty();
+		iter = iDoc.getStatesByStartList().iterator();
+		while (iter.hasNext()){
+			TLState state = (TLState)iter.next();
+			if (!iStateMap.containsKey(state) && this.isDisplayed(state)){
+				this.addDisplayedState(new DisplayedState(state));
+				changed = true;
+			}
+		}
+		return changed;
+	 }
+	 
+	 
+	 //	Add a displayed state to the display map, and to the index from states to displayed states.
+	 protected void addDisplayedState(DisplayedState dObj){
+	 	iDisplayMap.put(dObj, dObj.getState());
+	 	iStateMap.put(dObj.getState(), dObj);
+	 }
+	 
+	 
+	 //	Remove a displayed state from the display map and the index.
+	 protected void removeDisplayedState(DisplayedState dObj){
+	 	Debug.assertOnError(iDisplayMap.remove(dObj) != null);
+	 	iStateMap.remove(dObj.getState());
+	 }
+	 
+	 
+	 //	Empty the display map and the index.
+	 protected void clearDisplayMap(){
+	 	iDisplayMap.clear();
+	 	iStateMap.clear();
+	 }
+	 
+	 
+	 //	Remove the display objects associated with the specified data objects from our map, and from the
+	 //	layout.  Data objects that aren't shown are ignored.
+	 protected void removeFromDisplayMap(Collection dataObjectCollection){
+	 	Collection displayedStates = this.getDisplayedStatesFromStates(dataObjectCollection).values();
+	 	iPlacer.removeFromLevels(displayedStates);
+	 	Iterator iter = displayedStates.iterator();
+	 	while (iter.hasNext())
+	 		this.removeDisplayedState((DisplayedState)iter.next());
+	 }
+	 
+	 
+	 //	Return a Map from each of the provided states that is in our display map to its displayed state.
+	 protected Map getDisplayedStatesFromStates(Collection states){
+	 	Map result = new HashMap();
+	 	Iterator iter = states.iterator();
+	 	while (iter.hasNext()){
+	 		Object state = iter.next();
+	 		Object dObj = iStateMap.get(state);
+	 		if (dObj != null)
+	 			result.put(state, dObj);
+	 	}
+	 	return result;
+	 }
+	 
+	 
+	 //	Returns the displayed state representing the provided state.
+	 protected DisplayedState getDisplayedStateFromState(TLState state){
+	 	DisplayedState dObj = (DisplayedState)iStateMap.get(state);
+	 	Debug.assertOnError(dObj != null);				//	Could not find display object
+	 	return dObj;
+	 }
+	
+	
+	//	Measure every state in the display map and assign them all to levels from scratch.  Large display
+	//	maps are laid out in the background;  the pane goes on showing its old layout until adoptLayout()
+	//	is called with the new one.
+	protected void layOutAll(){
+		iZoomPreview.end();
+		if (this.shouldShowDensity()){
+			this.showDensity();
+			return;
+		}
+		iShowingDensity = false;
+		if (iDisplayMap.size() >= BACKGROUND_LAYOUT_THRESHOLD)
+			iLayoutService.requestLayout(iDisplayMap.values(), iTPM, iPlacer.getStrategy());
+		else
+			this.layOutAllInForeground();
+	}
+	
+	
+	//	Measure every state in the display map and assign them all to levels from scratch, right now.  Any
+	//	background layout under way is abandoned.  The result is remembered, in case the user comes back to the
+	//	current scale.
+	protected void layOutAllInForeground(){
+		iLayoutService.cancel();
+		iShowingDensity = false;
+		iPlacer.forgetLevelAssignments();
+		if (iDisplayMap.size() >= PARALLEL_LAYOUT_THRESHOLD)
+			iPlacer.assignToLevelInParallel(iDisplayMap.keySet(), iTPM);
+		else {
+			this.computeObjectDimensions();
+			iPlacer.assignToLevel(iDisplayMap.keySet());
+		}
+		iIncrementalChangeCount = 0;
+		iLayoutCache.remember(iTPM, iPlacer);
+		
+		//	The new layout may not be the one the tiles at this scale were drawn from.
+		Object tileKey = this.getTileKey();
+		if (tileKey != null)
+			iTileCache.invalidateAll(tileKey);
+	}
+	
+	
+	//	Called by LayoutService with a finished background layout of the display map.  Each level is a List
+	//	of DisplayedStates that LayoutService made for our states;  our own DisplayedStates take on their
+	//	dimensions and levels.
+	public void adoptLayout(List levels){
+		long startTime = System.currentTimeMillis();
+		
+		iPlacer.forgetLevelAssignments();
+		for (int levelNumber = 0; levelNumber < levels.size(); levelNumber++){
+			List level = (List)levels.get(levelNumber);
+			DisplayedState[] ourLevel = new DisplayedState[level.size()];
+			for (int i = 0; i < ourLevel.length; i++){
+				DisplayedState copy = (DisplayedState)level.get(i);
+				DisplayedState dObj = (DisplayedState)iStateMap.get(copy.getState());
+				Debug.assertOnError(dObj != null);
+				dObj.copyDimensionsFrom(copy);
+				ourLevel[i] = dObj;
+			}
+			iPlacer.appendLevel(ourLevel);
+		}
+		iIncrementalChangeCount = 0;
+		iLayoutCache.remember(iTPM, iPlacer);
+		
+		this.updatePaneSize();
+		this.redrawAll();
+		if (Debug.DISPLAY_TIMINGS)
+			System.out.println((System.currentTimeMillis() - startTime) + " mS. to adopt background layout");
+	}
+	
+	
+	//	Compute the dimensions of all objects in the display list.  This also sets their X position
+	protected void computeObjectDimensions(){
+
+		//	Once around for each element in the display list.
+		Iterator displayListIter = iDisplayMap.keySet().iterator();
+		while (displayListIter.hasNext()){
+			
+			//	Get the next DisplayedObject, and tell it to update its dimensions..
+			DisplayedState dObj = (DisplayedState) displayListIter.next();
+			dObj.calculateDimensions(iTPM);
+		}
+	}
+	
+	
+	 //	Identify which DisplayedState contains the given point.  Return null if no object at that point.
+	 public DisplayedState pointToDisplayedObject(Point p){
+	 	return iPlacer.pointToDisplayedObject(p);
+	 }
+	 
+	 
+	//	Tell Swing what the current size of this pane is.
+	protected void updatePaneSize(){
+	
+		//	Update the prefered and maximum size we report to our layout manager.
+		//	??	Setting the maximum height every time is wasteful.
+		//	While the document changes, the height of the density strips comes from the last counts made,
+		//	rather than counting again now.
+		int paneHeight;
+		if (iShowingDensity){
+			int stripCount = (iDensityStripCount >= 0) ? iDensityStripCount : this.getDensityPyramid().getStripCount();
+			paneHeight = Placer.TOP_MARGIN + stripCount * Placer.LEVEL_SPACING;
+		}
+		else
+			paneHeight = iPlacer.getMaximumYUsed();
+		int paneWidth = iTPM.getTimelineWidth();
+		this.setPreferredSize(new Dimension(paneWidth, paneHeight));
+		this.setMaximumSize(new Dimension(Integer.MAX_VALUE, Integer.MAX_VALUE));
+
+		//	Ask the layout manager to update our size.
+		this.revalidate();
+	}
+	
+	
+	//	Implement the stateChanged() method of the ChangeListener interface.
+	//	This is called when the document or the TPM changes.
+	public void stateChanged(ChangeEvent e){
+		Object source = e.getSource();
+		if (source == iDoc)
+			this.docStateChanged(e);
+		else if (source == iTPM)
+			this.tpmStateChanged(e);
+		else
+			throw new ImplementationException("Received stateChanged event from unexpected source - " +
+					source.toString());
+	}
+	
+	
+	//	Handle ChangeEvent's from the document.
+	//	Only the states the change touches are measured and placed again;  everything else stays where
+	//	it is.  Large changes, and changes we don't understand, rebuild the whole layout.
+	protected void docStateChanged(ChangeEvent ev){
+	
+		//	Find out which states were added, removed and modified.
+		Set addedStates = Collections.EMPTY_SET;
+		Set removedStates = Collections.EMPTY_SET;
+		Set modifiedStates = Collections.EMPTY_SET;
+		if (ev instanceof StateAddDeleteChange){
+			StateAddDeleteChange event = (StateAddDeleteChange)ev;
+			if (event.isDeleting())
+				removedStates = event.getAffectedStates();
+			else
+				addedStates = event.getAffectedStates();
+		}
+		else if (ev instanceof StateModifyChange){
+			modifiedStates = ((StateModifyChange)ev).getAffectedStates();
+		}
+		else if (ev instanceof CompoundChange){
+			CompoundChange change = (CompoundChange)ev;
+			addedStates = change.getAddedStates();
+			removedStates = change.getRemovedStates();
+			modifiedStates = change.getModifiedStates();
+		}
+		else if (ev instanceof CategoryChange){
+			//	Changes to the categories themselves only affect how states are drawn.  Changes to 
+			//	the states' memberships come to us as state modifications.
+			DisplayedState.categoryColorsChanged();
+			iTileCache.clear(null);
+			this.repaint();
+			return;
+		}
+		else {
+			iLayoutCache.clear();
+			iTileCache.clear(null);
+			iDensityPyramid = null;
+			this.rebuildLayout();
+			return;
+		}
+		
+		//	The layouts and tiles remembered for other scales don't reflect this change, and nor do the
+		//	density counts.
+		iLayoutCache.clear();
+		iTileCache.clear(this.getTileKey());
+		iDensityPyramid = null;
+		
+		//	If the change is large, or a background layout is under way (which must be started again, since it
+		//	doesn't know about the change), lay out from scratch.  Removed states come out of the current
+		//	layout right away, so they can't be clicked on in the meantime.  If we're showing density strips,
+		//	this just finds out whether we still should.  The same goes for a zoom in progress, since the
+		//	states haven't been placed at the current scale.
+		int changeCount = addedStates.size() + removedStates.size() + modifiedStates.size();
+		iIncrementalChangeCount += changeCount;
+		if (iIncrementalChangeCount > iDisplayMap.size() / INCREMENTAL_LAYOUT_FRACTION || iLayoutService.isPending() ||
+					iShowingDensity || iZoomPreview.isActive()){
+			this.removeFromDisplayMap(removedStates);
+			
+			//	A modified state may have joined or left the shown categories.
+			List hiddenStates = new ArrayList();
+			Iterator iter = modifiedStates.iterator();
+			while (iter.hasNext()){
+				TLState state = (TLState)iter.next();
+				if (!this.isDisplayed(state))
+					hiddenStates.add(state);
+				else if (!iStateMap.containsKey(state))
+					this.addDisplayedState(new DisplayedState(state));
+			}
+			this.removeFromDisplayMap(hiddenStates);
+			this.addToDisplayMap(addedStates);
+			this.rebuildLayout();
+			return;
+		}
+		
+		long startTime = System.currentTimeMillis();
+		
+		//	Look up the displayed states we already have for the removed and modified states.
+		Set oldStates = new HashSet(removedStates);
+		oldStates.addAll(modifiedStates);
+		Map oldDisplayedStates = this.getDisplayedStatesFromStates(oldStates);
+		
+		//	Take the removed and modified states out of the layout.  This has to happen before the
+		//	modified ones are measured again, since the level lists are sorted by position.
+		Collection displayedStatesToRemove = oldDisplayedStates.values();
+		iPlacer.removeFromLevels(displayedStatesToRemove);
+		List displayedStatesToPlace = new ArrayList();
+		
+		Iterator iter = removedStates.iterator();
+		while (iter.hasNext()){
+			DisplayedState dObj = (DisplayedState)oldDisplayedStates.get(iter.next());
+			if (dObj != null){
+				this.redrawRegion(dObj.getXLocation(), dObj.getYLocation(), dObj.getWidth(), dObj.getHeight());
+				this.removeDisplayedState(dObj);
+			}
+		}
+		
+		//	A modified state may have joined or left the shown categories.
+		iter = modifiedStates.iterator();
+		while (iter.hasNext()){
+			TLState state = (TLState)iter.next();
+			DisplayedState dObj = (DisplayedState)oldDisplayedStates.get(state);
+			if (dObj != null){
+				this.redrawRegion(dObj.getXLocation(), dObj.getYLocation(), dObj.getWidth(), dObj.getHeight());
+				if (this.isDisplayed(state))
+					displayedStatesToPlace.add(dObj);
+				else
+					this.removeDisplayedState(dObj);
+			}
+			else if (this.isDisplayed(state)){
+				dObj = new DisplayedState(state);
+				this.addDisplayedState(dObj);
+				displayedStatesToPlace.add(dObj);
+			}
+		}
+		
+		iter = addedStates.iterator();
+		while (iter.hasNext()){
+			TLState state = (TLState)iter.next();
+			if (!this.isDisplayed(state))
+				continue;
+			DisplayedState dObj = new DisplayedState(state);
+			this.addDisplayedState(dObj);
+			displayedStatesToPlace.add(dObj);
+		}
+		
+		//	Measure the new and modified states, and place them.
+		iter = displayedStatesToPlace.iterator();
+		while (iter.hasNext())
+			((DisplayedState)iter.next()).calculateDimensions(iTPM);
+		iPlacer.assignToLevelIncrementally(displayedStatesToPlace);
+		
+		if (Debug.DISPLAY_TIMINGS)
+			System.out.println((System.currentTimeMillis() - startTime) + " mS. to lay out " + 
+						changeCount + " changed states");
+	
+		//	Tell Swing our new pane size, and repaint the placed states where they are now.
+		this.updatePaneSize();
+		this.redrawDataObjects(displayedStatesToPlace);
+	}
+	
+	
+	//	Measure and place every state in the display map from scratch.
+	protected void rebuildLayout(){
+	
+		//	Tell all DisplayedObjects to recalculate their dimensions, and assign them to levels.
+		this.layOutAll();
+	
+		//	Tell Swing our new pane size.
+		this.updatePaneSize();
+		
+		//	Force a repaint of the window.
+		//	??	Why isn't this needed for the TPM state change?
+		this.redrawAll();
+	}
+
+
+	//	Called when the state of the TPM changes.  This is usually a scale change.
+	//	This also happens when the window's time period changes.  In this case, either nothing moves
+	//	and we only need to update the pane size, or everything moves by the same amount.
+	protected void tpmStateChanged(ChangeEvent e){
+		TPMChangeEvent event = (TPMChangeEvent)e;
+		
+		//	Tiles remembered under the old conditions are still good, but not tiles being drawn from states
+		//	that we're about to move.
+		iTileCache.cancelPrefetches();
+		if (event.getKind() == TPMChangeEvent.ZOOM_STEP){
+			this.zoomStepped(event);
+			return;
+		}
+		if (event.getKind() == TPMChangeEvent.ORIGIN_SHIFT){
+		
+			//	Density strips are drawn straight from the TPM.  The states' positions are only used again
+			//	after a full layout or a restore, which set them all.  During a zoom, the states measured
+			//	since the last step must be measured again, but the preview finds them by absolute time.
+			if (iZoomPreview.isActive())
+				iZoomPreview.restartSweep();
+			else if (!iShowingDensity)
+				this.translateAll(event.getXShift());
+			
+			//	A background layout under way was made with the old origin.
+			if (iLayoutService.isPending())
+				this.layOutAll();
+			this.updatePaneSize();
+			this.repaint();
+			return;
+		}
+		if (!event.movesPositions()){
+			this.updatePaneSize();
+			return;
+		}
+		this.layOutForTPM();
+	}
+	
+	
+	//	Called for each step of a continuous zoom.  Rather than laying out after every step, we show the
+	//	states where they were placed, measured again at the new scale, and lay out properly once the zoom
+	//	pauses (see ZoomPreview).  Zooming out far enough switches to density strips right away, since they
+	//	are drawn straight from the TPM, but zooming back in keeps showing them until the zoom pauses.  A
+	//	background layout under way was made at the old scale, so we just ask for another.
+	protected void zoomStepped(TPMChangeEvent event){
+		if (this.shouldShowDensity()){
+			if (!iShowingDensity)
+				this.showDensity();
+		}
+		else if (iShowingDensity)
+			iZoomPreview.stepped();
+		else if (iLayoutService.isPending())
+			this.layOutAll();
+		else {
+			if (!iZoomPreview.isActive())
+				iZoomPreview.begin(event.getPreviousMapping());
+			iZoomPreview.stepped();
+		}
+		this.updatePaneSize();
+		this.repaint();
+	}
+	
+	
+	//	Called by ZoomPreview once a continuous zoom has paused.
+	protected void zoomSettled(){
+		long startTime = System.currentTimeMillis();
+		this.layOutForTPM();
+		this.repaint();
+		if (Debug.DISPLAY_TIMINGS)
+			System.out.println((System.currentTimeMillis() - startTime) + " mS. to lay out after zooming");
+	}
+	
+	
+	//	Lay out the display map again after the TPM has changed in a way that moves the states.
+	protected void layOutForTPM(){
+		iZoomPreview.end();
+		
+		//	If the timeline is, or was, too wide to show all of, different states may now be near enough to
+		//	display.  The remembered layouts and tiles were made with the old ones.
+		if ((iWindowed || iTPM.isVirtual()) && this.updateDisplayMap()){
+			iLayoutCache.clear();
+			iTileCache.clear(null);
+			iDensityPyramid = null;
+		}
+
+		//	If we've laid out the document under these conditions before, and it hasn't changed since, reuse
+		//	that layout.  Otherwise, tell all DisplayedObjects to recalculate their dimensions, and assign
+		//	them to levels--or show density strips, if we've zoomed out too far for that to be worthwhile.
+		if (!this.shouldShowDensity() && iLayoutCache.restore(iTPM, iPlacer, iDisplayMap.size())){
+			iLayoutService.cancel();
+			iIncrementalChangeCount = 0;
+			iShowingDensity = false;
+		}
+		else
+			this.layOutAll();
+	
+		//	Tell Swing our new pane size.
+		this.updatePaneSize();
+	}
+	
+	
+	//	Move every state in the display map horizontally by the same number of pixels.  They stay in
+	//	the same levels.
+	protected void translateAll(int xShift){
+		Iterator iter = iDisplayMap.keySet().iterator();
+		while (iter.hasNext())
+			((DisplayedState)iter.next()).translate(xShift);
+		iPlacer.translate(xShift);
+	}
+	
+	
+	//	Called by TLWindow to change the way states are arranged into levels.
+	public void setPlacementStrategy(int strategy){
+		iPlacer.setStrategy(strategy);
+		this.rebuildLayout();
+	}
+	
+	
+	//	Called by TLWindow when the set of shown categories changes.
+	//	States that remain shown keep their DisplayedStates, so if the new layout is made in the background,
+	//	they go on being shown where they were until it is ready.
+	public void shownCategoriesChanged(){
+		iLayoutCache.clear();
+		iTileCache.clear(null);
+		iDensityPyramid = null;
+		
+		//	Drop the states that are no longer shown, and add those that have just been shown.
+		this.updateDisplayMap();
+		
+		//	Rebuild the display
+		this.rebuildLayout();
+	}
+	
+	
+	//	Called by TLWindow when it closes.  Stop any layout or zoom under way, forget our tiles, and detach
+	//	ourselves from the document, so that we are released if the document outlives us.
+	public void close(){
+		iLayoutService.cancel();
+		iZoomPreview.end();
+		iTileCache.dispose();
+		iDoc.removeChangeListener(this);
+	}
+	
 }
\ No newline at end of file
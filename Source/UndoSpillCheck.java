@@ -0,0 +1,101 @@
+//	UndoSpillCheck.java - Check that undoable edits come back from the undo spill file unchanged.
+
+//	Run with "java UndoSpillCheck".  Spills and reloads a deleted state, and a state modification, whose
+//	notes are longer than DataOutput.writeUTF() can write, and whose label has characters outside ASCII.
+//	Prints each comparison, and exits with status 1 if any fails.
+
+import java.util.*;
+
+class UndoSpillCheck extends Object {
+
+	// 	Constants ------------------------------------------------------------------------
+	protected static final int LONG_NOTES_LENGTH = 100000;		//	Characters;  more than 64K bytes of UTF-8
+	protected static final long HOUR = 60 * 60 * 1000;
+
+
+	//	Class variables ----------------------------------------------------------------
+	protected static boolean sFailed;
+
+
+	public static void main(String[] args) throws Exception {
+		UndoSpillFile file = new UndoSpillFile();
+		try {
+			UndoSpillCheck.checkDeletedState(file);
+			UndoSpillCheck.checkStateEdit(file);
+		}
+		finally {
+			file.delete();
+		}
+		System.out.println(sFailed ? "FAILED" : "All checks passed");
+		System.exit(sFailed ? 1 : 0);
+	}
+
+
+	//	Spill and reload a deleted state, as AddDeleteStateEdit does.
+	protected static void checkDeletedState(UndoSpillFile file) throws Exception {
+		TLState state = UndoSpillCheck.makeState("D\u00e9j\u00e0 vu \u2013 \u65e5\u672c", UndoSpillCheck.makeNotes('a'), 1000 * HOUR);
+		state.setCreateTime(12345);
+		state.setModifyTime(67890);
+		TLState expected = new TLState(state);
+
+		AddDeleteStateEdit edit = new AddDeleteStateEdit(Collections.singleton(state), true);
+		file.spill(edit);
+		UndoSpillCheck.check("deleted state is released", state.getLabelInfo() == null);
+		file.reload(edit);
+
+		UndoSpillCheck.check("deleted state label", expected.getLabelInfo().getLabel().equals(state.getLabelInfo().getLabel()));
+		UndoSpillCheck.check("deleted state notes", expected.getLabelInfo().getNotes().equals(state.getLabelInfo().getNotes()));
+		UndoSpillCheck.check("deleted state lock", expected.getLabelInfo().isLocked() == state.getLabelInfo().isLocked());
+		UndoSpillCheck.check("deleted state timestamps", state.getCreateTime() == 12345 && state.getModifyTime() == 67890);
+		for (int i = 0; i < TLState.PARAMETER_COUNT; i++)
+			UndoSpillCheck.check("deleted state time parameter " + i,
+						expected.getTimeParameter(i) == state.getTimeParameter(i));
+	}
+
+
+	//	Spill and reload a state modification, then apply it backward and forward.
+	protected static void checkStateEdit(UndoSpillFile file) throws Exception {
+		TLState oldValue = UndoSpillCheck.makeState("Before", UndoSpillCheck.makeNotes('b'), 0);
+		TLState newValue = UndoSpillCheck.makeState("After \u00fc\u00df", UndoSpillCheck.makeNotes('c'), 5 * HOUR);
+		StateEdit edit = new StateEdit(oldValue, newValue);
+		StateDelta delta = edit.iDelta;
+		file.spill(edit);
+		UndoSpillCheck.check("delta is released", delta.isSpilled());
+		file.reload(edit);
+
+		TLState state = new TLState(oldValue);
+		delta.applyTo(state, true);
+		UndoSpillCheck.check("delta forward label", state.getLabelInfo().getLabel().equals(newValue.getLabelInfo().getLabel()));
+		UndoSpillCheck.check("delta forward notes", state.getLabelInfo().getNotes().equals(newValue.getLabelInfo().getNotes()));
+		UndoSpillCheck.check("delta forward times", state.getPeriodStart() == newValue.getPeriodStart() &&
+						state.getPeriodEnd() == newValue.getPeriodEnd());
+		delta.applyTo(state, false);
+		UndoSpillCheck.check("delta backward label", state.getLabelInfo().getLabel().equals(oldValue.getLabelInfo().getLabel()));
+		UndoSpillCheck.check("delta backward notes", state.getLabelInfo().getNotes().equals(oldValue.getLabelInfo().getNotes()));
+		UndoSpillCheck.check("delta backward times", state.getPeriodStart() == oldValue.getPeriodStart() &&
+						state.getPeriodEnd() == oldValue.getPeriodEnd());
+	}
+
+
+	//	Make a state an hour long, starting at the given time.  Categories aren't spilled, so it has none.
+	protected static TLState makeState(String label, String notes, long start){
+		return new TLState(new LabelInfo(label, notes, false), new TLEvent(start, start),
+					new TLEvent(start + HOUR, start + HOUR), null);
+	}
+
+
+	//	Make notes too long for writeUTF(), mostly of one letter, with some characters outside ASCII.
+	protected static String makeNotes(char letter){
+		StringBuffer notes = new StringBuffer(LONG_NOTES_LENGTH);
+		for (int i = 0; i < LONG_NOTES_LENGTH; i++)
+			notes.append((i % 100 == 99) ? '\u20ac' : letter);
+		return notes.toString();
+	}
+
+
+	protected static void check(String what, boolean passed){
+		System.out.println((passed ? "ok      " : "FAILED  ") + what);
+		if (!passed)
+			sFailed = true;
+	}
+}
@@ -0,0 +1,94 @@
+//	UndoSpillFile.java - Temporary file holding the bulky parts of older undoable edits.
+
+//	See EditManager for a description of the undo memory budget.  Each spilled edit is written as one
+//	length-prefixed record appended to the end of the file.  Records are never rewritten, and the space
+//	used by edits that have been read back or discarded is not reclaimed until the file is deleted.
+//
+//	Strings are written with writeString() rather than DataOutput.writeUTF(), which can't write more than
+//	64K bytes.  A state's notes can be longer than that, and one failed write turns spilling off.
+
+import java.io.*;
+
+class UndoSpillFile {
+
+	// 	Constants ------------------------------------------------------------------------
+	protected static final String SPILL_FILE_SUFFIX = ".undo";
+	
+	
+	//	Instance variables ----------------------------------------------------------------
+	protected File iFile;
+	protected RandomAccessFile iData;
+	
+	
+	//	Constructor ---------------------------------------------------------------------
+	//	Create the file in the platform's temporary directory.
+	public UndoSpillFile() throws IOException {
+		iFile = File.createTempFile(TLDocument.TEMPORARY_FILE_PREFIX, SPILL_FILE_SUFFIX);
+		iFile.deleteOnExit();
+		iData = new RandomAccessFile(iFile, "rw");
+	}
+	
+	
+	//	Write an edit's spillable parts to the file, and then have it release them.  If the write fails,
+	//	the edit is left untouched.
+	public void spill(TLUndoableEdit edit) throws IOException {
+		Debug.assertOnError(!edit.isSpilled());
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream os = new DataOutputStream(bytes);
+		edit.writeSpillData(os);
+		os.close();
+		
+		long position = iData.length();
+		iData.seek(position);
+		iData.writeInt(bytes.size());
+		iData.write(bytes.toByteArray());
+		
+		edit.releaseSpillData();
+		edit.iSpillPosition = position;
+	}
+	
+	
+	//	Read an edit's spilled parts back into memory.
+	//	The edit is needed for an undo or redo, so failure here is not recoverable.
+	public void reload(TLUndoableEdit edit){
+		Debug.assertOnError(edit.isSpilled());
+		try {
+			iData.seek(edit.iSpillPosition);
+			byte[] buffer = new byte[iData.readInt()];
+			iData.readFully(buffer);
+			edit.readSpillData(new DataInputStream(new ByteArrayInputStream(buffer)));
+			edit.iSpillPosition = TLUndoableEdit.NOT_SPILLED;
+		}
+		catch (IOException e){
+			throw new ImplementationException(e);
+		}
+	}
+	
+	
+	//	Write a string of any length to a spill record, as its length in UTF-8 bytes followed by the bytes.
+	public static void writeString(DataOutput os, String s) throws IOException {
+		byte[] bytes = s.getBytes("UTF-8");
+		os.writeInt(bytes.length);
+		os.write(bytes);
+	}
+	
+	
+	//	Read a string written by writeString().
+	public static String readString(DataInput is) throws IOException {
+		byte[] bytes = new byte[is.readInt()];
+		is.readFully(bytes);
+		return new String(bytes, "UTF-8");
+	}
+	
+	
+	//	Close and delete the file.  
+	public void delete(){
+		try {
+			iData.close();
+		}
+		catch (IOException e){
+			//	Ignore exceptions;  we're discarding the file anyway.
+		}
+		iFile.delete();
+	}
+}
@@ -0,0 +1,162 @@
+//	ZoomPreview.java - Show a timeline pane's states while it is being zoomed continuously.
+
+//	Zooming with the mouse wheel changes the TimePositionMapping's ratio of millis to pixels many times a
+//	second.  Measuring and placing every state after each step, as a change of scale does, would make the
+//	zoom jerky on any but the smallest documents.  Instead, while the zoom goes on, the states keep the
+//	levels they were placed in, and we measure them again at the new ratio, without placing them again.
+//
+//	To draw, we need the states in the clip rectangle, but Placer finds states by the positions they were
+//	placed at.  So we keep a copy of the mapping those positions were measured with (the index mapping), map
+//	the clip rectangle back through it, and ask Placer for the states there.  Only these are measured again
+//	before they are drawn, so drawing takes time in proportion to the number of states shown.  Labels don't
+//	change width with the scale, so the rectangle is widened to the left to catch labels that reach into it.
+//
+//	Meanwhile, a timer measures all the states again, a few milliseconds' worth at a time, so the window
+//	stays responsive.  When it gets through them all, Placer's index is rebuilt from the new positions, and
+//	the current mapping becomes the index mapping.  Each step of the zoom starts it again.
+//
+//	Once the zoom has paused for SETTLE_DELAY, the pane is laid out properly at the new ratio.  States placed
+//	at one ratio may overlap at another, when labels that fitted between their neighbours no longer do;
+//	the proper layout puts that right.
+//
+//	All methods must be called on the event dispatch thread.
+
+import java.awt.*;
+import java.awt.event.*;
+import java.util.*;
+import java.util.List;
+import javax.swing.Timer;
+
+class ZoomPreview extends Object {
+
+	// 	Constants ------------------------------------------------------------------------
+	protected static final int SWEEP_INTERVAL = 16;			//	mS. between pieces of the sweep;  about one frame
+	protected static final long SWEEP_BUDGET = 4000000;		//	nS. of measuring in each piece
+	protected static final int SWEEP_CHECK_INTERVAL = 64;		//	States measured between looks at the clock
+	protected static final int SETTLE_DELAY = 250;			//	mS. after the last step before laying out properly
+
+	//	How far to the left of the clip rectangle, in pixels, to look for states whose labels might reach
+	//	into it.
+	protected static final int LABEL_ALLOWANCE = 512;
+
+
+	//	Instance variables ----------------------------------------------------------------
+	protected TimelinePane iTLPane;				//	Pane being zoomed
+	protected TimePositionMapping iTPM;			//	The pane's mapping
+	protected Placer iPlacer;					//	The pane's placer
+	protected TimePositionMapping iIndexMapping;	//	Mapping the Placer's index was made with, or null if inactive
+	protected int iSweepLevel;					//	Next state to be measured by the sweep
+	protected int iSweepIndex;
+	protected Timer iSweepTimer;
+	protected Timer iSettleTimer;
+
+
+	//	Constructor ---------------------------------------------------------------------
+	public ZoomPreview(TimelinePane tlPane, TimePositionMapping tpm, Placer placer){
+		iTLPane = tlPane;
+		iTPM = tpm;
+		iPlacer = placer;
+
+		iSweepTimer = new Timer(SWEEP_INTERVAL, new ActionListener(){
+				public void actionPerformed(ActionEvent e){
+					ZoomPreview.this.sweep();
+				}
+			});
+		iSettleTimer = new Timer(SETTLE_DELAY, new ActionListener(){
+				public void actionPerformed(ActionEvent e){
+					iTLPane.zoomSettled();
+				}
+			});
+		iSettleTimer.setRepeats(false);
+	}
+
+
+	//	Trivial accessors -------------------------------------------------------------
+	public boolean isActive()				{	return iIndexMapping != null;		}
+
+
+	//	Start previewing.  The placed states' positions were measured with indexMapping.
+	public void begin(TimePositionMapping indexMapping){
+		iIndexMapping = indexMapping;
+		this.restartSweep();
+	}
+
+
+	//	Called after each step of the zoom, whether we are previewing or not, to put off laying out properly
+	//	until the zoom pauses.
+	public void stepped(){
+		if (this.isActive())
+			this.restartSweep();
+		iSettleTimer.restart();
+	}
+
+
+	//	Start measuring all the states again, because the mapping has changed.
+	public void restartSweep(){
+		iSweepLevel = 0;
+		iSweepIndex = 0;
+		iSweepTimer.restart();
+	}
+
+
+	//	Stop previewing, and forget any layout waiting for the zoom to pause.  The pane must be laid out
+	//	properly after this.
+	public void end(){
+		iIndexMapping = null;
+		iSweepTimer.stop();
+		iSettleTimer.stop();
+	}
+
+
+	//	Draw the states in a clip rectangle, measuring them again first.
+	public void paint(Graphics g, Rectangle clipRect){
+
+		//	Find the part of the index the clip rectangle covers, allowing for labels.
+		int left = clipRect.x;
+		int right = clipRect.x + clipRect.width;
+		int indexLeft = Math.min(this.toIndexX(left) - LABEL_ALLOWANCE, this.toIndexX(left - LABEL_ALLOWANCE));
+		int indexRight = this.toIndexX(right) + 1;
+		Rectangle indexRect = new Rectangle(indexLeft, clipRect.y, indexRight - indexLeft, clipRect.height);
+
+		Iterator iter = iPlacer.getObjectsInRect(indexRect).iterator();
+		while (iter.hasNext()){
+			DisplayedState dObj = (DisplayedState)iter.next();
+			dObj.calculateDimensions(iTPM);
+			dObj.draw(g, clipRect);
+		}
+	}
+
+
+	//	Internal methods ------------------------------------------------------------
+
+	//	Return the position in the Placer's index of a position in the pane.
+	protected int toIndexX(int x){
+		return iIndexMapping.timeToXPosition(iTPM.xPositionToTime(x));
+	}
+
+
+	//	Measure the next few states again.  Once they have all been measured, rebuild Placer's index from their
+	//	new positions.
+	protected void sweep(){
+		long deadline = System.nanoTime() + SWEEP_BUDGET;
+		int count = 0;
+		while (iSweepLevel < iPlacer.getLevelCount()){
+			List level = iPlacer.getLevelContents(iSweepLevel);
+			if (iSweepIndex >= level.size()){
+				iSweepLevel++;
+				iSweepIndex = 0;
+				continue;
+			}
+			((DisplayedState)level.get(iSweepIndex++)).calculateDimensions(iTPM);
+			if (++count % SWEEP_CHECK_INTERVAL == 0 && System.nanoTime() > deadline)
+				return;
+		}
+
+		long startTime = System.currentTimeMillis();
+		iPlacer.reindex();
+		iIndexMapping = iTPM.copyMapping();
+		iSweepTimer.stop();
+		if (Debug.DISPLAY_TIMINGS)
+			System.out.println((System.currentTimeMillis() - startTime) + " mS. to reindex states measured while zooming");
+	}
+}